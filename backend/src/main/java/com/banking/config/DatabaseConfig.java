@@ -1,9 +1,81 @@
 package com.banking.config;
 
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
 
+import javax.sql.DataSource;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Read/write splitting, active once {@code app.datasource.replicas} lists at least one
+ * replica; without replicas Spring Boot's single pool from {@code spring.datasource} is used.
+ * <p>
+ * Every pool, the primary included, reports HikariCP's {@code hikaricp.connections.*}
+ * metrics tagged with its pool name ({@code primary}, {@code replica-1}, ...). The primary
+ * pool still honours {@code spring.datasource.hikari.*}.
+ */
 @Configuration
+@ConditionalOnProperty(name = "app.datasource.replicas[0].url")
+@EnableConfigurationProperties(ReplicaProperties.class)
 public class DatabaseConfig {
-    // Flyway configuration is now handled by Spring Boot auto-configuration
-    // via application.yml properties
+
+    @Bean
+    public ReplicaRoutingDataSource routingDataSource(DataSourceProperties dataSourceProperties,
+                                                      ReplicaProperties replicaProperties,
+                                                      Environment environment,
+                                                      MeterRegistry meterRegistry) {
+        MicrometerMetricsTrackerFactory metrics = new MicrometerMetricsTrackerFactory(meterRegistry);
+
+        HikariDataSource primary = dataSourceProperties.initializeDataSourceBuilder()
+                .type(HikariDataSource.class)
+                .build();
+        Binder.get(environment).bind("spring.datasource.hikari", Bindable.ofInstance(primary));
+        primary.setPoolName(ReplicaRoutingDataSource.PRIMARY);
+        primary.setMetricsTrackerFactory(metrics);
+
+        Map<String, DataSource> replicas = new LinkedHashMap<>();
+        for (ReplicaProperties.Replica replica : replicaProperties.getReplicas()) {
+            String name = replica.getName() != null ? replica.getName() : "replica-" + (replicas.size() + 1);
+            HikariDataSource pool = new HikariDataSource();
+            pool.setPoolName(name);
+            pool.setDriverClassName(dataSourceProperties.determineDriverClassName());
+            pool.setJdbcUrl(replica.getUrl());
+            pool.setUsername(replica.getUsername() != null
+                    ? replica.getUsername() : dataSourceProperties.determineUsername());
+            pool.setPassword(replica.getPassword() != null
+                    ? replica.getPassword() : dataSourceProperties.determinePassword());
+            pool.setMaximumPoolSize(replica.getMaximumPoolSize());
+            // A write routed here by mistake fails instead of diverging the replica
+            pool.setReadOnly(true);
+            pool.setMetricsTrackerFactory(metrics);
+            replicas.put(name, pool);
+        }
+
+        ReplicaRoutingDataSource routing = new ReplicaRoutingDataSource(primary, replicas,
+                replicaProperties.getMaxLagMs(), meterRegistry);
+        routing.setStartupTimeoutMs(replicaProperties.getStartupTimeoutMs());
+        return routing;
+    }
+
+    /**
+     * The DataSource JPA, Flyway and JDBC templates use. Connections are fetched lazily,
+     * after the transaction's read-only flag is known.
+     */
+    @Bean
+    @Primary
+    public DataSource dataSource(ReplicaRoutingDataSource routingDataSource) {
+        return new LazyConnectionDataSourceProxy(routingDataSource);
+    }
 }
@@ -1,6 +1,8 @@
 package com.banking.config;
 
 import com.banking.events.TransactionEvent;
+import com.banking.events.TransactionEventDeserializer;
+import com.banking.events.TransactionEventSerializer;
 import org.apache.kafka.clients.admin.NewTopic;
 import org.apache.kafka.clients.consumer.ConsumerConfig;
 import org.apache.kafka.clients.producer.ProducerConfig;
@@ -12,6 +14,7 @@ import org.springframework.context.annotation.Configuration;
 import org.springframework.kafka.annotation.EnableKafka;
 import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
 import org.springframework.kafka.core.*;
+import org.springframework.kafka.listener.ContainerProperties;
 import org.springframework.kafka.support.serializer.JsonDeserializer;
 import org.springframework.kafka.support.serializer.JsonSerializer;
 
@@ -31,27 +34,84 @@ public class KafkaConfig {
     @Value("${app.kafka.topics.suspicious-transactions}")
     private String suspiciousTransactionsTopic;
 
+    @Value("${app.kafka.topics.transactions-partitions:3}")
+    private int transactionsPartitions;
+
+    @Value("${app.kafka.consumer.max-poll-records:500}")
+    private int maxPollRecords;
+
+    // json | binary (TransactionEventCodec) for what this node produces
+    @Value("${app.kafka.serialization:json}")
+    private String serialization;
+
+    // binary also reads JSON records, so consumers switch first
+    @Value("${app.kafka.consumer.serialization:${app.kafka.serialization:json}}")
+    private String consumerSerialization;
+
+    @Value("${app.kafka.producer.profile:throughput}")
+    private String producerProfile;
+
+    @Value("${app.kafka.producer.linger-ms:10}")
+    private int producerLingerMs;
+
+    @Value("${app.kafka.producer.batch-size:131072}")
+    private int producerBatchSize;
+
+    @Value("${app.kafka.producer.compression:lz4}")
+    private String producerCompression;
+
     // Producer configuration
     @Bean
     public Map<String, Object> producerConfigs() {
         Map<String, Object> props = new HashMap<>();
         props.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
         props.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
-        props.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, JsonSerializer.class);
+        props.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG,
+                isBinary() ? TransactionEventSerializer.class : JsonSerializer.class);
+        if ("throughput".equals(producerProfile)) {
+            props.putAll(throughputProducerSettings(producerLingerMs, producerBatchSize, producerCompression));
+        } else {
+            props.putAll(legacyProducerSettings());
+        }
+        return props;
+    }
+
+    static Map<String, Object> legacyProducerSettings() {
+        Map<String, Object> props = new HashMap<>();
         props.put(ProducerConfig.ACKS_CONFIG, "all");
         props.put(ProducerConfig.RETRIES_CONFIG, 3);
         return props;
     }
 
+    /**
+     * Idempotent, compressed and batched. Idempotence keeps retries from duplicating or
+     * reordering records within a partition, which together with keying by account keeps
+     * per-account event order.
+     */
+    static Map<String, Object> throughputProducerSettings(int lingerMs, int batchSize, String compression) {
+        Map<String, Object> props = new HashMap<>();
+        props.put(ProducerConfig.ACKS_CONFIG, "all");
+        props.put(ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, true);
+        props.put(ProducerConfig.MAX_IN_FLIGHT_REQUESTS_PER_CONNECTION, 5);
+        props.put(ProducerConfig.RETRIES_CONFIG, Integer.MAX_VALUE);
+        props.put(ProducerConfig.LINGER_MS_CONFIG, lingerMs);
+        props.put(ProducerConfig.BATCH_SIZE_CONFIG, batchSize);
+        props.put(ProducerConfig.COMPRESSION_TYPE_CONFIG, compression);
+        return props;
+    }
+
     // Consumer configuration
     @Bean
     public Map<String, Object> consumerConfigs() {
         Map<String, Object> props = new HashMap<>();
         props.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
         props.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
-        props.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, JsonDeserializer.class);
+        props.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG,
+                consumesBinary() ? TransactionEventDeserializer.class : JsonDeserializer.class);
         props.put(ConsumerConfig.GROUP_ID_CONFIG, "banking-group");
         props.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest");
+        props.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false);
+        props.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, maxPollRecords);
         props.put(JsonDeserializer.TRUSTED_PACKAGES, "com.banking.events");
         return props;
     }
@@ -71,7 +131,7 @@ public class KafkaConfig {
         return new DefaultKafkaConsumerFactory<>(
                 consumerConfigs(),
                 new StringDeserializer(),
-                new JsonDeserializer<>(TransactionEvent.class, false));
+                consumesBinary() ? new TransactionEventDeserializer() : new JsonDeserializer<>(TransactionEvent.class, false));
     }
 
     @Bean
@@ -82,10 +142,33 @@ public class KafkaConfig {
         return factory;
     }
 
+    /**
+     * Delivers each poll as one list, one consumer thread per partition of the transactions
+     * topic. Offsets are committed once the listener returns, i.e. after its DB transaction.
+     */
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<String, TransactionEvent> batchKafkaListenerContainerFactory() {
+        ConcurrentKafkaListenerContainerFactory<String, TransactionEvent> factory =
+                new ConcurrentKafkaListenerContainerFactory<>();
+        factory.setConsumerFactory(consumerFactory());
+        factory.setBatchListener(true);
+        factory.setConcurrency(transactionsPartitions);
+        factory.getContainerProperties().setAckMode(ContainerProperties.AckMode.BATCH);
+        return factory;
+    }
+
+    private boolean isBinary() {
+        return "binary".equals(serialization);
+    }
+
+    private boolean consumesBinary() {
+        return "binary".equals(consumerSerialization);
+    }
+
     // Topic creation
     @Bean
     public NewTopic transactionsTopic() {
-        return new NewTopic(transactionsTopic, 3, (short) 1);
+        return new NewTopic(transactionsTopic, transactionsPartitions, (short) 1);
     }
 
     @Bean
@@ -0,0 +1,38 @@
+package com.banking.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Read replicas under {@code app.datasource}. Username and password default to the
+ * primary's {@code spring.datasource} credentials.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "app.datasource")
+public class ReplicaProperties {
+
+    private List<Replica> replicas = new ArrayList<>();
+
+    /** Replicas measured further behind than this are skipped until they catch up. */
+    private long maxLagMs = 2000;
+
+    private long lagCheckIntervalMs = 500;
+
+    /** Startup fails if a replica cannot read the heartbeat within this long. */
+    private long startupTimeoutMs = 30000;
+
+    @Getter
+    @Setter
+    public static class Replica {
+        private String name;
+        private String url;
+        private String username;
+        private String password;
+        private int maximumPoolSize = 10;
+    }
+}
@@ -0,0 +1,205 @@
+package com.banking.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Sends read-only transactions to a replica, round robin over those whose last measured
+ * lag is within {@code maxLagMs}; everything else, and read-only work when no replica
+ * qualifies, goes to the primary. Reads whose result feeds a write must therefore run in a
+ * read-write transaction, as must anything that has to see the caller's own commits.
+ * <p>
+ * Lag is measured pt-heartbeat style: {@link #checkLag()} stamps {@code replica_heartbeat}
+ * on the primary and reads the replicated stamp back on each replica, so a reading overstates
+ * the true lag by at most one check interval. A replica that cannot be read is skipped.
+ * The table does not depend on Flyway: once every singleton, Flyway and Hibernate's schema
+ * tooling included, is up, {@link #afterSingletonsInstantiated()} creates and seeds it on the
+ * primary and fails startup unless every replica can read it within {@code startupTimeoutMs},
+ * so a missing table cannot silently leave all reads on the primary.
+ * The routing key is looked up when the first statement needs a connection, so the
+ * {@link DataSource} handed to JPA must be wrapped in a
+ * {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy}; by then the
+ * transaction's read-only flag is set.
+ * <p>
+ * Metrics: {@code banking.datasource.routed} tagged with the target pool,
+ * {@code banking.datasource.replica.fallbacks} for read-only work sent to the primary, and
+ * {@code banking.datasource.replica.lag} per replica (NaN until first measured or while
+ * unreachable).
+ */
+@Slf4j
+public final class ReplicaRoutingDataSource extends AbstractRoutingDataSource
+        implements SmartInitializingSingleton, AutoCloseable {
+
+    static final String PRIMARY = "primary";
+
+    private static final long UNKNOWN_LAG = Long.MAX_VALUE;
+    private static final long STARTUP_POLL_MS = 200;
+
+    private static final class Replica {
+        private final String name;
+        private final JdbcTemplate jdbc;
+        private final Counter routed;
+        private volatile long lagMillis = UNKNOWN_LAG;
+
+        private Replica(String name, DataSource dataSource, Counter routed) {
+            this.name = name;
+            this.jdbc = new JdbcTemplate(dataSource);
+            this.routed = routed;
+        }
+    }
+
+    private final JdbcTemplate primaryJdbc;
+    private final List<Replica> replicas = new ArrayList<>();
+    private final long maxLagMs;
+    private final AtomicInteger next = new AtomicInteger();
+    private final Counter primaryRouted;
+    private final Counter fallbacks;
+    private long startupTimeoutMs;
+    private volatile boolean stampFailing;
+
+    public ReplicaRoutingDataSource(DataSource primary, Map<String, DataSource> replicaPools, long maxLagMs,
+                                    MeterRegistry meterRegistry) {
+        this.primaryJdbc = new JdbcTemplate(primary);
+        this.maxLagMs = maxLagMs;
+        this.primaryRouted = routedCounter(meterRegistry, PRIMARY);
+        this.fallbacks = Counter.builder("banking.datasource.replica.fallbacks")
+                .description("Read-only transactions sent to the primary because no replica was within the lag limit")
+                .register(meterRegistry);
+
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(PRIMARY, primary);
+        replicaPools.forEach((name, dataSource) -> {
+            Replica replica = new Replica(name, dataSource, routedCounter(meterRegistry, name));
+            replicas.add(replica);
+            targets.put(name, dataSource);
+            Gauge.builder("banking.datasource.replica.lag", replica,
+                            r -> r.lagMillis == UNKNOWN_LAG ? Double.NaN : r.lagMillis)
+                    .tag("replica", name)
+                    .baseUnit("milliseconds")
+                    .register(meterRegistry);
+        });
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+        setLenientFallback(false);
+    }
+
+    /**
+     * How long startup waits for every replica to read the heartbeat, which covers the
+     * table's creation replicating from the primary.
+     */
+    public void setStartupTimeoutMs(long startupTimeoutMs) {
+        this.startupTimeoutMs = startupTimeoutMs;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        primaryJdbc.execute("CREATE TABLE IF NOT EXISTS replica_heartbeat ("
+                + "id TINYINT PRIMARY KEY, beat_at TIMESTAMP(6) NOT NULL) ENGINE=InnoDB");
+        primaryJdbc.update("INSERT IGNORE INTO replica_heartbeat (id, beat_at) VALUES (1, NOW(6))");
+
+        long deadline = System.currentTimeMillis() + startupTimeoutMs;
+        for (Replica replica : replicas) {
+            while (true) {
+                try {
+                    replica.lagMillis = measureLag(replica);
+                    break;
+                } catch (DataAccessException e) {
+                    if (System.currentTimeMillis() >= deadline) {
+                        throw new IllegalStateException("Replica " + replica.name
+                                + " cannot read replica_heartbeat; check that it replicates from the primary", e);
+                    }
+                }
+                try {
+                    Thread.sleep(STARTUP_POLL_MS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IllegalStateException("Interrupted waiting for replica " + replica.name, e);
+                }
+            }
+        }
+        log.info("Replica heartbeat readable on {} replica(s)", replicas.size());
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly() || replicas.isEmpty()) {
+            primaryRouted.increment();
+            return PRIMARY;
+        }
+        // Skipped replicas consume a turn too, so their share is spread evenly over the rest
+        int count = replicas.size();
+        for (int i = 0; i < count; i++) {
+            Replica replica = replicas.get(Math.floorMod(next.getAndIncrement(), count));
+            if (replica.lagMillis <= maxLagMs) {
+                replica.routed.increment();
+                return replica.name;
+            }
+        }
+        fallbacks.increment();
+        primaryRouted.increment();
+        return PRIMARY;
+    }
+
+    @Scheduled(fixedDelayString = "${app.datasource.lag-check-interval-ms:500}")
+    public void checkLag() {
+        try {
+            primaryJdbc.update("UPDATE replica_heartbeat SET beat_at = NOW(6) WHERE id = 1");
+            stampFailing = false;
+        } catch (DataAccessException e) {
+            // Logged once per outage rather than every interval
+            if (!stampFailing) {
+                log.warn("Could not stamp the replica heartbeat on the primary: {}", e.getMessage());
+            }
+            stampFailing = true;
+        }
+        for (Replica replica : replicas) {
+            try {
+                replica.lagMillis = measureLag(replica);
+            } catch (DataAccessException e) {
+                if (replica.lagMillis != UNKNOWN_LAG) {
+                    log.warn("Replica {} is unreachable, reads fall back to the primary: {}",
+                            replica.name, e.getMessage());
+                }
+                replica.lagMillis = UNKNOWN_LAG;
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        getResolvedDataSources().values().stream()
+                .filter(HikariDataSource.class::isInstance)
+                .map(HikariDataSource.class::cast)
+                .forEach(HikariDataSource::close);
+    }
+
+    private static long measureLag(Replica replica) {
+        Long micros = replica.jdbc.queryForObject(
+                "SELECT TIMESTAMPDIFF(MICROSECOND, beat_at, NOW(6)) FROM replica_heartbeat WHERE id = 1",
+                Long.class);
+        return micros == null ? UNKNOWN_LAG : Math.max(0, micros / 1000);
+    }
+
+    private static Counter routedCounter(MeterRegistry meterRegistry, String target) {
+        return Counter.builder("banking.datasource.routed")
+                .description("Connections handed out, by pool")
+                .tag("target", target)
+                .register(meterRegistry);
+    }
+}
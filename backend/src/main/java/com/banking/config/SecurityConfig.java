@@ -1,5 +1,6 @@
 package com.banking.config;
 
+import com.banking.security.BoundedPasswordEncoder;
 import com.banking.security.JwtAuthenticationEntryPoint;
 import com.banking.security.JwtAuthenticationFilter;
 import com.banking.security.JwtService;
@@ -15,8 +16,6 @@ import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
 import org.springframework.security.config.http.SessionCreationPolicy;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 import org.springframework.web.cors.CorsConfiguration;
@@ -34,6 +33,7 @@ public class SecurityConfig {
     private final UserDetailsServiceImpl userDetailsService;
     private final JwtAuthenticationEntryPoint unauthorizedHandler;
     private final JwtService jwtService;
+    private final BoundedPasswordEncoder passwordEncoder;
 
     @Bean
     public JwtAuthenticationFilter authenticationJwtTokenFilter() {
@@ -44,7 +44,9 @@ public class SecurityConfig {
     public DaoAuthenticationProvider authenticationProvider() {
         DaoAuthenticationProvider authProvider = new DaoAuthenticationProvider();
         authProvider.setUserDetailsService(userDetailsService);
-        authProvider.setPasswordEncoder(passwordEncoder());
+        authProvider.setPasswordEncoder(passwordEncoder);
+        // Re-encodes outdated hashes with the configured algorithm after a successful login
+        authProvider.setUserDetailsPasswordService(userDetailsService);
         return authProvider;
     }
 
@@ -53,11 +55,6 @@ public class SecurityConfig {
         return authConfig.getAuthenticationManager();
     }
 
-    @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
-    }
-
     @Bean
     public SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
         http
@@ -69,6 +66,7 @@ public class SecurityConfig {
                 auth.requestMatchers(
                         "/auth/login",
                         "/auth/register",
+                        "/auth/.well-known/jwks.json",
                         "/test/**",
                         "/v3/api-docs/**",
                         "/swagger-ui/**",
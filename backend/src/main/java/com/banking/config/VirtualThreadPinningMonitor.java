@@ -0,0 +1,126 @@
+package com.banking.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingStream;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Reports virtual threads that block while pinned to their carrier, which on Java 21 happens
+ * when they park inside {@code synchronized} or a native frame. A pinned virtual thread holds
+ * a carrier exactly like a platform thread would, and once every carrier is pinned no other
+ * virtual thread runs at all.
+ * <p>
+ * The known source is MySQL Connector/J 8.0, which reads the socket inside {@code synchronized},
+ * so every JDBC call that waits on the server pins. Connections in use are bounded by the
+ * Hikari pools, which is why {@link #init()} warns when the pools together can pin every carrier;
+ * raise {@code -Djdk.virtualThreadScheduler.parallelism} above the total pool size in that case.
+ * <p>
+ * Pinned parks longer than {@code app.virtual-threads.pinning-threshold-ms} are read from the
+ * JFR {@code jdk.VirtualThreadPinned} event and counted in {@code banking.virtual-threads.pinned}
+ * (a timer tagged with the first non-JDK frame). Each new frame is logged once with its stack.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "spring.threads.virtual.enabled", havingValue = "true")
+@RequiredArgsConstructor
+public class VirtualThreadPinningMonitor {
+
+    static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+
+    private static final int LOGGED_FRAMES = 12;
+
+    private final MeterRegistry meterRegistry;
+    private final ObjectProvider<ReplicaProperties> replicaProperties;
+
+    @Value("${app.virtual-threads.pinning-threshold-ms:20}")
+    private long thresholdMs;
+
+    @Value("${spring.datasource.hikari.maximum-pool-size:10}")
+    private int primaryPoolSize;
+
+    private final Set<String> reportedFrames = ConcurrentHashMap.newKeySet();
+    private RecordingStream stream;
+
+    @PostConstruct
+    public void init() {
+        int connections = primaryPoolSize;
+        ReplicaProperties replicas = replicaProperties.getIfAvailable();
+        if (replicas != null) {
+            connections += replicas.getReplicas().stream().mapToInt(ReplicaProperties.Replica::getMaximumPoolSize).sum();
+        }
+        int carriers = Integer.getInteger("jdk.virtualThreadScheduler.parallelism",
+                Runtime.getRuntime().availableProcessors());
+        if (connections >= carriers) {
+            log.warn("Virtual threads: {} pooled connections can pin all {} carrier threads while queries wait on "
+                    + "MySQL; set -Djdk.virtualThreadScheduler.parallelism above {}", connections, carriers, connections);
+        }
+
+        stream = new RecordingStream();
+        stream.enable(PINNED_EVENT).withThreshold(Duration.ofMillis(thresholdMs)).withStackTrace();
+        stream.onEvent(PINNED_EVENT, this::record);
+        stream.startAsync();
+        log.info("Virtual threads enabled; reporting pinned parks over {} ms", thresholdMs);
+    }
+
+    @PreDestroy
+    public void stop() {
+        stream.close();
+    }
+
+    void record(RecordedEvent event) {
+        List<RecordedFrame> frames = event.getStackTrace() != null
+                ? event.getStackTrace().getFrames() : List.of();
+        String site = frames.stream()
+                .filter(frame -> frame.isJavaFrame() && !isJdk(frame))
+                .findFirst()
+                .map(VirtualThreadPinningMonitor::describe)
+                .orElse("unknown");
+
+        Timer.builder("banking.virtual-threads.pinned")
+                .description("Virtual thread parks while pinned to a carrier")
+                .tag("frame", site)
+                .register(meterRegistry)
+                .record(event.getDuration());
+
+        if (reportedFrames.add(site)) {
+            log.warn("Virtual thread pinned for {} ms at {}:\n\t{}", event.getDuration().toMillis(), site,
+                    stack(event.getStackTrace()));
+        }
+    }
+
+    private static boolean isJdk(RecordedFrame frame) {
+        String type = frame.getMethod().getType().getName();
+        return type.startsWith("java.") || type.startsWith("jdk.") || type.startsWith("sun.");
+    }
+
+    private static String describe(RecordedFrame frame) {
+        return frame.getMethod().getType().getName() + "." + frame.getMethod().getName();
+    }
+
+    private static String stack(RecordedStackTrace stackTrace) {
+        if (stackTrace == null) {
+            return "(no stack trace)";
+        }
+        return stackTrace.getFrames().stream()
+                .limit(LOGGED_FRAMES)
+                .map(frame -> describe(frame) + ":" + frame.getLineNumber())
+                .collect(Collectors.joining("\n\t"));
+    }
+}
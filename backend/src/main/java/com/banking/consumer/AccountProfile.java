@@ -0,0 +1,128 @@
+package com.banking.consumer;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Behavioural state for one sending account, fixed in size: a ring of per-slot transfer
+ * counts and sums, the most recent receivers, and running amount statistics (Welford).
+ * Not thread-safe; {@link FraudScoringEngine} serialises access per account.
+ */
+final class AccountProfile {
+
+    private final int[] counts;
+    private final long[] sumsCents;
+    private final int maxReceivers;
+    private long headSlot;
+    private int windowCount;
+    private long windowSumCents;
+
+    // receiverId -> last slot it was paid, in least-recently-used order
+    private final LinkedHashMap<Long, Long> receivers;
+
+    private long amountSamples;
+    private double amountMean;
+    private double amountM2;
+
+    AccountProfile(int slots, int maxReceivers, long headSlot) {
+        this.counts = new int[slots];
+        this.sumsCents = new long[slots];
+        this.maxReceivers = maxReceivers;
+        this.headSlot = headSlot;
+        this.receivers = new LinkedHashMap<>(16, 0.75f, true);
+    }
+
+    int windowCount(long now) {
+        advance(now);
+        return windowCount;
+    }
+
+    long windowSumCents(long now) {
+        advance(now);
+        return windowSumCents;
+    }
+
+    boolean hasPaid(Long receiverId) {
+        return receivers.containsKey(receiverId);
+    }
+
+    int distinctReceivers(long now) {
+        advance(now);
+        long oldest = headSlot - counts.length;
+        int distinct = 0;
+        for (long lastSlot : receivers.values()) {
+            if (lastSlot > oldest) {
+                distinct++;
+            }
+        }
+        return distinct;
+    }
+
+    long amountSamples() {
+        return amountSamples;
+    }
+
+    /**
+     * Standard score of the amount against this account's history; 0 without variance.
+     */
+    double zScore(double amount) {
+        if (amountSamples < 2) {
+            return 0;
+        }
+        double stdDev = Math.sqrt(amountM2 / (amountSamples - 1));
+        return stdDev == 0 ? 0 : (amount - amountMean) / stdDev;
+    }
+
+    void record(long now, long slot, Long receiverId, long amountCents, double amount) {
+        advance(now);
+        // Late events still count if their slot has not left the window
+        if (slot > headSlot - counts.length && slot <= headSlot) {
+            int index = (int) Math.floorMod(slot, (long) counts.length);
+            counts[index]++;
+            sumsCents[index] += amountCents;
+            windowCount++;
+            windowSumCents += amountCents;
+        }
+
+        if (receiverId != null) {
+            receivers.put(receiverId, Math.max(slot, receivers.getOrDefault(receiverId, Long.MIN_VALUE)));
+            if (receivers.size() > maxReceivers) {
+                Iterator<Map.Entry<Long, Long>> eldest = receivers.entrySet().iterator();
+                eldest.next();
+                eldest.remove();
+            }
+        }
+
+        amountSamples++;
+        double delta = amount - amountMean;
+        amountMean += delta / amountSamples;
+        amountM2 += delta * (amount - amountMean);
+    }
+
+    boolean isIdleSince(long slot) {
+        return headSlot < slot;
+    }
+
+    private void advance(long now) {
+        if (now <= headSlot) {
+            return;
+        }
+        if (now - headSlot >= counts.length) {
+            Arrays.fill(counts, 0);
+            Arrays.fill(sumsCents, 0);
+            windowCount = 0;
+            windowSumCents = 0;
+        } else {
+            for (long slot = headSlot + 1; slot <= now; slot++) {
+                int index = (int) Math.floorMod(slot, (long) counts.length);
+                windowCount -= counts[index];
+                windowSumCents -= sumsCents[index];
+                counts[index] = 0;
+                sumsCents[index] = 0;
+            }
+        }
+        headSlot = now;
+    }
+}
@@ -2,20 +2,30 @@ package com.banking.consumer;
 
 import com.banking.events.TransactionEvent;
 import com.banking.model.Transaction;
-import com.banking.model.User;
 import com.banking.model.enums.TransactionStatus;
 import com.banking.repository.TransactionRepository;
-import com.banking.repository.UserRepository;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.TopicPartition;
 import org.springframework.kafka.annotation.KafkaListener;
 import org.springframework.messaging.handler.annotation.Payload;
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Component;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.math.BigDecimal;
-import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalLong;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 
 @Slf4j
 @Component
@@ -23,43 +33,69 @@ import java.time.LocalDateTime;
 public class FraudDetectionConsumer {
 
     private final TransactionRepository transactionRepository;
-    private final UserRepository userRepository;
-    
-    private static final BigDecimal SUSPICIOUS_AMOUNT = new BigDecimal("10000");
-    private static final int MAX_ATTEMPTS = 5;
+    private final MeterRegistry meterRegistry;
+
+    private final Map<TopicPartition, AtomicLong> partitionLag = new ConcurrentHashMap<>();
+    private DistributionSummary recordsPerPoll;
     
-    @Async
+    @PostConstruct
+    public void registerMetrics() {
+        recordsPerPoll = DistributionSummary.builder("banking.fraud.records.per.poll")
+                .description("Transaction events delivered to the fraud listener per poll")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Handles one poll of transaction events. Referenced transactions are loaded with a
+     * single query and updated in one flush; the container commits the offsets only after
+     * this method, and therefore its transaction, has completed.
+     */
     @KafkaListener(
             topics = "${app.kafka.topics.transactions}",
             groupId = "fraud-detection-group",
-            containerFactory = "kafkaListenerContainerFactory"
+            containerFactory = "batchKafkaListenerContainerFactory"
     )
     @Transactional
-    public void consumeTransaction(@Payload TransactionEvent event) {
-        log.info("Received transaction event: {}", event);
-        
-        // Skip if not flagged as suspicious
-        if (!event.isSuspicious()) {
-            return;
+    public void consumeTransactions(List<ConsumerRecord<String, TransactionEvent>> records, Consumer<?, ?> consumer) {
+        recordsPerPoll.record(records.size());
+        log.debug("Received {} transaction events", records.size());
+
+        // Only events flagged as suspicious need any work
+        Set<Long> suspiciousIds = new HashSet<>();
+        for (ConsumerRecord<String, TransactionEvent> record : records) {
+            TransactionEvent event = record.value();
+            if (event != null && event.isSuspicious() && event.getTransactionId() != null) {
+                suspiciousIds.add(event.getTransactionId());
+            }
         }
-        
-        Transaction transaction = transactionRepository.findById(event.getTransactionId())
-                .orElseThrow(() -> new IllegalStateException("Transaction not found: " + event.getTransactionId()));
-        
-        // Check if transaction is already processed
-        if (transaction.getStatus() != TransactionStatus.PENDING) {
-            return;
+
+        if (!suspiciousIds.isEmpty()) {
+            List<Transaction> transactions = transactionRepository.findAllById(suspiciousIds);
+            if (transactions.size() < suspiciousIds.size()) {
+                log.warn("{} suspicious transaction(s) in batch not found", suspiciousIds.size() - transactions.size());
+            }
+
+            List<Transaction> flagged = new ArrayList<>();
+            for (Transaction transaction : transactions) {
+                // Skip transactions that were already processed
+                if (transaction.getStatus() == TransactionStatus.PENDING) {
+                    transaction.setStatus(TransactionStatus.FLAGGED);
+                    transaction.setFlagged(true);
+                    flagged.add(transaction);
+                }
+            }
+            if (!flagged.isEmpty()) {
+                transactionRepository.saveAll(flagged);
+                transactionRepository.flush();
+                log.warn("Flagged {} suspicious transaction(s): {}", flagged.size(),
+                        flagged.stream().map(Transaction::getId).toList());
+                // Here you would typically send a notification to admin
+            }
         }
-        
-        // Mark as flagged and notify admin
-        transaction.setStatus(TransactionStatus.FLAGGED);
-        transaction.setFlagged(true);
-        transactionRepository.save(transaction);
-        
-        log.warn("Suspicious transaction detected: {}", transaction);
-        // Here you would typically send a notification to admin
+
+        recordLag(records, consumer);
     }
-    
+
     @KafkaListener(
             topics = "${app.kafka.topics.suspicious-transactions}",
             groupId = "fraud-alerts-group",
@@ -70,21 +106,30 @@ public class FraudDetectionConsumer {
         // Here you would typically send an email/SMS to admin
     }
     
-    // Additional fraud detection logic can be added here
-    private boolean isPotentialFraud(TransactionEvent event) {
-        // Check for unusually large amount
-        if (event.getAmount().compareTo(SUSPICIOUS_AMOUNT) > 0) {
-            return true;
+    /**
+     * Publishes {@code banking.fraud.consumer.lag} per partition from the consumer's own
+     * view of the log end offset, so it costs no broker round trip.
+     */
+    private void recordLag(List<ConsumerRecord<String, TransactionEvent>> records, Consumer<?, ?> consumer) {
+        Set<TopicPartition> partitions = new HashSet<>();
+        for (ConsumerRecord<String, TransactionEvent> record : records) {
+            partitions.add(new TopicPartition(record.topic(), record.partition()));
         }
-        
-        // Check for multiple transactions in short time
-        User sender = userRepository.findById(event.getSenderId())
-                .orElseThrow(() -> new IllegalStateException("Sender not found: " + event.getSenderId()));
-        
-        LocalDateTime oneHourAgo = LocalDateTime.now().minusHours(1);
-        long recentTransactions = transactionRepository.countBySenderAndCreatedAtAfter(
-                sender, oneHourAgo);
-                
-        return recentTransactions > MAX_ATTEMPTS;
+        for (TopicPartition partition : partitions) {
+            OptionalLong lag = consumer.currentLag(partition);
+            if (lag.isPresent()) {
+                partitionLag.computeIfAbsent(partition, this::registerLagGauge).set(lag.getAsLong());
+            }
+        }
+    }
+
+    private AtomicLong registerLagGauge(TopicPartition partition) {
+        AtomicLong lag = new AtomicLong();
+        Gauge.builder("banking.fraud.consumer.lag", lag, AtomicLong::get)
+                .description("Records behind the log end offset after the last poll")
+                .tag("topic", partition.topic())
+                .tag("partition", String.valueOf(partition.partition()))
+                .register(meterRegistry);
+        return lag;
     }
 }
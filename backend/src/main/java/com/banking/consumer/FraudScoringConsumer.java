@@ -0,0 +1,100 @@
+package com.banking.consumer;
+
+import com.banking.events.TransactionEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Runs every transaction event through {@link FraudScoringEngine} and publishes the ones
+ * scoring at or above {@code app.fraud.scoring.alert-threshold} to the suspicious
+ * transactions topic. Alerts are acknowledged by the broker before the listener returns,
+ * so the batch's offsets are only committed once its alerts are durable.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class FraudScoringConsumer {
+
+    private final FraudScoringEngine fraudScoringEngine;
+    private final KafkaTemplate<String, TransactionEvent> kafkaTemplate;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.kafka.topics.suspicious-transactions}")
+    private String suspiciousTransactionsTopic;
+
+    @Value("${app.fraud.scoring.alert-threshold:1.0}")
+    private double alertThreshold;
+
+    @Value("${app.outbox.send-timeout-ms:10000}")
+    private long sendTimeoutMs;
+
+    private Counter scoredCounter;
+    private Counter alertCounter;
+
+    @PostConstruct
+    public void registerMetrics() {
+        scoredCounter = Counter.builder("banking.fraud.scoring.scored").register(meterRegistry);
+        alertCounter = Counter.builder("banking.fraud.scoring.alerts").register(meterRegistry);
+    }
+
+    @KafkaListener(
+            topics = "${app.kafka.topics.transactions}",
+            groupId = "fraud-scoring-group",
+            containerFactory = "batchKafkaListenerContainerFactory",
+            autoStartup = "${app.fraud.scoring.enabled:true}"
+    )
+    public void scoreTransactions(List<ConsumerRecord<String, TransactionEvent>> records) {
+        List<CompletableFuture<?>> alerts = new ArrayList<>();
+        for (ConsumerRecord<String, TransactionEvent> record : records) {
+            TransactionEvent event = record.value();
+            // Failed transfers moved no money and say nothing about the account's behaviour
+            if (event == null || event.getSenderId() == null || event.getAmount() == null
+                    || "FAILED".equals(event.getStatus())) {
+                continue;
+            }
+
+            FraudScoringEngine.FraudScore score = fraudScoringEngine.score(event);
+            if (score.score() >= alertThreshold) {
+                TransactionEvent alert = event.toBuilder()
+                        .isSuspicious(true)
+                        .fraudScore(score.score())
+                        .fraudReasons(score.reasons())
+                        .build();
+                alerts.add(kafkaTemplate.send(suspiciousTransactionsTopic, String.valueOf(event.getSenderId()), alert));
+            }
+        }
+        scoredCounter.increment(records.size());
+
+        if (!alerts.isEmpty()) {
+            alertCounter.increment(alerts.size());
+            awaitAcks(alerts);
+        }
+    }
+
+    private void awaitAcks(List<CompletableFuture<?>> acks) {
+        try {
+            CompletableFuture.allOf(acks.toArray(CompletableFuture[]::new))
+                    .get(sendTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted waiting for fraud alert acks", e);
+        } catch (ExecutionException | TimeoutException e) {
+            throw new IllegalStateException("Kafka did not acknowledge fraud alerts", e);
+        }
+    }
+}
@@ -0,0 +1,180 @@
+package com.banking.consumer;
+
+import com.banking.events.TransactionEvent;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Scores transaction events against per-account behaviour held in memory.
+ * <p>
+ * Rules are listed in {@code app.fraud.scoring.rules} as {@code name:weight} pairs and
+ * are evaluated in one pass against the sender's {@link AccountProfile} as it stood
+ * before the event; the profile is then updated with the event. An event's score is the
+ * sum of the weights of the rules it trips. No database access happens here, so state
+ * starts empty on boot and builds up from the stream; accounts idle for longer than
+ * {@code app.fraud.scoring.idle-eviction-hours} are dropped.
+ * <p>
+ * Windows follow event time, so replaying a partition scores events as they were scored live.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class FraudScoringEngine {
+
+    /**
+     * A rule sees the event and the sender's state before the event. It must not mutate the profile.
+     */
+    @FunctionalInterface
+    interface Rule {
+        boolean matches(TransactionEvent event, long amountCents, double amount, long slot, AccountProfile profile);
+    }
+
+    private record WeightedRule(String name, double weight, Rule rule) {
+    }
+
+    /**
+     * @param score   sum of the weights of the rules that matched
+     * @param reasons comma-separated names of those rules, empty when none matched
+     */
+    public record FraudScore(double score, String reasons) {
+    }
+
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.fraud.scoring.rules:large-amount:1.0,velocity:0.6,rolling-sum:0.6,new-receiver:0.4,receiver-fanout:0.5,amount-zscore:0.5}")
+    private String[] ruleWeights;
+
+    @Value("${app.fraud.scoring.window-minutes:60}")
+    private int windowMinutes;
+
+    @Value("${app.fraud.scoring.slot-seconds:60}")
+    private int slotSeconds;
+
+    @Value("${app.fraud.scoring.max-receivers:64}")
+    private int maxReceivers;
+
+    @Value("${app.fraud.scoring.idle-eviction-hours:24}")
+    private int idleEvictionHours;
+
+    @Value("${app.fraud.suspicious-amount:10000}")
+    private BigDecimal suspiciousAmount;
+
+    @Value("${app.fraud.scoring.velocity-count:5}")
+    private int velocityCount;
+
+    @Value("${app.fraud.scoring.rolling-sum:25000}")
+    private BigDecimal rollingSum;
+
+    @Value("${app.fraud.scoring.new-receiver-amount:1000}")
+    private BigDecimal newReceiverAmount;
+
+    @Value("${app.fraud.scoring.receiver-fanout:5}")
+    private int receiverFanout;
+
+    @Value("${app.fraud.scoring.zscore:3.0}")
+    private double zScoreThreshold;
+
+    @Value("${app.fraud.scoring.zscore-min-history:10}")
+    private int zScoreMinHistory;
+
+    private final Map<Long, AccountProfile> profiles = new ConcurrentHashMap<>();
+    private final ZoneId zone = ZoneId.systemDefault();
+    private WeightedRule[] rules;
+    private long slotMillis;
+    private int slots;
+
+    @PostConstruct
+    public void init() {
+        slotMillis = slotSeconds * 1000L;
+        slots = Math.max(1, (int) (windowMinutes * 60_000L / slotMillis));
+
+        long suspiciousCents = toCents(suspiciousAmount);
+        long rollingSumCents = toCents(rollingSum);
+        long newReceiverCents = toCents(newReceiverAmount);
+        Map<String, Rule> available = Map.of(
+                "large-amount", (event, cents, amount, slot, profile) -> cents > suspiciousCents,
+                "velocity", (event, cents, amount, slot, profile) -> profile.windowCount(slot) >= velocityCount,
+                "rolling-sum", (event, cents, amount, slot, profile) -> profile.windowSumCents(slot) + cents > rollingSumCents,
+                "new-receiver", (event, cents, amount, slot, profile) -> profile.amountSamples() > 0
+                        && cents > newReceiverCents && !profile.hasPaid(event.getReceiverId()),
+                "receiver-fanout", (event, cents, amount, slot, profile) -> profile.distinctReceivers(slot) >= receiverFanout,
+                "amount-zscore", (event, cents, amount, slot, profile) -> profile.amountSamples() >= zScoreMinHistory
+                        && profile.zScore(amount) >= zScoreThreshold);
+
+        List<WeightedRule> configured = new ArrayList<>();
+        for (String entry : ruleWeights) {
+            String[] parts = entry.trim().split(":");
+            Rule rule = available.get(parts[0]);
+            if (rule == null || parts.length != 2) {
+                throw new IllegalStateException("Unknown fraud rule '" + entry + "', expected one of "
+                        + available.keySet() + " as name:weight");
+            }
+            configured.add(new WeightedRule(parts[0], Double.parseDouble(parts[1]), rule));
+        }
+        rules = configured.toArray(WeightedRule[]::new);
+
+        Gauge.builder("banking.fraud.scoring.accounts", profiles, Map::size)
+                .description("Accounts with in-memory fraud scoring state")
+                .register(meterRegistry);
+        log.info("Fraud scoring rules: {}", configured.stream().map(WeightedRule::name).toList());
+    }
+
+    /**
+     * Scores the event and folds it into the sender's profile.
+     */
+    public FraudScore score(TransactionEvent event) {
+        long amountCents = toCents(event.getAmount());
+        double amount = event.getAmount().doubleValue();
+        long slot = slotOf(event.getTimestamp());
+        FraudScore[] result = new FraudScore[1];
+        // compute serialises with evictIdle, so the profile cannot be dropped between scoring and recording
+        profiles.compute(event.getSenderId(), (id, existing) -> {
+            AccountProfile profile = existing != null ? existing : new AccountProfile(slots, maxReceivers, slot);
+            double score = 0;
+            StringBuilder reasons = null;
+            for (WeightedRule rule : rules) {
+                if (rule.rule().matches(event, amountCents, amount, slot, profile)) {
+                    score += rule.weight();
+                    reasons = reasons == null ? new StringBuilder(rule.name()) : reasons.append(',').append(rule.name());
+                }
+            }
+            profile.record(slot, slot, event.getReceiverId(), amountCents, amount);
+            result[0] = new FraudScore(score, reasons == null ? "" : reasons.toString());
+            return profile;
+        });
+        return result[0];
+    }
+
+    @Scheduled(fixedDelayString = "${app.fraud.scoring.evict-interval-ms:600000}")
+    public void evictIdle() {
+        long cutoff = (System.currentTimeMillis() - idleEvictionHours * 3_600_000L) / slotMillis;
+        for (Long accountId : profiles.keySet()) {
+            profiles.computeIfPresent(accountId, (id, profile) -> profile.isIdleSince(cutoff) ? null : profile);
+        }
+    }
+
+    private long slotOf(LocalDateTime timestamp) {
+        long millis = timestamp == null
+                ? System.currentTimeMillis()
+                : timestamp.atZone(zone).toInstant().toEpochMilli();
+        return millis / slotMillis;
+    }
+
+    private static long toCents(BigDecimal amount) {
+        return amount.movePointRight(2).longValue();
+    }
+}
@@ -1,15 +1,29 @@
 package com.banking.controller;
 
+import com.banking.dto.request.BatchTransferRequest;
 import com.banking.dto.request.TransferRequest;
+import com.banking.dto.response.BatchTransferResponse;
+import com.banking.dto.response.CursorPageResponse;
+import com.banking.dto.response.StatementResponse;
 import com.banking.dto.response.TransactionResponse;
+import com.banking.model.enums.TransactionStatus;
+import com.banking.service.ExportFormat;
+import com.banking.service.StatementService;
+import com.banking.service.TransactionExportService;
 import com.banking.service.TransactionService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.web.PageableDefault;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.time.YearMonth;
 
 @RestController
 @RequestMapping("/transactions")
@@ -17,15 +31,70 @@ import org.springframework.web.bind.annotation.*;
 public class TransactionController {
 
     private final TransactionService transactionService;
+    private final StatementService statementService;
+    private final TransactionExportService transactionExportService;
 
     @PostMapping("/transfer")
     public ResponseEntity<TransactionResponse> transferMoney(@Valid @RequestBody TransferRequest transferRequest) {
         return ResponseEntity.ok(transactionService.transferMoney(transferRequest));
     }
 
+    @PostMapping("/transfer/batch")
+    public ResponseEntity<BatchTransferResponse> transferBatch(@Valid @RequestBody BatchTransferRequest batchRequest) {
+        return ResponseEntity.ok(transactionService.transferBatch(batchRequest));
+    }
+
+    /**
+     * Offset-paged history with a total count. Deep pages get slow on large accounts;
+     * prefer {@code GET /transactions/history}.
+     */
     @GetMapping
     public ResponseEntity<Page<TransactionResponse>> getTransactionHistory(
             @PageableDefault(size = 10) Pageable pageable) {
         return ResponseEntity.ok(transactionService.getTransactionHistory(pageable));
     }
+
+    @GetMapping("/history")
+    public ResponseEntity<CursorPageResponse<TransactionResponse>> getTransactionHistoryPage(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(required = false) TransactionStatus status) {
+        return ResponseEntity.ok(transactionService.getTransactionHistory(cursor, size, status));
+    }
+
+    /**
+     * The current user's whole history, oldest first, streamed as it is read.
+     */
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportTransactions(
+            @RequestParam(defaultValue = "CSV") ExportFormat format) {
+        return exportResponse("transactions", format, transactionExportService.exportCurrentUser(format));
+    }
+
+    @GetMapping("/export/all")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<StreamingResponseBody> exportAllTransactions(
+            @RequestParam(defaultValue = "CSV") ExportFormat format) {
+        return exportResponse("all-transactions", format, transactionExportService.exportAll(format));
+    }
+
+    @GetMapping("/statements/{month}")
+    public ResponseEntity<StatementResponse> getMonthlyStatement(
+            @PathVariable @DateTimeFormat(pattern = "yyyy-MM") YearMonth month) {
+        return ResponseEntity.ok(statementService.getMonthlyStatement(month));
+    }
+
+    @GetMapping("/statements/{month}/export")
+    public ResponseEntity<StreamingResponseBody> exportMonthlyStatement(
+            @PathVariable @DateTimeFormat(pattern = "yyyy-MM") YearMonth month) {
+        return exportResponse("statement-" + month, ExportFormat.CSV, statementService.exportMonthlyStatement(month));
+    }
+
+    private static ResponseEntity<StreamingResponseBody> exportResponse(String name, ExportFormat format,
+                                                                        StreamingResponseBody body) {
+        return ResponseEntity.ok()
+                .contentType(format.getMediaType())
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + name + "." + format.getExtension() + "\"")
+                .body(body);
+    }
 }
@@ -1,14 +1,22 @@
 package com.banking.controller;
 
+import com.banking.dto.request.UserFilterRequest;
+import com.banking.dto.response.CursorPageResponse;
 import com.banking.dto.response.UserResponse;
+import com.banking.service.StatementService;
+import com.banking.service.UserExportService;
 import com.banking.service.UserService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.math.BigDecimal;
-import java.util.List;
+import java.time.LocalDateTime;
 
 @RestController
 @RequestMapping("/api/users")
@@ -16,16 +24,34 @@ import java.util.List;
 public class UserController {
 
     private final UserService userService;
+    private final StatementService statementService;
+    private final UserExportService userExportService;
 
     @GetMapping("/me")
     public ResponseEntity<UserResponse> getCurrentUser() {
         return ResponseEntity.ok(userService.getCurrentUser());
     }
 
+    /**
+     * Newest first; filters are optional query parameters, e.g.
+     * {@code ?role=USER&locked=true&minBalance=100&createdFrom=2024-01-01T00:00:00}.
+     */
     @GetMapping
     @PreAuthorize("hasRole('ADMIN')")
-    public ResponseEntity<List<UserResponse>> getAllUsers() {
-        return ResponseEntity.ok(userService.getAllUsers());
+    public ResponseEntity<CursorPageResponse<UserResponse>> getUsers(
+            UserFilterRequest filter,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int size) {
+        return ResponseEntity.ok(userService.getUsers(filter, cursor, size));
+    }
+
+    @GetMapping("/export")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<StreamingResponseBody> exportUsers(UserFilterRequest filter) {
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"users.ndjson\"")
+                .body(userExportService.exportUsers(filter));
     }
 
     @GetMapping("/{userId}")
@@ -35,7 +61,11 @@ public class UserController {
     }
 
     @GetMapping("/balance")
-    public ResponseEntity<BigDecimal> getUserBalance() {
+    public ResponseEntity<BigDecimal> getUserBalance(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime asOf) {
+        if (asOf != null) {
+            return ResponseEntity.ok(statementService.getBalanceAsOf(asOf));
+        }
         return ResponseEntity.ok(userService.getUserBalance());
     }
 }
@@ -0,0 +1,36 @@
+package com.banking.dto.request;
+
+import com.banking.model.enums.UserRole;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Optional filters of the admin user listing and export; null fields do not filter.
+ * Ranges include the lower bound and exclude the upper one.
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class UserFilterRequest {
+
+    private UserRole role;
+
+    private BigDecimal minBalance;
+
+    private BigDecimal maxBalance;
+
+    private Boolean locked;
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime createdFrom;
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime createdTo;
+}
@@ -0,0 +1,24 @@
+package com.banking.dto.response;
+
+import com.banking.model.enums.TransactionStatus;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BatchTransferLineResponse {
+    private int line;
+    private Long receiverId;
+    private BigDecimal amount;
+    private Long transactionId;
+    private TransactionStatus status;
+    private String error;
+}
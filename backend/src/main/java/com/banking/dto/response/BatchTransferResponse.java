@@ -0,0 +1,21 @@
+package com.banking.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class BatchTransferResponse {
+    private int completed;
+    private int flagged;
+    private int rejected;
+    private BigDecimal totalDebited;
+    private List<BatchTransferLineResponse> results;
+}
@@ -0,0 +1,19 @@
+package com.banking.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class CursorPageResponse<T> {
+    private List<T> items;
+    // Opaque; pass back as ?cursor= for the next page. Null on the last page.
+    private String nextCursor;
+    private boolean hasMore;
+}
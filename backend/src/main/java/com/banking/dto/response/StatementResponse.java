@@ -0,0 +1,22 @@
+package com.banking.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.YearMonth;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class StatementResponse {
+    private Long accountId;
+    private YearMonth month;
+    private BigDecimal openingBalance;
+    private BigDecimal totalCredits;
+    private BigDecimal totalDebits;
+    private BigDecimal closingBalance;
+}
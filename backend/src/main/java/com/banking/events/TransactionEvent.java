@@ -9,7 +9,7 @@ import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 @Data
-@Builder
+@Builder(toBuilder = true)
 @NoArgsConstructor
 @AllArgsConstructor
 public class TransactionEvent {
@@ -25,4 +25,8 @@ public class TransactionEvent {
     private String senderIp;
     private String deviceFingerprint;
     private String location;
+
+    // Set by the fraud scoring engine on events published to the suspicious topic
+    private Double fraudScore;
+    private String fraudReasons;
 }
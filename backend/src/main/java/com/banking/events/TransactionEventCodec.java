@@ -0,0 +1,250 @@
+package com.banking.events;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * Fixed-layout binary encoding of {@link TransactionEvent}.
+ * <p>
+ * Version 2 layout (big-endian); version 1 is the same without the trailing score:
+ * <pre>
+ * magic(1) version(1) flags(1)
+ * [transactionId(8)] [senderId(8)] [receiverId(8)]           present when the flag bit is set
+ * [amount: scale(1) unscaled(8) | scale(1) len(1) bytes(len)] long form unless BIG_AMOUNT is set
+ * [timestamp: epoch micros, UTC(8)]
+ * status, senderIp, deviceFingerprint, location:              len(varint, 0 = null, else n + 1) utf8(n)
+ * [fraudScore(8) fraudReasons(string)]                         version 2, when HAS_SCORE is set
+ * </pre>
+ * Timestamps keep microsecond precision, which is what MySQL {@code DATETIME(6)} stores.
+ * Payloads that do not start with {@link #MAGIC} are not binary events; the
+ * deserializer uses that to read JSON written before the switch.
+ */
+public final class TransactionEventCodec {
+
+    public static final byte MAGIC = (byte) 0xB7;
+    public static final byte VERSION = 2;
+    // Events without a score are written in the version 1 layout so version 1 readers keep working
+    private static final byte UNSCORED_VERSION = 1;
+
+    private static final int SUSPICIOUS = 1;
+    private static final int HAS_TRANSACTION_ID = 1 << 1;
+    private static final int HAS_SENDER_ID = 1 << 2;
+    private static final int HAS_RECEIVER_ID = 1 << 3;
+    private static final int HAS_AMOUNT = 1 << 4;
+    private static final int BIG_AMOUNT = 1 << 5;
+    private static final int HAS_TIMESTAMP = 1 << 6;
+    private static final int HAS_SCORE = 1 << 7;
+
+    private TransactionEventCodec() {
+    }
+
+    public static boolean isBinary(byte[] data) {
+        return data != null && data.length > 0 && data[0] == MAGIC;
+    }
+
+    public static byte[] encode(TransactionEvent event) {
+        int flags = event.isSuspicious() ? SUSPICIOUS : 0;
+        int size = 3;
+        if (event.getTransactionId() != null) {
+            flags |= HAS_TRANSACTION_ID;
+            size += 8;
+        }
+        if (event.getSenderId() != null) {
+            flags |= HAS_SENDER_ID;
+            size += 8;
+        }
+        if (event.getReceiverId() != null) {
+            flags |= HAS_RECEIVER_ID;
+            size += 8;
+        }
+
+        BigDecimal amount = event.getAmount();
+        byte[] bigUnscaled = null;
+        if (amount != null) {
+            flags |= HAS_AMOUNT;
+            checkScale(amount);
+            BigInteger unscaled = amount.unscaledValue();
+            if (unscaled.bitLength() < 64) {
+                size += 1 + 8;
+            } else {
+                flags |= BIG_AMOUNT;
+                bigUnscaled = unscaled.toByteArray();
+                if (bigUnscaled.length > 255) {
+                    throw new IllegalArgumentException("Amount too large to encode: " + amount);
+                }
+                size += 1 + 1 + bigUnscaled.length;
+            }
+        }
+        if (event.getTimestamp() != null) {
+            flags |= HAS_TIMESTAMP;
+            size += 8;
+        }
+
+        byte[] status = utf8(event.getStatus());
+        byte[] senderIp = utf8(event.getSenderIp());
+        byte[] deviceFingerprint = utf8(event.getDeviceFingerprint());
+        byte[] location = utf8(event.getLocation());
+        size += stringSize(status) + stringSize(senderIp) + stringSize(deviceFingerprint) + stringSize(location);
+
+        byte[] fraudReasons = null;
+        if (event.getFraudScore() != null) {
+            flags |= HAS_SCORE;
+            fraudReasons = utf8(event.getFraudReasons());
+            size += 8 + stringSize(fraudReasons);
+        }
+
+        ByteBuffer buffer = ByteBuffer.allocate(size);
+        buffer.put(MAGIC).put((flags & HAS_SCORE) != 0 ? VERSION : UNSCORED_VERSION).put((byte) flags);
+        if (event.getTransactionId() != null) {
+            buffer.putLong(event.getTransactionId());
+        }
+        if (event.getSenderId() != null) {
+            buffer.putLong(event.getSenderId());
+        }
+        if (event.getReceiverId() != null) {
+            buffer.putLong(event.getReceiverId());
+        }
+        if (amount != null) {
+            buffer.put((byte) amount.scale());
+            if (bigUnscaled == null) {
+                buffer.putLong(amount.unscaledValue().longValue());
+            } else {
+                buffer.put((byte) bigUnscaled.length).put(bigUnscaled);
+            }
+        }
+        if (event.getTimestamp() != null) {
+            buffer.putLong(toEpochMicros(event.getTimestamp()));
+        }
+        putString(buffer, status);
+        putString(buffer, senderIp);
+        putString(buffer, deviceFingerprint);
+        putString(buffer, location);
+        if (event.getFraudScore() != null) {
+            buffer.putDouble(event.getFraudScore());
+            putString(buffer, fraudReasons);
+        }
+        return buffer.array();
+    }
+
+    public static TransactionEvent decode(byte[] data) {
+        ByteBuffer buffer = ByteBuffer.wrap(data);
+        if (buffer.get() != MAGIC) {
+            throw new IllegalArgumentException("Not a binary transaction event");
+        }
+        byte version = buffer.get();
+        if (version < 1 || version > VERSION) {
+            throw new IllegalArgumentException("Unsupported transaction event version " + version);
+        }
+        int flags = buffer.get() & 0xFF;
+
+        TransactionEvent event = new TransactionEvent();
+        event.setSuspicious((flags & SUSPICIOUS) != 0);
+        if ((flags & HAS_TRANSACTION_ID) != 0) {
+            event.setTransactionId(buffer.getLong());
+        }
+        if ((flags & HAS_SENDER_ID) != 0) {
+            event.setSenderId(buffer.getLong());
+        }
+        if ((flags & HAS_RECEIVER_ID) != 0) {
+            event.setReceiverId(buffer.getLong());
+        }
+        if ((flags & HAS_AMOUNT) != 0) {
+            int scale = buffer.get();
+            if ((flags & BIG_AMOUNT) == 0) {
+                event.setAmount(BigDecimal.valueOf(buffer.getLong(), scale));
+            } else {
+                byte[] unscaled = new byte[buffer.get() & 0xFF];
+                buffer.get(unscaled);
+                event.setAmount(new BigDecimal(new BigInteger(unscaled), scale));
+            }
+        }
+        if ((flags & HAS_TIMESTAMP) != 0) {
+            event.setTimestamp(fromEpochMicros(buffer.getLong()));
+        }
+        event.setStatus(getString(buffer));
+        event.setSenderIp(getString(buffer));
+        event.setDeviceFingerprint(getString(buffer));
+        event.setLocation(getString(buffer));
+        if ((flags & HAS_SCORE) != 0) {
+            event.setFraudScore(buffer.getDouble());
+            event.setFraudReasons(getString(buffer));
+        }
+        return event;
+    }
+
+    private static void checkScale(BigDecimal amount) {
+        if (amount.scale() < Byte.MIN_VALUE || amount.scale() > Byte.MAX_VALUE) {
+            throw new IllegalArgumentException("Amount scale out of range: " + amount);
+        }
+    }
+
+    private static long toEpochMicros(LocalDateTime timestamp) {
+        return Math.addExact(Math.multiplyExact(timestamp.toEpochSecond(ZoneOffset.UTC), 1_000_000L),
+                timestamp.getNano() / 1_000);
+    }
+
+    private static LocalDateTime fromEpochMicros(long micros) {
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(micros, 1_000_000L),
+                (int) Math.floorMod(micros, 1_000_000L) * 1_000, ZoneOffset.UTC);
+    }
+
+    private static byte[] utf8(String value) {
+        return value == null ? null : value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static int stringSize(byte[] value) {
+        return value == null ? 1 : varintSize(value.length + 1) + value.length;
+    }
+
+    private static void putString(ByteBuffer buffer, byte[] value) {
+        if (value == null) {
+            buffer.put((byte) 0);
+            return;
+        }
+        putVarint(buffer, value.length + 1);
+        buffer.put(value);
+    }
+
+    private static String getString(ByteBuffer buffer) {
+        int length = getVarint(buffer);
+        if (length == 0) {
+            return null;
+        }
+        String value = new String(buffer.array(), buffer.position(), length - 1, StandardCharsets.UTF_8);
+        buffer.position(buffer.position() + length - 1);
+        return value;
+    }
+
+    private static int varintSize(int value) {
+        int size = 1;
+        while ((value & ~0x7F) != 0) {
+            value >>>= 7;
+            size++;
+        }
+        return size;
+    }
+
+    private static void putVarint(ByteBuffer buffer, int value) {
+        while ((value & ~0x7F) != 0) {
+            buffer.put((byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        buffer.put((byte) value);
+    }
+
+    private static int getVarint(ByteBuffer buffer) {
+        int value = 0;
+        for (int shift = 0; shift < 32; shift += 7) {
+            byte b = buffer.get();
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("Malformed varint in transaction event");
+    }
+}
@@ -0,0 +1,43 @@
+package com.banking.events;
+
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.serialization.Deserializer;
+import org.springframework.kafka.support.serializer.JsonDeserializer;
+
+/**
+ * Kafka deserializer for {@link TransactionEventCodec} payloads. Records that are not
+ * binary-encoded are read as JSON, so a consumer can be switched before its producers
+ * and still drain what is already on the topic.
+ */
+public class TransactionEventDeserializer implements Deserializer<TransactionEvent> {
+
+    private final JsonDeserializer<TransactionEvent> jsonFallback = new JsonDeserializer<>(TransactionEvent.class, false);
+
+    @Override
+    public TransactionEvent deserialize(String topic, byte[] data) {
+        return deserialize(topic, null, data);
+    }
+
+    @Override
+    public TransactionEvent deserialize(String topic, Headers headers, byte[] data) {
+        if (data == null) {
+            return null;
+        }
+        if (!TransactionEventCodec.isBinary(data)) {
+            return headers == null
+                    ? jsonFallback.deserialize(topic, data)
+                    : jsonFallback.deserialize(topic, headers, data);
+        }
+        try {
+            return TransactionEventCodec.decode(data);
+        } catch (RuntimeException e) {
+            throw new SerializationException("Cannot decode transaction event from " + topic, e);
+        }
+    }
+
+    @Override
+    public void close() {
+        jsonFallback.close();
+    }
+}
@@ -0,0 +1,22 @@
+package com.banking.events;
+
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.serialization.Serializer;
+
+/**
+ * Kafka serializer writing {@link TransactionEventCodec} binary payloads.
+ */
+public class TransactionEventSerializer implements Serializer<TransactionEvent> {
+
+    @Override
+    public byte[] serialize(String topic, TransactionEvent event) {
+        if (event == null) {
+            return null;
+        }
+        try {
+            return TransactionEventCodec.encode(event);
+        } catch (RuntimeException e) {
+            throw new SerializationException("Cannot encode transaction event " + event.getTransactionId(), e);
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.banking.ledger;
+
+import com.banking.exception.InsufficientBalanceException;
+import com.banking.exception.ResourceNotFoundException;
+import com.banking.model.User;
+import com.banking.repository.UserRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+
+/**
+ * Default engine: balances live on the {@code users} rows and are updated in the
+ * caller's database transaction.
+ */
+@Component
+@ConditionalOnProperty(name = "app.ledger.engine", havingValue = "jpa", matchIfMissing = true)
+@RequiredArgsConstructor
+public class JpaLedgerEngine implements LedgerEngine {
+
+    private final UserRepository userRepository;
+
+    @Override
+    public BigDecimal getBalance(Long accountId) {
+        return load(accountId).getBalance();
+    }
+
+    @Override
+    public void transfer(Long transactionId, Long senderId, Long receiverId, BigDecimal amount) {
+        User sender = load(senderId);
+        User receiver = load(receiverId);
+
+        if (sender.getBalance().compareTo(amount) < 0) {
+            throw new InsufficientBalanceException("Insufficient balance");
+        }
+
+        sender.setBalance(sender.getBalance().subtract(amount));
+        receiver.setBalance(receiver.getBalance().add(amount));
+
+        userRepository.save(sender);
+        userRepository.save(receiver);
+    }
+
+    private User load(Long accountId) {
+        return userRepository.findById(accountId)
+                .orElseThrow(() -> new ResourceNotFoundException("User", "id", accountId));
+    }
+}
@@ -0,0 +1,37 @@
+package com.banking.ledger;
+
+import java.math.BigDecimal;
+
+/**
+ * Owns account balances. {@link com.banking.service.TransactionService} never mutates
+ * {@code User.balance} directly; it asks the configured engine to move money instead.
+ * <p>
+ * Selected with {@code app.ledger.engine}: {@code jpa} (default) keeps balances on the
+ * {@code users} rows, {@code sharded} keeps them in memory and writes MySQL asynchronously.
+ */
+public interface LedgerEngine {
+
+    /**
+     * Returns the current balance of the account.
+     *
+     * @throws com.banking.exception.ResourceNotFoundException if the account does not exist
+     */
+    BigDecimal getBalance(Long accountId);
+
+    /**
+     * Returns the current balance of an account whose {@code users.balance} column has
+     * already been read, for listings that load many rows at once.
+     */
+    default BigDecimal currentBalance(Long accountId, BigDecimal storedBalance) {
+        return storedBalance;
+    }
+
+    /**
+     * Debits the sender and credits the receiver as part of the {@code transactions} row
+     * {@code transactionId}, which must already have its id. If the caller's database
+     * transaction rolls back, so does the movement.
+     *
+     * @throws com.banking.exception.InsufficientBalanceException if the sender cannot cover the amount
+     */
+    void transfer(Long transactionId, Long senderId, Long receiverId, BigDecimal amount);
+}
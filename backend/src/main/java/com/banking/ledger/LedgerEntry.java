@@ -0,0 +1,19 @@
+package com.banking.ledger;
+
+import lombok.Value;
+
+import java.math.BigDecimal;
+
+/**
+ * One journaled movement of money: {@code amount} leaves {@code debitAccountId}
+ * and arrives on {@code creditAccountId}, as recorded by the {@code transactions}
+ * row {@code transactionId}.
+ */
+@Value
+public class LedgerEntry {
+    long sequence;
+    long transactionId;
+    long debitAccountId;
+    long creditAccountId;
+    BigDecimal amount;
+}
@@ -0,0 +1,99 @@
+package com.banking.ledger;
+
+import com.banking.model.LedgerCheckpoint;
+import com.banking.model.enums.TransactionStatus;
+import com.banking.repository.LedgerCheckpointRepository;
+import com.banking.repository.TransactionRepository;
+import com.banking.repository.UserRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Writes journaled ledger entries to the {@code users} table. Entries are netted per
+ * account, so a batch costs one UPDATE per touched account however many transfers it holds.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "app.ledger.engine", havingValue = "sharded")
+@RequiredArgsConstructor
+public class LedgerFlusher {
+
+    private static final long CHECKPOINT_ID = 1L;
+    private static final int ID_LOOKUP_CHUNK = 1000;
+
+    private final UserRepository userRepository;
+    private final LedgerCheckpointRepository checkpointRepository;
+    private final TransactionRepository transactionRepository;
+
+    // Read-write so it runs on the primary: recovery must not replay from a replica's older checkpoint
+    @Transactional
+    public long lastFlushedSequence() {
+        return checkpointRepository.findById(CHECKPOINT_ID)
+                .map(LedgerCheckpoint::getLastSequence)
+                .orElse(0L);
+    }
+
+    /**
+     * Returns which of the given transactions committed as COMPLETED, read from the primary
+     * in a transaction of its own so recovery cannot see a caller's uncommitted rows.
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public Set<Long> completedTransactions(List<Long> transactionIds) {
+        Set<Long> completed = new HashSet<>();
+        for (int from = 0; from < transactionIds.size(); from += ID_LOOKUP_CHUNK) {
+            List<Long> chunk = new ArrayList<>(
+                    transactionIds.subList(from, Math.min(from + ID_LOOKUP_CHUNK, transactionIds.size())));
+            completed.addAll(transactionRepository.findIdsByStatus(chunk, TransactionStatus.COMPLETED));
+        }
+        return completed;
+    }
+
+    /**
+     * Applies the entries and advances the checkpoint in one transaction. Entries at or
+     * below the current checkpoint are skipped, which makes replay idempotent.
+     *
+     * @return the checkpoint after the flush
+     */
+    @Transactional
+    public long flush(List<LedgerEntry> entries) {
+        LedgerCheckpoint checkpoint = checkpointRepository.findById(CHECKPOINT_ID)
+                .orElseGet(() -> LedgerCheckpoint.builder().id(CHECKPOINT_ID).build());
+
+        // Ascending account order keeps row lock acquisition consistent between flushes
+        Map<Long, BigDecimal> deltas = new TreeMap<>();
+        long lastSequence = checkpoint.getLastSequence();
+        for (LedgerEntry entry : entries) {
+            if (entry.getSequence() <= checkpoint.getLastSequence()) {
+                continue;
+            }
+            deltas.merge(entry.getDebitAccountId(), entry.getAmount().negate(), BigDecimal::add);
+            deltas.merge(entry.getCreditAccountId(), entry.getAmount(), BigDecimal::add);
+            lastSequence = Math.max(lastSequence, entry.getSequence());
+        }
+
+        deltas.forEach((accountId, delta) -> {
+            if (delta.signum() != 0) {
+                userRepository.adjustBalance(accountId, delta);
+            }
+        });
+
+        checkpoint.setLastSequence(lastSequence);
+        checkpointRepository.save(checkpoint);
+
+        log.debug("Flushed {} ledger entries over {} accounts up to sequence {}",
+                entries.size(), deltas.size(), lastSequence);
+        return lastSequence;
+    }
+}
@@ -0,0 +1,309 @@
+package com.banking.ledger;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only write-ahead journal for the sharded ledger. Every movement is written here,
+ * tagged with its transaction id, before the database transaction that records it commits.
+ * Once that transaction completes the entry is {@linkplain #commit committed} or
+ * {@linkplain #abort aborted}; committed entries stay pending until {@link LedgerFlusher}
+ * has written them to MySQL. Outcomes are kept in memory only: after a crash, recovery asks
+ * MySQL which transactions committed.
+ * <p>
+ * Durability is group-committed: {@link #append} only writes the record, and callers then
+ * wait in {@link #awaitDurable}, where one fsync covers every record written before it
+ * started. Shard writers therefore never wait on the disk, and concurrent transfers on any
+ * number of shards share fsyncs instead of queueing one each behind the journal lock.
+ * <p>
+ * Record layout: {@code [int length][int crc32][byte version][long seq][long txId][long debit][long credit][int scale][unscaled bytes]}.
+ * A torn or corrupt record at the tail fails its length or checksum check and is discarded on
+ * open, together with everything after it. Records from before entries carried a transaction
+ * id have no version byte and are refused; drain such a journal with a clean shutdown of the
+ * previous release before upgrading.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "app.ledger.engine", havingValue = "sharded")
+public class LedgerJournal {
+
+    private static final int HEADER_BYTES = 8;
+    private static final int FIXED_PAYLOAD_BYTES = 37;
+    private static final int LEGACY_MIN_PAYLOAD_BYTES = 28;
+    private static final byte RECORD_VERSION = 1;
+
+    private enum Outcome { COMMITTED, ABORTED }
+
+    @Value("${app.ledger.journal-path:data/ledger.journal}")
+    private String journalPath;
+
+    @Value("${app.ledger.journal-fsync:true}")
+    private boolean fsync;
+
+    private FileChannel channel;
+    private final Deque<LedgerEntry> pending = new ArrayDeque<>();
+    private final Map<Long, Outcome> outcomes = new HashMap<>();
+    private final List<LedgerEntry> recovered = new ArrayList<>();
+    private long lastSequence;
+    private final ReentrantLock syncLock = new ReentrantLock();
+    private volatile long durableSequence;
+    private volatile long syncCount;
+
+    @PostConstruct
+    public void open() throws IOException {
+        Path path = Path.of(journalPath).toAbsolutePath();
+        Files.createDirectories(path.getParent());
+        channel = FileChannel.open(path,
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+
+        long validLength = readExisting();
+        if (validLength < channel.size()) {
+            log.warn("Discarding {} bytes of torn journal tail in {}", channel.size() - validLength, path);
+            channel.truncate(validLength);
+        }
+        channel.position(validLength);
+        log.info("Opened ledger journal {} with {} entries", path, recovered.size());
+    }
+
+    @PreDestroy
+    public synchronized void close() throws IOException {
+        if (channel != null && channel.isOpen()) {
+            channel.force(true);
+            channel.close();
+        }
+    }
+
+    /**
+     * Entries found on disk when the journal was opened, in sequence order.
+     */
+    public synchronized List<LedgerEntry> recoveredEntries() {
+        return List.copyOf(recovered);
+    }
+
+    /**
+     * Makes sure new entries are numbered after everything already applied to MySQL.
+     */
+    public synchronized void resumeAfter(long sequence) {
+        lastSequence = Math.max(lastSequence, sequence);
+    }
+
+    /**
+     * Writes a movement whose transaction has not committed yet. It is durable only once
+     * {@link #awaitDurable} returns, and is not handed to the flusher, nor is anything after
+     * it, until {@link #commit} or {@link #abort}.
+     */
+    public synchronized LedgerEntry append(long transactionId, long debitAccountId, long creditAccountId,
+                                           BigDecimal amount) {
+        LedgerEntry entry = new LedgerEntry(++lastSequence, transactionId, debitAccountId, creditAccountId, amount);
+        try {
+            ByteBuffer record = encode(entry);
+            while (record.hasRemaining()) {
+                channel.write(record);
+            }
+        } catch (IOException e) {
+            lastSequence--;
+            throw new UncheckedIOException("Failed to append ledger journal entry", e);
+        }
+        pending.addLast(entry);
+        return entry;
+    }
+
+    /**
+     * Returns once the entry is on disk. A caller that finds an fsync in progress waits for
+     * it and then either finds itself covered or runs the next one on behalf of everyone
+     * queued behind it. Must be called without holding this journal's monitor.
+     */
+    public void awaitDurable(LedgerEntry entry) {
+        if (!fsync || durableSequence >= entry.getSequence()) {
+            return;
+        }
+        syncLock.lock();
+        try {
+            if (durableSequence >= entry.getSequence()) {
+                return;
+            }
+            long written;
+            synchronized (this) {
+                written = lastSequence;
+            }
+            channel.force(false);
+            syncCount++;
+            durableSequence = written;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to sync ledger journal", e);
+        } finally {
+            syncLock.unlock();
+        }
+    }
+
+    long syncCount() {
+        return syncCount;
+    }
+
+    public synchronized void commit(LedgerEntry entry) {
+        outcomes.put(entry.getSequence(), Outcome.COMMITTED);
+    }
+
+    /**
+     * The entry's transaction rolled back; it is never flushed. Nothing is written: should the
+     * process die first, recovery finds the transaction uncommitted in MySQL.
+     */
+    public synchronized void abort(LedgerEntry entry) {
+        outcomes.put(entry.getSequence(), Outcome.ABORTED);
+        dropResolvedHead(Long.MIN_VALUE);
+    }
+
+    /**
+     * Returns up to {@code limit} committed entries not yet flushed to MySQL, oldest first,
+     * stopping at the first entry whose transaction is still open so the flush checkpoint
+     * never passes it.
+     */
+    public synchronized List<LedgerEntry> pending(int limit) {
+        List<LedgerEntry> batch = new ArrayList<>(Math.min(limit, pending.size()));
+        Iterator<LedgerEntry> it = pending.iterator();
+        while (it.hasNext() && batch.size() < limit) {
+            LedgerEntry entry = it.next();
+            Outcome outcome = outcomes.get(entry.getSequence());
+            if (outcome == null) {
+                break;
+            }
+            if (outcome == Outcome.COMMITTED) {
+                batch.add(entry);
+            }
+        }
+        return batch;
+    }
+
+    public synchronized int pendingCount() {
+        return pending.size();
+    }
+
+    /**
+     * Drops flushed entries up to and including {@code sequence}, and aborted ones, from the
+     * pending set. Once nothing is pending the file is truncated, so the journal only ever
+     * holds the unflushed tail.
+     */
+    public synchronized void acknowledge(long sequence) {
+        dropResolvedHead(sequence);
+    }
+
+    private void dropResolvedHead(long flushedSequence) {
+        while (!pending.isEmpty()) {
+            long head = pending.peekFirst().getSequence();
+            Outcome outcome = outcomes.get(head);
+            if (outcome == null || outcome == Outcome.COMMITTED && head > flushedSequence) {
+                break;
+            }
+            pending.removeFirst();
+            outcomes.remove(head);
+        }
+        if (pending.isEmpty()) {
+            recovered.clear();
+            try {
+                channel.truncate(0);
+                channel.position(0);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to compact ledger journal", e);
+            }
+        }
+    }
+
+    private long readExisting() throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+        long position = 0;
+        long size = channel.size();
+
+        while (position + HEADER_BYTES <= size) {
+            header.clear();
+            channel.read(header, position);
+            header.flip();
+            int length = header.getInt();
+            int crc = header.getInt();
+            // Legacy records are shorter than the current minimum, so only the checksum decides validity
+            if (length < LEGACY_MIN_PAYLOAD_BYTES || position + HEADER_BYTES + length > size) {
+                break;
+            }
+
+            ByteBuffer payload = ByteBuffer.allocate(length);
+            channel.read(payload, position + HEADER_BYTES);
+            if (checksum(payload.array()) != crc) {
+                break;
+            }
+            payload.flip();
+            if (payload.get() != RECORD_VERSION) {
+                throw new IllegalStateException("Ledger journal " + journalPath + " was written by an older release; "
+                        + "drain it with a clean shutdown of that release before upgrading");
+            }
+            if (length < FIXED_PAYLOAD_BYTES) {
+                break;
+            }
+
+            LedgerEntry entry = decode(payload);
+            recovered.add(entry);
+            lastSequence = Math.max(lastSequence, entry.getSequence());
+            position += HEADER_BYTES + length;
+        }
+        return position;
+    }
+
+    private static ByteBuffer encode(LedgerEntry entry) {
+        byte[] unscaled = entry.getAmount().unscaledValue().toByteArray();
+        int length = FIXED_PAYLOAD_BYTES + unscaled.length;
+
+        ByteBuffer payload = ByteBuffer.allocate(length);
+        payload.put(RECORD_VERSION);
+        payload.putLong(entry.getSequence());
+        payload.putLong(entry.getTransactionId());
+        payload.putLong(entry.getDebitAccountId());
+        payload.putLong(entry.getCreditAccountId());
+        payload.putInt(entry.getAmount().scale());
+        payload.put(unscaled);
+
+        ByteBuffer record = ByteBuffer.allocate(HEADER_BYTES + length);
+        record.putInt(length);
+        record.putInt(checksum(payload.array()));
+        record.put(payload.array());
+        record.flip();
+        return record;
+    }
+
+    private static LedgerEntry decode(ByteBuffer payload) {
+        long sequence = payload.getLong();
+        long transactionId = payload.getLong();
+        long debit = payload.getLong();
+        long credit = payload.getLong();
+        int scale = payload.getInt();
+        byte[] unscaled = new byte[payload.remaining()];
+        payload.get(unscaled);
+        return new LedgerEntry(sequence, transactionId, debit, credit, new BigDecimal(new BigInteger(unscaled), scale));
+    }
+
+    private static int checksum(byte[] bytes) {
+        CRC32 crc = new CRC32();
+        crc.update(bytes);
+        return (int) crc.getValue();
+    }
+}
@@ -0,0 +1,59 @@
+package com.banking.ledger;
+
+import java.math.BigDecimal;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * A slice of the account balances with a single writer thread. All mutations run on
+ * that thread, so a debit's balance check and update never race; reads may come from
+ * any thread.
+ */
+class LedgerShard {
+
+    private final Map<Long, BigDecimal> balances = new ConcurrentHashMap<>();
+    private final ExecutorService writer;
+
+    LedgerShard(int index) {
+        this.writer = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "ledger-shard-" + index);
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    BigDecimal balance(Long accountId) {
+        return balances.get(accountId);
+    }
+
+    /**
+     * Only call from the writer thread.
+     */
+    void put(Long accountId, BigDecimal balance) {
+        balances.put(accountId, balance);
+    }
+
+    <T> T execute(Callable<T> operation) {
+        Future<T> result = writer.submit(operation);
+        try {
+            return result.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted waiting for ledger shard", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    void shutdown() {
+        writer.shutdown();
+    }
+}
@@ -0,0 +1,227 @@
+package com.banking.ledger;
+
+import com.banking.exception.InsufficientBalanceException;
+import com.banking.exception.ResourceNotFoundException;
+import com.banking.repository.UserRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * In-memory ledger split into shards by account id. Each shard has one writer thread;
+ * every movement is journaled before it is applied, and {@link LedgerFlusher} writes
+ * the journal to MySQL in the background once the transaction that made it has committed.
+ * <p>
+ * On startup the committed part of the unflushed journal tail is replayed into {@code users}, after which the
+ * table is authoritative and shards are filled from it. Those reads run in read-write
+ * transactions so they are served by the primary, never by a lagging replica.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "app.ledger.engine", havingValue = "sharded")
+@RequiredArgsConstructor
+public class ShardedLedgerEngine implements LedgerEngine {
+
+    private final LedgerJournal journal;
+    private final LedgerFlusher flusher;
+    private final UserRepository userRepository;
+    private final PlatformTransactionManager transactionManager;
+
+    @Value("${app.ledger.shards:16}")
+    private int shardCount;
+
+    @Value("${app.ledger.flush-batch-size:5000}")
+    private int flushBatchSize;
+
+    @Value("${app.ledger.warm-on-startup:true}")
+    private boolean warmOnStartup;
+
+    private LedgerShard[] shards;
+    private TransactionTemplate primaryReads;
+
+    @PostConstruct
+    public void start() {
+        primaryReads = new TransactionTemplate(transactionManager);
+        recover();
+
+        shards = new LedgerShard[shardCount];
+        for (int i = 0; i < shardCount; i++) {
+            shards[i] = new LedgerShard(i);
+        }
+
+        if (warmOnStartup) {
+            List<UserRepository.BalanceView> balances = primaryReads.execute(status -> userRepository.findAllBalances());
+            balances.forEach(view -> shardFor(view.getId()).put(view.getId(), view.getBalance()));
+            log.info("Loaded {} account balances into {} ledger shards", balances.size(), shardCount);
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        for (LedgerShard shard : shards) {
+            shard.shutdown();
+        }
+        flush();
+    }
+
+    @Override
+    public BigDecimal getBalance(Long accountId) {
+        BigDecimal balance = shardFor(accountId).balance(accountId);
+        return balance != null ? balance : load(accountId);
+    }
+
+    @Override
+    public BigDecimal currentBalance(Long accountId, BigDecimal storedBalance) {
+        BigDecimal balance = shardFor(accountId).balance(accountId);
+        return balance != null ? balance : storedBalance;
+    }
+
+    /**
+     * Journals the movement and debits the sender at once, so concurrent transfers cannot
+     * spend the same money, but credits the receiver only after the caller's database
+     * transaction commits. On rollback the entry is aborted and the hold released; nothing
+     * was credited, so nothing has to be taken back.
+     */
+    @Override
+    public void transfer(Long transactionId, Long senderId, Long receiverId, BigDecimal amount) {
+        // The receiver must be resident before the entry exists, otherwise a flush could land
+        // in MySQL before the shard reads the row and the credit would be counted twice.
+        load(receiverId);
+
+        LedgerShard senderShard = shardFor(senderId);
+        LedgerEntry entry = senderShard.execute(() -> {
+            BigDecimal balance = residentBalance(senderShard, senderId);
+            if (balance.compareTo(amount) < 0) {
+                throw new InsufficientBalanceException("Insufficient balance");
+            }
+            LedgerEntry journaled = journal.append(transactionId, senderId, receiverId, amount);
+            senderShard.put(senderId, balance.subtract(amount));
+            return journaled;
+        });
+        // Off the shard writer, so it moves on to the next transfer while this one shares an fsync
+        try {
+            journal.awaitDurable(entry);
+        } catch (RuntimeException e) {
+            release(entry);
+            throw e;
+        }
+
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            settle(entry);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                boolean committed = status == STATUS_COMMITTED || status == STATUS_UNKNOWN
+                        && flusher.completedTransactions(List.of(entry.getTransactionId())).contains(entry.getTransactionId());
+                if (committed) {
+                    settle(entry);
+                } else {
+                    release(entry);
+                }
+            }
+        });
+    }
+
+    @Scheduled(fixedDelayString = "${app.ledger.flush-interval-ms:200}")
+    public void flush() {
+        List<LedgerEntry> batch = journal.pending(flushBatchSize);
+        while (!batch.isEmpty()) {
+            long flushed = flusher.flush(batch);
+            journal.acknowledge(flushed);
+            batch = batch.size() < flushBatchSize ? List.of() : journal.pending(flushBatchSize);
+        }
+    }
+
+    private void settle(LedgerEntry entry) {
+        credit(entry.getCreditAccountId(), entry.getAmount());
+        journal.commit(entry);
+    }
+
+    private void release(LedgerEntry entry) {
+        journal.abort(entry);
+        credit(entry.getDebitAccountId(), entry.getAmount());
+        log.info("Released ledger entry {} after rollback of transaction {}",
+                entry.getSequence(), entry.getTransactionId());
+    }
+
+    private void credit(Long accountId, BigDecimal amount) {
+        LedgerShard shard = shardFor(accountId);
+        shard.execute(() -> {
+            shard.put(accountId, residentBalance(shard, accountId).add(amount));
+            return null;
+        });
+    }
+
+    /**
+     * Replays journaled entries above the checkpoint whose transaction committed; the rest
+     * belong to transactions that rolled back or never finished. A PENDING transaction that
+     * was retried after a rollback has one entry per attempt, of which only the last can
+     * have committed.
+     */
+    private void recover() {
+        long checkpoint = flusher.lastFlushedSequence();
+        journal.resumeAfter(checkpoint);
+
+        Map<Long, LedgerEntry> latestByTransaction = new LinkedHashMap<>();
+        journal.recoveredEntries().stream()
+                .filter(entry -> entry.getSequence() > checkpoint)
+                .forEach(entry -> latestByTransaction.put(entry.getTransactionId(), entry));
+        Set<Long> committed = latestByTransaction.isEmpty()
+                ? Set.of() : flusher.completedTransactions(List.copyOf(latestByTransaction.keySet()));
+        List<LedgerEntry> tail = latestByTransaction.values().stream()
+                .filter(entry -> committed.contains(entry.getTransactionId()))
+                .sorted(Comparator.comparingLong(LedgerEntry::getSequence))
+                .toList();
+
+        if (!latestByTransaction.isEmpty()) {
+            log.info("Replaying {} unflushed ledger entries after sequence {}, discarding {} uncommitted",
+                    tail.size(), checkpoint, latestByTransaction.size() - tail.size());
+        }
+        long flushed = tail.isEmpty() ? checkpoint : flusher.flush(tail);
+        journal.acknowledge(flushed);
+    }
+
+    private BigDecimal load(Long accountId) {
+        LedgerShard shard = shardFor(accountId);
+        BigDecimal balance = shard.balance(accountId);
+        if (balance != null) {
+            return balance;
+        }
+        return shard.execute(() -> residentBalance(shard, accountId));
+    }
+
+    /**
+     * Only call from the shard's writer thread.
+     */
+    private BigDecimal residentBalance(LedgerShard shard, Long accountId) {
+        BigDecimal balance = shard.balance(accountId);
+        if (balance == null) {
+            balance = primaryReads.execute(status -> userRepository.findBalanceById(accountId))
+                    .orElseThrow(() -> new ResourceNotFoundException("User", "id", accountId));
+            shard.put(accountId, balance);
+        }
+        return balance;
+    }
+
+    private LedgerShard shardFor(Long accountId) {
+        return shards[Math.floorMod(Long.hashCode(accountId), shardCount)];
+    }
+}
@@ -0,0 +1,49 @@
+package com.banking.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.IdClass;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Balance of an account at the end of a day on which it had completed transfers, booked
+ * by the transfer's {@code createdAt}. Written by {@link com.banking.service.StatementService}
+ * in the same transaction as the balance change.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "account_daily_balances")
+@IdClass(AccountDailyBalance.Key.class)
+public class AccountDailyBalance {
+
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+
+    @Id
+    @Column(name = "balance_date")
+    private LocalDate balanceDate;
+
+    @Column(name = "closing_balance", nullable = false, columnDefinition = "DECIMAL(19,4)")
+    private BigDecimal closingBalance;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private Long userId;
+        private LocalDate balanceDate;
+    }
+}
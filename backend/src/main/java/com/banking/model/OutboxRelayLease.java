@@ -0,0 +1,34 @@
+package com.banking.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * The single row naming the node whose {@link com.banking.producer.OutboxRelay} may
+ * publish, and until when. A node that stops renewing loses it once it expires.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "outbox_relay_lease")
+public class OutboxRelayLease {
+
+    @Id
+    private Long id;
+
+    @Column(nullable = false, length = 64)
+    private String owner;
+
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+}
@@ -23,7 +23,10 @@ import java.time.LocalDateTime;
 public class Transaction {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "transaction_id")
+    @TableGenerator(name = "transaction_id", table = "id_generators",
+            pkColumnName = "sequence_name", valueColumnName = "next_val",
+            pkColumnValue = "transactions", allocationSize = 50)
     private Long id;
 
     @NotNull
@@ -57,8 +60,11 @@ public class Transaction {
     private LocalDateTime updatedAt;
 
     // Helper methods
-    public boolean isSuspicious() {
-        // Mark as suspicious if amount is greater than 10,000
-        return amount.compareTo(BigDecimal.valueOf(10000)) > 0;
+    /**
+     * Whether {@code amount} alone makes a transfer suspicious; {@code suspiciousAmount} is
+     * {@code app.fraud.suspicious-amount}.
+     */
+    public static boolean isSuspiciousAmount(BigDecimal amount, BigDecimal suspiciousAmount) {
+        return amount.compareTo(suspiciousAmount) > 0;
     }
 }
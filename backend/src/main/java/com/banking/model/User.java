@@ -29,8 +29,12 @@ import java.util.List;
 @Table(name = "users")
 public class User implements UserDetails {
     
+    // Pooled table generator instead of IDENTITY so Hibernate can batch inserts
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "user_id")
+    @TableGenerator(name = "user_id", table = "id_generators",
+            pkColumnName = "sequence_name", valueColumnName = "next_val",
+            pkColumnValue = "users", allocationSize = 50)
     private Long id;
 
     @NotBlank
@@ -55,6 +59,7 @@ public class User implements UserDetails {
     @Column(columnDefinition = "DECIMAL(19,4) DEFAULT 0.0000")
     private BigDecimal balance;
 
+    @Builder.Default
     @Column(name = "account_non_locked")
     private boolean accountNonLocked = true;
 
@@ -64,6 +69,9 @@ public class User implements UserDetails {
     @Column(name = "lock_time")
     private LocalDateTime lockTime;
 
+    @Version
+    private Long version;
+
     @CreationTimestamp
     @Column(name = "created_at", updatable = false)
     private LocalDateTime createdAt;
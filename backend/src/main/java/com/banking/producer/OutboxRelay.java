@@ -0,0 +1,242 @@
+package com.banking.producer;
+
+import com.banking.events.TransactionEvent;
+import com.banking.model.OutboxEvent;
+import com.banking.repository.OutboxEventRepository;
+import com.banking.repository.OutboxRelayLeaseRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Drains {@code outbox_events} to Kafka on a dedicated thread, started and stopped with the
+ * application context. Only the node holding the lease in {@code outbox_relay_lease}
+ * publishes; the others renew nothing and take over once it expires. Each cycle renews the
+ * lease and reads up to {@code app.outbox.batch-size} unsent rows in one short transaction,
+ * sends them and waits for the broker acks with no transaction open, then marks them sent in
+ * a second one. A failed send leaves the rows unsent to be read again, so delivery is
+ * at-least-once.
+ * <p>
+ * Ordering: with one publisher, events reach each partition, and so each key, in outbox id
+ * order, and a failed batch is retried from its oldest event. Ids come from pooled blocks, so
+ * for two events with the same key written on different nodes within one cycle, id order
+ * need not be commit order. A relay stalled past {@code app.outbox.lease-ms} can overlap its
+ * successor and redeliver a batch; consumers deduplicate by transaction id. The lease must
+ * therefore outlast {@code app.outbox.send-timeout-ms}, which startup enforces.
+ * <p>
+ * Metrics: {@code banking.outbox.lag} (age of the oldest unsent event at the last read),
+ * {@code banking.outbox.batch.size}, {@code banking.outbox.sent} and {@code banking.outbox.failures}.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class OutboxRelay implements SmartLifecycle {
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final OutboxRelayLeaseRepository leaseRepository;
+    private final KafkaTemplate<String, TransactionEvent> kafkaTemplate;
+    private final PlatformTransactionManager transactionManager;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.outbox.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.outbox.batch-size:500}")
+    private int batchSize;
+
+    @Value("${app.outbox.poll-interval-ms:100}")
+    private long pollIntervalMs;
+
+    @Value("${app.outbox.send-timeout-ms:10000}")
+    private long sendTimeoutMs;
+
+    @Value("${app.outbox.lease-ms:30000}")
+    private long leaseMs;
+
+    @Value("${app.outbox.retention-hours:24}")
+    private long retentionHours;
+
+    private final String owner = UUID.randomUUID().toString();
+    private final AtomicLong lagMillis = new AtomicLong();
+    private TransactionTemplate transactionTemplate;
+    private DistributionSummary batchSizeSummary;
+    private Counter sentCounter;
+    private Counter failureCounter;
+    private ExecutorService worker;
+    private volatile boolean running;
+    private volatile boolean leader;
+
+    @PostConstruct
+    public void init() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+
+        Gauge.builder("banking.outbox.lag", lagMillis, AtomicLong::get)
+                .description("Age in milliseconds of the oldest unsent outbox event at the last read")
+                .baseUnit("milliseconds")
+                .register(meterRegistry);
+        batchSizeSummary = DistributionSummary.builder("banking.outbox.batch.size")
+                .description("Outbox events read per relay cycle")
+                .register(meterRegistry);
+        sentCounter = Counter.builder("banking.outbox.sent").register(meterRegistry);
+        failureCounter = Counter.builder("banking.outbox.failures").register(meterRegistry);
+    }
+
+    @Override
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        if (leaseMs <= sendTimeoutMs) {
+            throw new IllegalStateException("app.outbox.lease-ms (" + leaseMs
+                    + ") must exceed app.outbox.send-timeout-ms (" + sendTimeoutMs + ")");
+        }
+        transactionTemplate.executeWithoutResult(status -> leaseRepository.seed());
+        running = true;
+        worker = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "outbox-relay");
+            thread.setDaemon(true);
+            return thread;
+        });
+        worker.submit(this::run);
+    }
+
+    @Override
+    public void stop() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        worker.shutdownNow();
+        try {
+            worker.awaitTermination(sendTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (leader) {
+            // Hand over now rather than after the lease runs out
+            try {
+                transactionTemplate.executeWithoutResult(status -> leaseRepository.release(owner));
+            } catch (Exception e) {
+                log.warn("Could not release the outbox relay lease: {}", e.getMessage());
+            }
+            leader = false;
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Reads, sends and marks one batch if this node holds the lease.
+     *
+     * @return the number of events relayed
+     */
+    public int drainOnce() {
+        List<OutboxEvent> batch = transactionTemplate.execute(status -> {
+            leader = leaseRepository.acquire(owner, leaseMs * 1000) > 0;
+            return leader ? outboxEventRepository.findUnsent(batchSize) : List.<OutboxEvent>of();
+        });
+        if (batch.isEmpty()) {
+            lagMillis.set(0);
+            return 0;
+        }
+        batchSizeSummary.record(batch.size());
+        LocalDateTime oldest = batch.get(0).getCreatedAt();
+        if (oldest != null) {
+            lagMillis.set(Math.max(0, Duration.between(oldest, LocalDateTime.now()).toMillis()));
+        }
+
+        List<CompletableFuture<?>> acks = new ArrayList<>(batch.size());
+        for (OutboxEvent event : batch) {
+            acks.add(kafkaTemplate.send(event.getTopic(), event.getEventKey(), deserialize(event)));
+        }
+        awaitAcks(acks);
+
+        List<Long> ids = batch.stream().map(OutboxEvent::getId).toList();
+        transactionTemplate.executeWithoutResult(status -> outboxEventRepository.markSent(ids, LocalDateTime.now()));
+        sentCounter.increment(batch.size());
+        return batch.size();
+    }
+
+    @Scheduled(fixedDelay = 3600000)
+    public void purgeSent() {
+        LocalDateTime cutoff = LocalDateTime.now().minusHours(retentionHours);
+        int purged;
+        do {
+            purged = transactionTemplate.execute(status -> outboxEventRepository.purgeSentBefore(cutoff, 10000));
+        } while (purged == 10000);
+    }
+
+    private void run() {
+        while (running) {
+            try {
+                // Keep draining while batches come back full; back off only when caught up.
+                // A standby only needs to notice an expired lease
+                if (drainOnce() < batchSize) {
+                    Thread.sleep(leader ? pollIntervalMs : Math.max(pollIntervalMs, leaseMs / 3));
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                failureCounter.increment();
+                log.error("Outbox relay cycle failed: {}", e.getMessage());
+                try {
+                    Thread.sleep(pollIntervalMs);
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    private void awaitAcks(List<CompletableFuture<?>> acks) {
+        try {
+            CompletableFuture.allOf(acks.toArray(CompletableFuture[]::new))
+                    .get(sendTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted waiting for Kafka acks", e);
+        } catch (ExecutionException | TimeoutException e) {
+            throw new IllegalStateException("Kafka did not acknowledge outbox batch", e);
+        }
+    }
+
+    private TransactionEvent deserialize(OutboxEvent event) {
+        try {
+            return objectMapper.readValue(event.getPayload(), TransactionEvent.class);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Corrupt outbox payload for event " + event.getId(), e);
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.banking.repository;
+
+import com.banking.model.AccountDailyBalance;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Optional;
+
+@Repository
+public interface AccountDailyBalanceRepository extends JpaRepository<AccountDailyBalance, AccountDailyBalance.Key> {
+
+    // Latest close strictly before the day: the opening balance of that day
+    Optional<AccountDailyBalance> findFirstByUserIdAndBalanceDateLessThanOrderByBalanceDateDesc(Long userId, LocalDate date);
+
+    Optional<AccountDailyBalance> findFirstByUserIdAndBalanceDateGreaterThanEqualOrderByBalanceDateAsc(Long userId, LocalDate date);
+
+    // Zero rows means the day has no close yet and applyDelta must create it
+    @Modifying
+    @Query("UPDATE AccountDailyBalance b SET b.closingBalance = b.closingBalance + :delta " +
+           "WHERE b.userId = :userId AND b.balanceDate = :date")
+    int addDelta(
+            @Param("userId") Long userId,
+            @Param("date") LocalDate date,
+            @Param("delta") BigDecimal delta);
+
+    /**
+     * Adds {@code delta} to the day's close, or creates the row with {@code closingIfNew}
+     * (which must already include the delta). A single statement, so concurrent first
+     * writers for a day cannot collide on the primary key.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO account_daily_balances (user_id, balance_date, closing_balance) " +
+           "VALUES (:userId, :date, :closingIfNew) " +
+           "ON DUPLICATE KEY UPDATE closing_balance = closing_balance + :delta",
+           nativeQuery = true)
+    int applyDelta(
+            @Param("userId") Long userId,
+            @Param("date") LocalDate date,
+            @Param("closingIfNew") BigDecimal closingIfNew,
+            @Param("delta") BigDecimal delta);
+
+    // Only matches rows when a transfer is booked to a past day, e.g. a pending one completed after midnight
+    @Modifying
+    @Query("UPDATE AccountDailyBalance b SET b.closingBalance = b.closingBalance + :delta " +
+           "WHERE b.userId = :userId AND b.balanceDate > :date")
+    int shiftAfter(
+            @Param("userId") Long userId,
+            @Param("date") LocalDate date,
+            @Param("delta") BigDecimal delta);
+}
@@ -0,0 +1,29 @@
+package com.banking.repository;
+
+import com.banking.model.OutboxEvent;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+    // No row locks: only the relay holding the lease reads this, and it sends outside the transaction
+    @Query(value = "SELECT * FROM outbox_events WHERE sent_at IS NULL ORDER BY id LIMIT :limit",
+           nativeQuery = true)
+    List<OutboxEvent> findUnsent(@Param("limit") int limit);
+
+    @Modifying
+    @Query("UPDATE OutboxEvent e SET e.sentAt = :sentAt WHERE e.id IN :ids")
+    int markSent(@Param("ids") Collection<Long> ids, @Param("sentAt") LocalDateTime sentAt);
+
+    @Modifying
+    @Query(value = "DELETE FROM outbox_events WHERE sent_at < :cutoff LIMIT :limit", nativeQuery = true)
+    int purgeSentBefore(@Param("cutoff") LocalDateTime cutoff, @Param("limit") int limit);
+}
@@ -0,0 +1,30 @@
+package com.banking.repository;
+
+import com.banking.model.OutboxRelayLease;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface OutboxRelayLeaseRepository extends JpaRepository<OutboxRelayLease, Long> {
+
+    @Modifying
+    @Query(value = "INSERT IGNORE INTO outbox_relay_lease (id, owner, expires_at) VALUES (1, '', NOW(6))",
+           nativeQuery = true)
+    int seed();
+
+    // Takes the lease if it expired, or renews it for its holder; the database clock decides
+    @Modifying
+    @Query(value = "UPDATE outbox_relay_lease SET owner = :owner, "
+            + "expires_at = TIMESTAMPADD(MICROSECOND, :leaseMicros, NOW(6)) "
+            + "WHERE id = 1 AND (owner = :owner OR expires_at < NOW(6))",
+           nativeQuery = true)
+    int acquire(@Param("owner") String owner, @Param("leaseMicros") long leaseMicros);
+
+    @Modifying
+    @Query(value = "UPDATE outbox_relay_lease SET expires_at = NOW(6) WHERE id = 1 AND owner = :owner",
+           nativeQuery = true)
+    int release(@Param("owner") String owner);
+}
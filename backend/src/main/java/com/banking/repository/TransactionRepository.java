@@ -1,48 +1,213 @@
 package com.banking.repository;
 
+import com.banking.dto.response.TransactionResponse;
 import com.banking.model.Transaction;
 import com.banking.model.User;
 import com.banking.model.enums.TransactionStatus;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface TransactionRepository extends JpaRepository<Transaction, Long> {
+
+    // Integer.MIN_VALUE: Connector/J streams rows one at a time instead of buffering the whole result
+    String STREAMING_FETCH_SIZE = "-2147483648";
     
     // Count transactions by sender and created after a specific date
     long countBySenderAndCreatedAtAfter(User sender, LocalDateTime date);
     
-    // Find transactions by status
-    List<Transaction> findByStatus(TransactionStatus status);
-    
-    
-    @Query("SELECT t FROM Transaction t WHERE (t.sender = :user OR t.receiver = :user) " +
+    /**
+     * Claims up to {@code limit} of the oldest PENDING rows for the current transaction.
+     * SKIP LOCKED lets workers on every node claim disjoint chunks. Callers read only
+     * sender/receiver ids, which lazy proxies answer without a query.
+     */
+    @Query(value = "SELECT * FROM transactions WHERE status = 'PENDING' " +
+           "ORDER BY created_at, id LIMIT :limit FOR UPDATE SKIP LOCKED",
+           nativeQuery = true)
+    List<Transaction> claimPending(@Param("limit") int limit);
+
+    // One row of a chunk that failed as a whole, retried in a transaction of its own
+    @Query(value = "SELECT * FROM transactions WHERE id = :id AND status = 'PENDING' FOR UPDATE SKIP LOCKED",
+           nativeQuery = true)
+    Optional<Transaction> claimPendingById(@Param("id") Long id);
+
+    long countByStatus(TransactionStatus status);
+
+    @Query("SELECT t.id FROM Transaction t WHERE t.id IN :ids AND t.status = :status")
+    List<Long> findIdsByStatus(@Param("ids") Collection<Long> ids, @Param("status") TransactionStatus status);
+
+    // Read model for offset-paged history: names joined in the same statement, no User entities loaded
+    @Query(value = "SELECT new com.banking.dto.response.TransactionResponse(" +
+           "t.id, s.id, s.name, r.id, r.name, t.amount, t.status, t.isFlagged, t.createdAt) " +
+           "FROM Transaction t JOIN t.sender s JOIN t.receiver r " +
+           "WHERE (s.id = :userId OR r.id = :userId) " +
+           "AND (:startDate IS NULL OR t.createdAt >= :startDate) " +
+           "AND (:endDate IS NULL OR t.createdAt <= :endDate) " +
+           "AND (:status IS NULL OR t.status = :status) ",
+           countQuery = "SELECT COUNT(t) FROM Transaction t " +
+           "WHERE (t.sender.id = :userId OR t.receiver.id = :userId) " +
            "AND (:startDate IS NULL OR t.createdAt >= :startDate) " +
            "AND (:endDate IS NULL OR t.createdAt <= :endDate) " +
            "AND (:status IS NULL OR t.status = :status) ")
-    Page<Transaction> findUserTransactions(
-            @Param("user") User user,
+    Page<TransactionResponse> findUserTransactions(
+            @Param("userId") Long userId,
             @Param("startDate") LocalDateTime startDate,
             @Param("endDate") LocalDateTime endDate,
             @Param("status") TransactionStatus status,
             Pageable pageable);
 
-    @Query("SELECT SUM(t.amount) FROM Transaction t " +
-           "WHERE t.sender = :user " +
+    /**
+     * One page of a user's history, newest first, strictly after the (createdAt, id) cursor.
+     * Each half of the UNION ALL is an index range scan on (sender_id|receiver_id, created_at)
+     * stopped at {@code limit} rows, so cost depends on the page size, not the page depth.
+     * Self-transfers are returned once, from the sender half.
+     */
+    @Query(value = "SELECT h.id AS id, h.sender_id AS senderId, s.name AS senderName, " +
+           "h.receiver_id AS receiverId, r.name AS receiverName, h.amount AS amount, " +
+           "h.status AS status, h.is_flagged AS flagged, h.created_at AS createdAt " +
+           "FROM ((SELECT t.id, t.sender_id, t.receiver_id, t.amount, t.status, t.is_flagged, t.created_at " +
+           "       FROM transactions t WHERE t.sender_id = :userId " +
+           "       AND (t.created_at < :createdAt OR (t.created_at = :createdAt AND t.id < :id)) " +
+           "       AND (:status IS NULL OR t.status = :status) " +
+           "       ORDER BY t.created_at DESC, t.id DESC LIMIT :limit) " +
+           "      UNION ALL " +
+           "      (SELECT t.id, t.sender_id, t.receiver_id, t.amount, t.status, t.is_flagged, t.created_at " +
+           "       FROM transactions t WHERE t.receiver_id = :userId AND t.sender_id <> :userId " +
+           "       AND (t.created_at < :createdAt OR (t.created_at = :createdAt AND t.id < :id)) " +
+           "       AND (:status IS NULL OR t.status = :status) " +
+           "       ORDER BY t.created_at DESC, t.id DESC LIMIT :limit)) h " +
+           "JOIN users s ON s.id = h.sender_id " +
+           "JOIN users r ON r.id = h.receiver_id " +
+           "ORDER BY h.created_at DESC, h.id DESC LIMIT :limit",
+           nativeQuery = true)
+    List<TransactionHistoryView> findHistoryPage(
+            @Param("userId") Long userId,
+            @Param("createdAt") LocalDateTime createdAt,
+            @Param("id") Long id,
+            @Param("status") String status,
+            @Param("limit") int limit);
+
+    /**
+     * Completed transfers of a user in chronological order, strictly after the (createdAt, id)
+     * cursor and before {@code endDate}. Same two-range-scan shape as {@link #findHistoryPage},
+     * ascending; statement exports page through a period with it.
+     */
+    @Query(value = "SELECT h.id AS id, h.sender_id AS senderId, s.name AS senderName, " +
+           "h.receiver_id AS receiverId, r.name AS receiverName, h.amount AS amount, " +
+           "h.status AS status, h.is_flagged AS flagged, h.created_at AS createdAt " +
+           "FROM ((SELECT t.id, t.sender_id, t.receiver_id, t.amount, t.status, t.is_flagged, t.created_at " +
+           "       FROM transactions t WHERE t.sender_id = :userId " +
+           "       AND (t.created_at > :createdAt OR (t.created_at = :createdAt AND t.id > :id)) " +
+           "       AND t.created_at < :endDate AND t.status = 'COMPLETED' " +
+           "       ORDER BY t.created_at, t.id LIMIT :limit) " +
+           "      UNION ALL " +
+           "      (SELECT t.id, t.sender_id, t.receiver_id, t.amount, t.status, t.is_flagged, t.created_at " +
+           "       FROM transactions t WHERE t.receiver_id = :userId AND t.sender_id <> :userId " +
+           "       AND (t.created_at > :createdAt OR (t.created_at = :createdAt AND t.id > :id)) " +
+           "       AND t.created_at < :endDate AND t.status = 'COMPLETED' " +
+           "       ORDER BY t.created_at, t.id LIMIT :limit)) h " +
+           "JOIN users s ON s.id = h.sender_id " +
+           "JOIN users r ON r.id = h.receiver_id " +
+           "ORDER BY h.created_at, h.id LIMIT :limit",
+           nativeQuery = true)
+    List<TransactionHistoryView> findStatementChunk(
+            @Param("userId") Long userId,
+            @Param("createdAt") LocalDateTime createdAt,
+            @Param("id") Long id,
+            @Param("endDate") LocalDateTime endDate,
+            @Param("limit") int limit);
+
+    /**
+     * A user's whole history, oldest first, as a forward-only cursor. Must be consumed inside
+     * a transaction and closed; the connection can run no other statement until it is.
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = STREAMING_FETCH_SIZE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query(value = "SELECT h.id AS id, h.sender_id AS senderId, s.name AS senderName, " +
+           "h.receiver_id AS receiverId, r.name AS receiverName, h.amount AS amount, " +
+           "h.status AS status, h.is_flagged AS flagged, h.created_at AS createdAt " +
+           "FROM (SELECT t.id, t.sender_id, t.receiver_id, t.amount, t.status, t.is_flagged, t.created_at " +
+           "      FROM transactions t WHERE t.sender_id = :userId " +
+           "      UNION ALL " +
+           "      SELECT t.id, t.sender_id, t.receiver_id, t.amount, t.status, t.is_flagged, t.created_at " +
+           "      FROM transactions t WHERE t.receiver_id = :userId AND t.sender_id <> :userId) h " +
+           "JOIN users s ON s.id = h.sender_id " +
+           "JOIN users r ON r.id = h.receiver_id " +
+           "ORDER BY h.created_at, h.id",
+           nativeQuery = true)
+    Stream<TransactionHistoryView> streamUserTransactions(@Param("userId") Long userId);
+
+    // Every transaction in primary key order, so MySQL walks the clustered index without sorting
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = STREAMING_FETCH_SIZE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query(value = "SELECT t.id AS id, t.sender_id AS senderId, s.name AS senderName, " +
+           "t.receiver_id AS receiverId, r.name AS receiverName, t.amount AS amount, " +
+           "t.status AS status, t.is_flagged AS flagged, t.created_at AS createdAt " +
+           "FROM transactions t " +
+           "JOIN users s ON s.id = t.sender_id " +
+           "JOIN users r ON r.id = t.receiver_id " +
+           "ORDER BY t.id",
+           nativeQuery = true)
+    Stream<TransactionHistoryView> streamAllTransactions();
+
+    // Range scans on (sender_id, created_at) / (receiver_id, created_at); DECIMAL end to end
+    @Query("SELECT COALESCE(SUM(t.amount), 0) FROM Transaction t " +
+           "WHERE t.sender.id = :userId " +
            "AND t.status = 'COMPLETED' " +
            "AND t.createdAt >= :startDate " +
            "AND t.createdAt < :endDate")
-    Double getTotalSentAmountByUserAndDateRange(
-            @Param("user") User user,
+    BigDecimal getTotalSentAmountByUserAndDateRange(
+            @Param("userId") Long userId,
+            @Param("startDate") LocalDateTime startDate,
+            @Param("endDate") LocalDateTime endDate);
+
+    @Query("SELECT COALESCE(SUM(t.amount), 0) FROM Transaction t " +
+           "WHERE t.receiver.id = :userId " +
+           "AND t.status = 'COMPLETED' " +
+           "AND t.createdAt >= :startDate " +
+           "AND t.createdAt < :endDate")
+    BigDecimal getTotalReceivedAmountByUserAndDateRange(
+            @Param("userId") Long userId,
             @Param("startDate") LocalDateTime startDate,
             @Param("endDate") LocalDateTime endDate);
 
     boolean existsBySenderAndCreatedAtAfter(User sender, LocalDateTime dateTime);
+
+    @Query("SELECT t.sender.id AS senderId, t.createdAt AS createdAt FROM Transaction t WHERE t.createdAt > :since")
+    List<SenderActivityView> findSenderActivitySince(@Param("since") LocalDateTime since);
+
+    interface TransactionHistoryView {
+        Long getId();
+        Long getSenderId();
+        String getSenderName();
+        Long getReceiverId();
+        String getReceiverName();
+        BigDecimal getAmount();
+        TransactionStatus getStatus();
+        Boolean getFlagged();
+        LocalDateTime getCreatedAt();
+    }
+
+    interface SenderActivityView {
+        Long getSenderId();
+        LocalDateTime getCreatedAt();
+    }
 }
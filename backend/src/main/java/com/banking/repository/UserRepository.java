@@ -1,19 +1,41 @@
 package com.banking.repository;
 
+import com.banking.dto.response.UserResponse;
 import com.banking.model.User;
+import com.banking.model.enums.UserRole;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface UserRepository extends JpaRepository<User, Long> {
     Optional<User> findByEmail(String email);
     boolean existsByEmail(String email);
+
+    // SELECT ... FOR UPDATE; callers lock several accounts in ascending id order
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT u FROM User u WHERE u.id = :id")
+    Optional<User> findByIdForUpdate(@Param("id") Long id);
+
+    // One locking read for many accounts; InnoDB takes the row locks in primary key order
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT u FROM User u WHERE u.id IN :ids ORDER BY u.id")
+    List<User> findAllByIdForUpdate(@Param("ids") Collection<Long> ids);
     
     @Modifying
     @Query("UPDATE User u SET u.failedAttempt = :failAttempts, u.lockTime = :lockTime WHERE u.email = :email")
@@ -23,7 +45,86 @@ public interface UserRepository extends JpaRepository<User, Long> {
     
     @Modifying
     @Query("UPDATE User u SET u.accountNonLocked = :accountNonLocked, u.lockTime = :lockTime WHERE u.email = :email")
-    void updateAccountLockStatus(@Param("accountNonLocked") boolean accountNonLocked,
+    int updateAccountLockStatus(@Param("accountNonLocked") boolean accountNonLocked,
                                 @Param("lockTime") LocalDateTime lockTime,
                                 @Param("email") String email);
+
+    @Modifying
+    @Query("UPDATE User u SET u.password = :password WHERE u.email = :email")
+    int updatePassword(@Param("email") String email, @Param("password") String password);
+
+    // Timed lockouts only; accounts locked without a lock time stay locked
+    @Modifying
+    @Query("UPDATE User u SET u.accountNonLocked = true, u.lockTime = null, u.failedAttempt = 0 " +
+           "WHERE u.accountNonLocked = false AND u.lockTime < :cutoff")
+    int unlockLockedBefore(@Param("cutoff") LocalDateTime cutoff);
+
+    @Query("SELECT u.id FROM User u WHERE u.accountNonLocked = false")
+    List<Long> findLockedUserIds();
+
+    /**
+     * One page of the admin listing, newest first, strictly after the (createdAt, id) cursor.
+     * Connector/J inlines the parameters, so MySQL folds the unused filters away and can pick
+     * the matching (role|account_non_locked, created_at) index.
+     */
+    @Query("SELECT new com.banking.dto.response.UserResponse(u.id, u.name, u.email, u.role, u.balance, u.createdAt) " +
+           "FROM User u " +
+           "WHERE (u.createdAt < :createdAt OR (u.createdAt = :createdAt AND u.id < :id)) " +
+           "AND (:role IS NULL OR u.role = :role) " +
+           "AND (:minBalance IS NULL OR u.balance >= :minBalance) " +
+           "AND (:maxBalance IS NULL OR u.balance < :maxBalance) " +
+           "AND (:accountNonLocked IS NULL OR u.accountNonLocked = :accountNonLocked) " +
+           "AND (:createdFrom IS NULL OR u.createdAt >= :createdFrom) " +
+           "AND (:createdTo IS NULL OR u.createdAt < :createdTo) " +
+           "ORDER BY u.createdAt DESC, u.id DESC")
+    List<UserResponse> findUserPage(
+            @Param("createdAt") LocalDateTime createdAt,
+            @Param("id") Long id,
+            @Param("role") UserRole role,
+            @Param("minBalance") BigDecimal minBalance,
+            @Param("maxBalance") BigDecimal maxBalance,
+            @Param("accountNonLocked") Boolean accountNonLocked,
+            @Param("createdFrom") LocalDateTime createdFrom,
+            @Param("createdTo") LocalDateTime createdTo,
+            Pageable limit);
+
+    /**
+     * Every matching user in primary key order as a forward-only cursor of DTOs; no entity
+     * or password hash is loaded. Must be consumed inside a transaction and closed.
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = TransactionRepository.STREAMING_FETCH_SIZE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT new com.banking.dto.response.UserResponse(u.id, u.name, u.email, u.role, u.balance, u.createdAt) " +
+           "FROM User u " +
+           "WHERE (:role IS NULL OR u.role = :role) " +
+           "AND (:minBalance IS NULL OR u.balance >= :minBalance) " +
+           "AND (:maxBalance IS NULL OR u.balance < :maxBalance) " +
+           "AND (:accountNonLocked IS NULL OR u.accountNonLocked = :accountNonLocked) " +
+           "AND (:createdFrom IS NULL OR u.createdAt >= :createdFrom) " +
+           "AND (:createdTo IS NULL OR u.createdAt < :createdTo) " +
+           "ORDER BY u.id")
+    Stream<UserResponse> streamUsers(
+            @Param("role") UserRole role,
+            @Param("minBalance") BigDecimal minBalance,
+            @Param("maxBalance") BigDecimal maxBalance,
+            @Param("accountNonLocked") Boolean accountNonLocked,
+            @Param("createdFrom") LocalDateTime createdFrom,
+            @Param("createdTo") LocalDateTime createdTo);
+
+    @Query("SELECT u.balance FROM User u WHERE u.id = :id")
+    Optional<BigDecimal> findBalanceById(@Param("id") Long id);
+
+    @Query("SELECT u.id AS id, u.balance AS balance FROM User u")
+    List<BalanceView> findAllBalances();
+
+    @Modifying
+    @Query("UPDATE User u SET u.balance = u.balance + :delta WHERE u.id = :id")
+    int adjustBalance(@Param("id") Long id, @Param("delta") BigDecimal delta);
+
+    interface BalanceView {
+        Long getId();
+        BigDecimal getBalance();
+    }
 }
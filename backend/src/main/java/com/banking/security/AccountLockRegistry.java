@@ -0,0 +1,67 @@
+package com.banking.security;
+
+import com.banking.repository.UserRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Ids of locked accounts, for rejecting stateless (claims-only) principals without a
+ * per-request query. Locked accounts are rare, so the whole set is reloaded from
+ * {@code users.account_non_locked} every {@code app.jwt.lock-refresh-ms}; that interval
+ * bounds how long a lock made on another node takes to apply here. Locks made on this
+ * node apply immediately through {@link #markLocked}.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class AccountLockRegistry {
+
+    private final UserRepository userRepository;
+    private final MeterRegistry meterRegistry;
+
+    private volatile Set<Long> lockedIds = Set.of();
+
+    @PostConstruct
+    public void init() {
+        Gauge.builder("banking.security.locked.accounts", this, registry -> registry.lockedIds.size())
+                .description("Locked accounts known to the stateless authentication filter")
+                .register(meterRegistry);
+        refresh();
+    }
+
+    public boolean isLocked(Long userId) {
+        return lockedIds.contains(userId);
+    }
+
+    public void markLocked(Long userId) {
+        Set<Long> updated = ConcurrentHashMap.newKeySet();
+        updated.addAll(lockedIds);
+        updated.add(userId);
+        lockedIds = updated;
+    }
+
+    public void markUnlocked(Long userId) {
+        Set<Long> updated = ConcurrentHashMap.newKeySet();
+        updated.addAll(lockedIds);
+        updated.remove(userId);
+        lockedIds = updated;
+    }
+
+    @Scheduled(fixedDelayString = "${app.jwt.lock-refresh-ms:5000}")
+    public void refresh() {
+        try {
+            lockedIds = Set.copyOf(userRepository.findLockedUserIds());
+        } catch (Exception e) {
+            // Keep serving the last known set rather than failing every request
+            log.warn("Could not refresh locked accounts: {}", e.getMessage());
+        }
+    }
+}
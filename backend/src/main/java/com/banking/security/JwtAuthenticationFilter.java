@@ -1,5 +1,6 @@
 package com.banking.security;
 
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -8,6 +9,7 @@ import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -26,28 +28,32 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     private JwtService jwtService;
     @Autowired
     private UserDetailsServiceImpl userDetailsService;
+    @Autowired
+    private AccountLockRegistry accountLockRegistry;
+
+    @Value("${app.jwt.stateless:true}")
+    private boolean stateless;
 
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
             throws ServletException, IOException {
         try {
             String jwt = parseJwt(request);
-            if (jwt != null && jwtService.isTokenValid(jwt, null)) {
-                String username = jwtService.extractUsername(jwt);
-                
-                if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-                    UserDetails userDetails = userDetailsService.loadUserByUsername(username);
-                    
-                    if (jwtService.isTokenValid(jwt, userDetails)) {
-                        UsernamePasswordAuthenticationToken authentication = 
-                            new UsernamePasswordAuthenticationToken(
-                                userDetails, 
-                                null, 
-                                userDetails.getAuthorities());
-                        
-                        authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
-                        SecurityContextHolder.getContext().setAuthentication(authentication);
-                    }
+            if (jwt != null && SecurityContextHolder.getContext().getAuthentication() == null) {
+                // Single verification per request; repeat tokens are answered from the cache
+                Claims claims = jwtService.verify(jwt);
+                String username = claims.getSubject();
+
+                UserDetails userDetails = username == null ? null : loadPrincipal(claims);
+                if (userDetails != null) {
+                    UsernamePasswordAuthenticationToken authentication =
+                        new UsernamePasswordAuthenticationToken(
+                            userDetails,
+                            null,
+                            userDetails.getAuthorities());
+
+                    authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+                    SecurityContextHolder.getContext().setAuthentication(authentication);
                 }
             }
         } catch (Exception e) {
@@ -57,6 +63,24 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         filterChain.doFilter(request, response);
     }
 
+    /**
+     * In stateless mode, tokens carrying identity claims are trusted as issued and only the
+     * lock status is checked; older tokens without them fall back to loading the user.
+     * Returns {@code null} for a locked account, leaving the request unauthenticated.
+     */
+    private UserDetails loadPrincipal(Claims claims) {
+        if (!stateless || claims.get(JwtService.CLAIM_USER_ID) == null) {
+            UserDetails userDetails = userDetailsService.loadUserByUsername(claims.getSubject());
+            return userDetails.isAccountNonLocked() ? userDetails : null;
+        }
+        UserDetailsImpl principal = UserDetailsImpl.fromClaims(claims);
+        if (accountLockRegistry.isLocked(principal.getId())) {
+            logger.warn("Rejected token for locked account {}", principal.getId());
+            return null;
+        }
+        return principal;
+    }
+
     private String parseJwt(HttpServletRequest request) {
         String headerAuth = request.getHeader("Authorization");
 
@@ -0,0 +1,260 @@
+package com.banking.security;
+
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import java.math.BigInteger;
+import java.security.GeneralSecurityException;
+import java.security.Key;
+import java.security.KeyFactory;
+import java.security.KeyPair;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.security.interfaces.ECPublicKey;
+import java.security.spec.PKCS8EncodedKeySpec;
+import java.security.spec.X509EncodedKeySpec;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Signing and verification keys for access tokens.
+ * <p>
+ * With {@code app.jwt.algorithm=ES256}, tokens are signed with the active P-256 private
+ * key and carry its id in the {@code kid} header. Every key in {@code app.jwt.keys.public-keys}
+ * verifies tokens and is published as a JWKS, so other services can check tokens without
+ * holding a secret. The keys are decoded once at startup, so a token costs one map lookup
+ * to find its key however many keys are configured.
+ * <p>
+ * Rotation: publish the new public key on every node, switch the signing key, then remove
+ * the old public key once the longest-lived token signed with it has expired.
+ * <p>
+ * Tokens without a {@code kid} header are HS256 tokens issued before the switch. Under ES256
+ * they are rejected unless {@code app.jwt.legacy-hs256.accept-until} is set, and then only
+ * until that instant; set it to the switch-over time plus the token lifetime and
+ * {@code app.jwt.secret} along with it.
+ * <p>
+ * ES256 without a configured signing key refuses to start. {@code app.jwt.keys.allow-ephemeral}
+ * lets a development node sign with a throwaway key instead; its tokens do not survive a
+ * restart and no other node can verify them.
+ */
+@Slf4j
+@Component
+public class JwtKeyRing {
+
+    @Value("${app.jwt.algorithm:ES256}")
+    private SignatureAlgorithm algorithm;
+
+    @Value("${app.jwt.secret:}")
+    private String secret;
+
+    @Value("${app.jwt.keys.signing-kid:}")
+    private String signingKid;
+
+    // Base64 PKCS#8 EC private key
+    @Value("${app.jwt.keys.signing-private-key:}")
+    private String signingPrivateKey;
+
+    // kid=base64 X.509 EC public key, comma separated
+    @Value("${app.jwt.keys.public-keys:}")
+    private String publicKeys;
+
+    @Value("${app.jwt.keys.allow-ephemeral:false}")
+    private boolean allowEphemeralKey;
+
+    // ISO-8601 instant; empty rejects tokens without a kid under ES256
+    @Value("${app.jwt.legacy-hs256.accept-until:}")
+    private String legacyAcceptUntil;
+
+    private Clock clock = Clock.systemUTC();
+    private Instant legacyCutoff;
+    private Key signingKey;
+    private Key legacyKey;
+    private Map<String, PublicKey> verificationKeys;
+    private Map<String, Object> jwks;
+
+    @PostConstruct
+    public void init() {
+        legacyKey = StringUtils.hasText(secret) ? Keys.hmacShaKeyFor(Decoders.BASE64.decode(secret)) : null;
+        legacyCutoff = parseCutoff(legacyAcceptUntil);
+        verificationKeys = new LinkedHashMap<>(parsePublicKeys(publicKeys));
+
+        if (algorithm == SignatureAlgorithm.HS256) {
+            if (legacyKey == null) {
+                throw new IllegalStateException("app.jwt.secret is required for HS256");
+            }
+            signingKid = null;
+            signingKey = legacyKey;
+        } else if (algorithm == SignatureAlgorithm.ES256) {
+            initEcSigningKey();
+            initLegacyVerification();
+        } else {
+            throw new IllegalStateException("Unsupported app.jwt.algorithm " + algorithm + "; use ES256 or HS256");
+        }
+
+        verificationKeys = Map.copyOf(verificationKeys);
+        jwks = Map.of("keys", verificationKeys.entrySet().stream()
+                .map(entry -> toJwk(entry.getKey(), (ECPublicKey) entry.getValue()))
+                .toList());
+    }
+
+    private void initEcSigningKey() {
+        if (!StringUtils.hasText(signingPrivateKey)) {
+            if (!allowEphemeralKey) {
+                throw new IllegalStateException("app.jwt.keys.signing-private-key is required for ES256; "
+                        + "set app.jwt.keys.allow-ephemeral=true to sign with a throwaway key in development");
+            }
+            KeyPair pair = Keys.keyPairFor(SignatureAlgorithm.ES256);
+            signingKid = "ephemeral-" + UUID.randomUUID();
+            signingKey = pair.getPrivate();
+            verificationKeys.put(signingKid, pair.getPublic());
+            log.warn("No app.jwt.keys.signing-private-key configured; signing with ephemeral key {}", signingKid);
+            return;
+        }
+        if (!StringUtils.hasText(signingKid) || !verificationKeys.containsKey(signingKid)) {
+            throw new IllegalStateException("app.jwt.keys.public-keys must contain the signing key " + signingKid);
+        }
+        signingKey = decodePrivateKey(signingPrivateKey);
+    }
+
+    private void initLegacyVerification() {
+        if (legacyCutoff == null) {
+            legacyKey = null;
+            return;
+        }
+        if (legacyKey == null) {
+            throw new IllegalStateException("app.jwt.secret is required while app.jwt.legacy-hs256.accept-until is set");
+        }
+        log.info("Accepting legacy HS256 tokens without a key id until {}", legacyCutoff);
+    }
+
+    private static Instant parseCutoff(String value) {
+        if (!StringUtils.hasText(value)) {
+            return null;
+        }
+        try {
+            return Instant.parse(value.trim());
+        } catch (DateTimeParseException e) {
+            throw new IllegalStateException("Invalid app.jwt.legacy-hs256.accept-until " + value
+                    + "; use an ISO-8601 instant such as 2025-07-01T00:00:00Z", e);
+        }
+    }
+
+    public SignatureAlgorithm getAlgorithm() {
+        return algorithm;
+    }
+
+    public Key getSigningKey() {
+        return signingKey;
+    }
+
+    /**
+     * The {@code kid} header for new tokens, or {@code null} when signing with the shared secret.
+     */
+    public String getSigningKid() {
+        return signingKid;
+    }
+
+    /**
+     * The key that verifies a token with the given header.
+     *
+     * @throws JwtException if the key id is unknown
+     */
+    public Key verificationKey(JwsHeader<?> header) {
+        String kid = header.getKeyId();
+        if (kid == null) {
+            if (legacyKey == null) {
+                throw new JwtException("Token has no key id");
+            }
+            if (legacyCutoff != null && !clock.instant().isBefore(legacyCutoff)) {
+                throw new JwtException("Legacy HS256 tokens are no longer accepted");
+            }
+            return legacyKey;
+        }
+        PublicKey key = verificationKeys.get(kid);
+        if (key == null) {
+            throw new JwtException("Unknown key id " + kid);
+        }
+        return key;
+    }
+
+    /**
+     * The public verification keys as a JWK Set (RFC 7517).
+     */
+    public Map<String, Object> getJwks() {
+        return jwks;
+    }
+
+    static Map<String, PublicKey> parsePublicKeys(String spec) {
+        Map<String, PublicKey> keys = new LinkedHashMap<>();
+        if (!StringUtils.hasText(spec)) {
+            return keys;
+        }
+        for (String entry : spec.split(",")) {
+            String[] parts = entry.trim().split("=", 2);
+            if (parts.length != 2 || parts[0].isBlank()) {
+                throw new IllegalStateException("Invalid app.jwt.keys.public-keys entry: " + entry);
+            }
+            keys.put(parts[0].trim(), decodePublicKey(parts[1].trim()));
+        }
+        return keys;
+    }
+
+    private static PublicKey decodePublicKey(String base64) {
+        try {
+            ECPublicKey key = (ECPublicKey) KeyFactory.getInstance("EC")
+                    .generatePublic(new X509EncodedKeySpec(Base64.getDecoder().decode(base64)));
+            if (key.getParams().getCurve().getField().getFieldSize() != 256) {
+                throw new IllegalStateException("ES256 keys must be on the P-256 curve");
+            }
+            return key;
+        } catch (GeneralSecurityException | IllegalArgumentException e) {
+            throw new IllegalStateException("Invalid EC public key", e);
+        }
+    }
+
+    private static PrivateKey decodePrivateKey(String base64) {
+        try {
+            return KeyFactory.getInstance("EC").generatePrivate(new PKCS8EncodedKeySpec(Base64.getDecoder().decode(base64)));
+        } catch (GeneralSecurityException | IllegalArgumentException e) {
+            throw new IllegalStateException("Invalid EC private key", e);
+        }
+    }
+
+    static Map<String, Object> toJwk(String kid, ECPublicKey key) {
+        Base64.Encoder encoder = Base64.getUrlEncoder().withoutPadding();
+        Map<String, Object> jwk = new LinkedHashMap<>();
+        jwk.put("kty", "EC");
+        jwk.put("crv", "P-256");
+        jwk.put("kid", kid);
+        jwk.put("use", "sig");
+        jwk.put("alg", "ES256");
+        jwk.put("x", encoder.encodeToString(coordinate(key.getW().getAffineX())));
+        jwk.put("y", encoder.encodeToString(coordinate(key.getW().getAffineY())));
+        return jwk;
+    }
+
+    // Unsigned big-endian, left-padded to the 32-byte P-256 field size
+    private static byte[] coordinate(BigInteger value) {
+        byte[] bytes = value.toByteArray();
+        if (bytes.length == 32) {
+            return bytes;
+        }
+        byte[] padded = new byte[32];
+        int length = Math.min(bytes.length, 32);
+        System.arraycopy(bytes, bytes.length - length, padded, 32 - length, length);
+        return padded;
+    }
+}
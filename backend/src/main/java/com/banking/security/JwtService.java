@@ -1,11 +1,17 @@
 package com.banking.security;
 
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
-import io.jsonwebtoken.SignatureAlgorithm;
-import io.jsonwebtoken.io.Decoders;
-import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.SigningKeyResolverAdapter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
 
@@ -16,25 +22,97 @@ import java.util.Map;
 import java.util.function.Function;
 
 @Service
+@RequiredArgsConstructor
 public class JwtService {
 
-    @Value("${app.jwt.secret}")
-    private String secretKey;
+    // Identity claims carried by tokens issued to application users (see UserDetailsImpl.fromClaims)
+    public static final String CLAIM_USER_ID = "uid";
+    public static final String CLAIM_NAME = "name";
+    public static final String CLAIM_ROLES = "roles";
+
+    private final MeterRegistry meterRegistry;
+    private final JwtKeyRing keyRing;
 
     @Value("${app.jwt.expiration-ms}")
     private long jwtExpirationMs;
 
+    @Value("${app.jwt.cache.max-size:10000}")
+    private int cacheMaxSize;
+
+    @Value("${app.jwt.cache.ttl-ms:300000}")
+    private long cacheTtlMs;
+
+    // Built once; immutable and thread-safe. Keys are looked up per kid in the key ring.
+    private JwtParser parser;
+    private VerifiedTokenCache verifiedTokens;
+    private Counter cacheHits;
+    private Counter cacheMisses;
+
+    @PostConstruct
+    public void init() {
+        parser = Jwts.parserBuilder()
+                .setSigningKeyResolver(new SigningKeyResolverAdapter() {
+                    // jjwt 0.11 declares this hook with a raw JwsHeader, so only the override may name it
+                    @Override
+                    @SuppressWarnings("rawtypes")
+                    public Key resolveSigningKey(JwsHeader header, Claims claims) {
+                        JwsHeader<?> typed = header;
+                        return keyRing.verificationKey(typed);
+                    }
+                })
+                .build();
+        verifiedTokens = new VerifiedTokenCache(cacheMaxSize, cacheTtlMs);
+        cacheHits = Counter.builder("banking.jwt.cache").tag("result", "hit").register(meterRegistry);
+        cacheMisses = Counter.builder("banking.jwt.cache").tag("result", "miss").register(meterRegistry);
+    }
+
+    /**
+     * Verifies the token's signature and expiry and returns its claims. Tokens verified
+     * before are served from the cache until they expire. The returned claims are shared
+     * and must not be modified.
+     *
+     * @throws JwtException if the token is malformed, forged or expired
+     */
+    public Claims verify(String token) {
+        long now = System.currentTimeMillis();
+        if (!verifiedTokens.isEnabled()) {
+            return parser.parseClaimsJws(token).getBody();
+        }
+        VerifiedTokenCache.TokenKey key = VerifiedTokenCache.keyOf(token);
+        Claims claims = verifiedTokens.get(key, now);
+        if (claims != null) {
+            cacheHits.increment();
+            return claims;
+        }
+        cacheMisses.increment();
+        claims = parser.parseClaimsJws(token).getBody();
+        verifiedTokens.put(key, claims, now);
+        return claims;
+    }
+
     public String extractUsername(String token) {
         return extractClaim(token, Claims::getSubject);
     }
 
     public <T> T extractClaim(String token, Function<Claims, T> claimsResolver) {
-        final Claims claims = extractAllClaims(token);
+        final Claims claims = verify(token);
         return claimsResolver.apply(claims);
     }
 
+    /**
+     * Issues a token for the user. Application users also get their id, name and roles as
+     * claims, so requests can be authenticated from the token alone.
+     */
     public String generateToken(UserDetails userDetails) {
-        return generateToken(new HashMap<>(), userDetails);
+        Map<String, Object> claims = new HashMap<>();
+        if (userDetails instanceof UserDetailsImpl user) {
+            claims.put(CLAIM_USER_ID, user.getId());
+            claims.put(CLAIM_NAME, user.getName());
+            claims.put(CLAIM_ROLES, user.getAuthorities().stream()
+                    .map(GrantedAuthority::getAuthority)
+                    .toList());
+        }
+        return generateToken(claims, userDetails);
     }
     
     /**
@@ -62,11 +140,12 @@ public class JwtService {
     ) {
         return Jwts
                 .builder()
+                .setHeaderParam(JwsHeader.KEY_ID, keyRing.getSigningKid())
                 .setClaims(extraClaims)
                 .setSubject(userDetails.getUsername())
                 .setIssuedAt(new Date(System.currentTimeMillis()))
                 .setExpiration(new Date(System.currentTimeMillis() + expiration))
-                .signWith(getSignInKey(), SignatureAlgorithm.HS256)
+                .signWith(keyRing.getSigningKey(), keyRing.getAlgorithm())
                 .compact();
     }
 
@@ -77,38 +156,24 @@ public class JwtService {
     ) {
         return Jwts
                 .builder()
+                .setHeaderParam(JwsHeader.KEY_ID, keyRing.getSigningKid())
                 .setClaims(extraClaims)
                 .setSubject(email)
                 .setIssuedAt(new Date(System.currentTimeMillis()))
                 .setExpiration(new Date(System.currentTimeMillis() + expiration))
-                .signWith(getSignInKey(), SignatureAlgorithm.HS256)
+                .signWith(keyRing.getSigningKey(), keyRing.getAlgorithm())
                 .compact();
     }
 
+    /**
+     * Whether the token verifies and, when {@code userDetails} is given, belongs to that user.
+     */
     public boolean isTokenValid(String token, UserDetails userDetails) {
-        final String username = extractUsername(token);
-        return (username.equals(userDetails.getUsername())) && !isTokenExpired(token);
-    }
-
-    private boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
-    }
-
-    private Date extractExpiration(String token) {
-        return extractClaim(token, Claims::getExpiration);
-    }
-
-    private Claims extractAllClaims(String token) {
-        return Jwts
-                .parserBuilder()
-                .setSigningKey(getSignInKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
-    }
-
-    private Key getSignInKey() {
-        byte[] keyBytes = Decoders.BASE64.decode(secretKey);
-        return Keys.hmacShaKeyFor(keyBytes);
+        try {
+            String username = verify(token).getSubject();
+            return userDetails == null || username.equals(userDetails.getUsername());
+        } catch (JwtException | IllegalArgumentException e) {
+            return false;
+        }
     }
 }
@@ -0,0 +1,154 @@
+package com.banking.security;
+
+import com.banking.exception.TooManyRequestsException;
+import com.banking.repository.UserRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.authentication.LockedException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Brute-force protection for login. Failed attempts are counted in memory per email and
+ * per client IP with time-decayed scores, so a failure costs no database write.
+ * <p>
+ * An email whose score reaches {@code app.lockout.email-max-failures} is locked for
+ * {@code app.lockout.lock-minutes}. That is one UPDATE on {@code users}, and a scheduled
+ * job clears expired locks with one UPDATE. An IP reaching {@code app.lockout.ip-max-failures}
+ * is throttled in memory only. Both checks run before the password is hashed.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class LoginAttemptService {
+
+    private static final int STRIPES = 64;
+
+    private final UserRepository userRepository;
+    private final AccountLockRegistry accountLockRegistry;
+    private final PlatformTransactionManager transactionManager;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.lockout.email-max-failures:5}")
+    private int emailMaxFailures;
+
+    @Value("${app.lockout.ip-max-failures:50}")
+    private int ipMaxFailures;
+
+    @Value("${app.lockout.half-life-minutes:10}")
+    private long halfLifeMinutes;
+
+    @Value("${app.lockout.lock-minutes:15}")
+    private long lockMinutes;
+
+    @Value("${app.lockout.ip-block-minutes:5}")
+    private long ipBlockMinutes;
+
+    @Value("${app.lockout.max-tracked-keys:262144}")
+    private int maxTrackedKeys;
+
+    private StripedDecayingCounter emailFailures;
+    private StripedDecayingCounter ipFailures;
+    private TransactionTemplate transactionTemplate;
+    private Counter accountsLocked;
+    private Counter accountsUnlocked;
+    private Counter ipsBlocked;
+    private Counter rejectedAccount;
+    private Counter rejectedIp;
+
+    @PostConstruct
+    public void init() {
+        long halfLifeMillis = TimeUnit.MINUTES.toMillis(halfLifeMinutes);
+        emailFailures = new StripedDecayingCounter(STRIPES, maxTrackedKeys, halfLifeMillis);
+        ipFailures = new StripedDecayingCounter(STRIPES, maxTrackedKeys, halfLifeMillis);
+        transactionTemplate = new TransactionTemplate(transactionManager);
+
+        accountsLocked = Counter.builder("banking.lockout.locked").tag("key", "email").register(meterRegistry);
+        ipsBlocked = Counter.builder("banking.lockout.locked").tag("key", "ip").register(meterRegistry);
+        accountsUnlocked = Counter.builder("banking.lockout.unlocked").register(meterRegistry);
+        rejectedAccount = Counter.builder("banking.lockout.rejected").tag("key", "email").register(meterRegistry);
+        rejectedIp = Counter.builder("banking.lockout.rejected").tag("key", "ip").register(meterRegistry);
+        Gauge.builder("banking.lockout.tracked", this, service -> service.emailFailures.size() + service.ipFailures.size())
+                .description("Emails and IPs with a failure score held in memory")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Rejects the attempt before any password hashing if the IP is throttled or the
+     * account was locked by this node.
+     *
+     * @throws TooManyRequestsException if the client IP is throttled
+     * @throws LockedException if the account is locked
+     */
+    public void checkAllowed(String email, String ip) {
+        long now = System.currentTimeMillis();
+        if (ip != null && ipFailures.blockedUntil(ip, now) > 0) {
+            rejectedIp.increment();
+            throw new TooManyRequestsException("Too many failed sign-in attempts. Please retry later.");
+        }
+        if (emailFailures.blockedUntil(key(email), now) > 0) {
+            rejectedAccount.increment();
+            throw new LockedException("Account is locked");
+        }
+    }
+
+    public void loginFailed(String email, String ip) {
+        long now = System.currentTimeMillis();
+        if (ip != null && reached(ipFailures.increment(ip, now), ipMaxFailures) && ipFailures.blockedUntil(ip, now) == 0) {
+            ipFailures.block(ip, now + TimeUnit.MINUTES.toMillis(ipBlockMinutes));
+            ipsBlocked.increment();
+            log.warn("Throttling logins from {} for {} minutes after repeated failures", ip, ipBlockMinutes);
+        }
+        String key = key(email);
+        if (reached(emailFailures.increment(key, now), emailMaxFailures) && emailFailures.blockedUntil(key, now) == 0) {
+            emailFailures.block(key, now + TimeUnit.MINUTES.toMillis(lockMinutes));
+            lock(email);
+        }
+    }
+
+    public void loginSucceeded(String email) {
+        emailFailures.reset(key(email));
+    }
+
+    @Scheduled(fixedDelayString = "${app.lockout.unlock-interval-ms:60000}")
+    public void releaseExpiredLocks() {
+        LocalDateTime cutoff = LocalDateTime.now().minusMinutes(lockMinutes);
+        Integer released = transactionTemplate.execute(status -> userRepository.unlockLockedBefore(cutoff));
+        if (released != null && released > 0) {
+            accountsUnlocked.increment(released);
+            accountLockRegistry.refresh();
+            log.info("Released {} expired account locks", released);
+        }
+    }
+
+    private void lock(String email) {
+        // Unknown emails match no row; they stay blocked in memory only
+        Integer updated = transactionTemplate.execute(status ->
+                userRepository.updateAccountLockStatus(false, LocalDateTime.now(), email));
+        if (updated != null && updated > 0) {
+            accountsLocked.increment();
+            accountLockRegistry.refresh();
+            log.warn("Locked account {} for {} minutes after repeated failed logins", email, lockMinutes);
+        }
+    }
+
+    // Failures seconds apart have barely decayed; count them as whole attempts
+    private static boolean reached(double score, int max) {
+        return Math.round(score) >= max;
+    }
+
+    private static String key(String email) {
+        return email.trim().toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,106 @@
+package com.banking.security;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Per-key failure scores that halve every {@code halfLifeMillis}, with an optional block
+ * deadline per key. Keys hash to one of a fixed number of stripes, each a small LRU map
+ * under its own lock, so concurrent logins for different keys rarely contend and memory
+ * stays bounded however many distinct keys an attacker sprays. When a stripe is full its
+ * least recently touched key is forgotten.
+ */
+class StripedDecayingCounter {
+
+    private static final class Entry {
+        double score;
+        long updatedAt;
+        long blockedUntil;
+    }
+
+    private static final class Stripe extends LinkedHashMap<String, Entry> {
+        private final int capacity;
+
+        Stripe(int capacity) {
+            super(16, 0.75f, true);
+            this.capacity = capacity;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+            return size() > capacity;
+        }
+    }
+
+    private final Stripe[] stripes;
+    private final double decayPerMilli;
+
+    StripedDecayingCounter(int stripeCount, int maxKeys, long halfLifeMillis) {
+        stripes = new Stripe[stripeCount];
+        int perStripe = Math.max(1, maxKeys / stripeCount);
+        for (int i = 0; i < stripeCount; i++) {
+            stripes[i] = new Stripe(perStripe);
+        }
+        decayPerMilli = Math.log(2) / halfLifeMillis;
+    }
+
+    /**
+     * Records one failure and returns the key's decayed score including it.
+     */
+    double increment(String key, long nowMillis) {
+        Stripe stripe = stripe(key);
+        synchronized (stripe) {
+            Entry entry = stripe.computeIfAbsent(key, k -> new Entry());
+            entry.score = decayed(entry, nowMillis) + 1;
+            entry.updatedAt = nowMillis;
+            return entry.score;
+        }
+    }
+
+    void block(String key, long untilMillis) {
+        Stripe stripe = stripe(key);
+        synchronized (stripe) {
+            stripe.computeIfAbsent(key, k -> new Entry()).blockedUntil = untilMillis;
+        }
+    }
+
+    /**
+     * The key's block deadline, or 0 if it is not blocked at {@code nowMillis}.
+     */
+    long blockedUntil(String key, long nowMillis) {
+        Stripe stripe = stripe(key);
+        synchronized (stripe) {
+            Entry entry = stripe.get(key);
+            return entry != null && entry.blockedUntil > nowMillis ? entry.blockedUntil : 0;
+        }
+    }
+
+    void reset(String key) {
+        Stripe stripe = stripe(key);
+        synchronized (stripe) {
+            stripe.remove(key);
+        }
+    }
+
+    int size() {
+        int size = 0;
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                size += stripe.size();
+            }
+        }
+        return size;
+    }
+
+    private double decayed(Entry entry, long nowMillis) {
+        if (entry.score == 0) {
+            return 0;
+        }
+        return entry.score * Math.exp(-decayPerMilli * Math.max(0, nowMillis - entry.updatedAt));
+    }
+
+    private Stripe stripe(String key) {
+        int hash = key.hashCode();
+        return stripes[((hash ^ (hash >>> 16)) & 0x7fffffff) % stripes.length];
+    }
+}
@@ -2,6 +2,7 @@ package com.banking.security;
 
 import com.banking.model.User;
 import com.fasterxml.jackson.annotation.JsonIgnore;
+import io.jsonwebtoken.Claims;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 import org.springframework.security.core.GrantedAuthority;
@@ -31,6 +32,9 @@ public class UserDetailsImpl implements UserDetails {
 
     private final Collection<? extends GrantedAuthority> authorities;
 
+    @JsonIgnore
+    private final boolean accountNonLocked;
+
     public static UserDetailsImpl build(User user) {
         // Get authorities directly from the user
         List<GrantedAuthority> authorities = new ArrayList<>(user.getAuthorities());
@@ -42,7 +46,29 @@ public class UserDetailsImpl implements UserDetails {
                 user.getEmail(),
                 user.getBalance(),
                 user.getPassword(),
-                authorities);
+                authorities,
+                user.isAccountNonLocked());
+    }
+
+    /**
+     * Principal rebuilt from verified token claims, without a database read. Balance and
+     * password are not carried in the token and are {@code null}.
+     */
+    public static UserDetailsImpl fromClaims(Claims claims) {
+        List<?> roles = claims.get(JwtService.CLAIM_ROLES, List.class);
+        List<GrantedAuthority> authorities = roles == null ? List.of() : roles.stream()
+                .map(role -> (GrantedAuthority) new SimpleGrantedAuthority(role.toString()))
+                .toList();
+
+        return new UserDetailsImpl(
+                ((Number) claims.get(JwtService.CLAIM_USER_ID)).longValue(),
+                claims.get(JwtService.CLAIM_NAME, String.class),
+                claims.getSubject(),
+                claims.getSubject(),
+                null,
+                null,
+                authorities,
+                true);
     }
 
     @Override
@@ -65,9 +91,10 @@ public class UserDetailsImpl implements UserDetails {
         return true;
     }
 
+    // Checked by DaoAuthenticationProvider before the password, so locked accounts skip the hash
     @Override
     public boolean isAccountNonLocked() {
-        return true;
+        return accountNonLocked;
     }
 
     @Override
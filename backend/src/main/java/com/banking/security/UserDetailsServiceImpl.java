@@ -2,8 +2,10 @@ package com.banking.security;
 
 import com.banking.model.User;
 import com.banking.repository.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
@@ -11,9 +13,10 @@ import org.springframework.transaction.annotation.Transactional;
 
 @Service
 @RequiredArgsConstructor
-public class UserDetailsServiceImpl implements UserDetailsService {
+public class UserDetailsServiceImpl implements UserDetailsService, UserDetailsPasswordService {
 
     private final UserRepository userRepository;
+    private final MeterRegistry meterRegistry;
 
     @Override
     @Transactional
@@ -24,7 +27,21 @@ public class UserDetailsServiceImpl implements UserDetailsService {
         return UserDetailsImpl.build(user);
     }
 
-    
+    /**
+     * Stores a re-encoded hash after a successful login with an outdated one.
+     */
+    @Override
+    @Transactional
+    public UserDetails updatePassword(UserDetails user, String newPassword) {
+        userRepository.updatePassword(user.getUsername(), newPassword);
+        meterRegistry.counter("banking.password.upgraded").increment();
+        if (user instanceof UserDetailsImpl details) {
+            return new UserDetailsImpl(details.getId(), details.getName(), details.getEmail(), details.getUsername(),
+                    details.getBalance(), newPassword, details.getAuthorities(), details.isAccountNonLocked());
+        }
+        return loadUserByUsername(user.getUsername());
+    }
+
     public UserDetails loadUserById(Long id) {
         User user = userRepository.findById(id).orElseThrow(
             () -> new UsernameNotFoundException("User not found with id: " + id)
@@ -0,0 +1,103 @@
+package com.banking.security;
+
+import io.jsonwebtoken.Claims;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Claims of tokens whose signature has already been verified, keyed by the SHA-256 of
+ * the token so raw bearer tokens are never retained. An entry lives until the earlier of
+ * the token's own expiry and the cache TTL. When the bound is reached, expired entries
+ * are swept first and, if the cache is still full, an arbitrary tenth of it is dropped.
+ */
+class VerifiedTokenCache {
+
+    record TokenKey(long a, long b, long c, long d) {
+    }
+
+    private record Entry(Claims claims, long expiresAtMillis) {
+    }
+
+    private static final ThreadLocal<MessageDigest> SHA_256 = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    });
+
+    private final int maxSize;
+    private final long ttlMillis;
+    private final Map<TokenKey, Entry> entries = new ConcurrentHashMap<>();
+
+    VerifiedTokenCache(int maxSize, long ttlMillis) {
+        this.maxSize = maxSize;
+        this.ttlMillis = ttlMillis;
+    }
+
+    /**
+     * Cached claims for the token, or {@code null} if absent or expired.
+     */
+    Claims get(TokenKey key, long nowMillis) {
+        if (maxSize <= 0) {
+            return null;
+        }
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            return null;
+        }
+        if (entry.expiresAtMillis() <= nowMillis) {
+            entries.remove(key, entry);
+            return null;
+        }
+        return entry.claims();
+    }
+
+    void put(TokenKey key, Claims claims, long nowMillis) {
+        if (maxSize <= 0) {
+            return;
+        }
+        long expiresAt = nowMillis + ttlMillis;
+        if (claims.getExpiration() != null) {
+            expiresAt = Math.min(expiresAt, claims.getExpiration().getTime());
+        }
+        if (expiresAt <= nowMillis) {
+            return;
+        }
+        if (entries.size() >= maxSize) {
+            makeRoom(nowMillis);
+        }
+        entries.put(key, new Entry(claims, expiresAt));
+    }
+
+    int size() {
+        return entries.size();
+    }
+
+    private void makeRoom(long nowMillis) {
+        entries.values().removeIf(entry -> entry.expiresAtMillis() <= nowMillis);
+        int size = entries.size();
+        int excess = size < maxSize ? 0 : size - maxSize + Math.max(1, maxSize / 10);
+        Iterator<TokenKey> keys = entries.keySet().iterator();
+        while (excess-- > 0 && keys.hasNext()) {
+            keys.next();
+            keys.remove();
+        }
+    }
+
+    boolean isEnabled() {
+        return maxSize > 0;
+    }
+
+    static TokenKey keyOf(String token) {
+        MessageDigest digest = SHA_256.get();
+        ByteBuffer hash = ByteBuffer.wrap(digest.digest(token.getBytes(StandardCharsets.US_ASCII)));
+        return new TokenKey(hash.getLong(), hash.getLong(), hash.getLong(), hash.getLong());
+    }
+}
@@ -0,0 +1,132 @@
+package com.banking.service;
+
+import com.banking.dto.response.UserResponse;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Bounded per-account cache of {@link UserResponse}, balance included, for the account
+ * owner's own reads. Eviction is Caffeine's W-TinyLFU, so a burst of one-off lookups does
+ * not flush the accounts that are read constantly.
+ * <p>
+ * Transfers invalidate both parties once their transaction completes, committed or rolled
+ * back. A load that raced the commit is discarded by that invalidation, so an owner always
+ * reads their own completed transfers. {@code app.cache.accounts.ttl-seconds} only bounds
+ * staleness from writes that bypass {@link #invalidateAfterCompletion}.
+ * <p>
+ * Loads are read-only and may be served by a replica, except for accounts invalidated
+ * within the last {@code app.cache.accounts.primary-window-ms}: those reload from the
+ * primary, so a lagging replica cannot put the pre-transfer balance back in the cache.
+ * The window must exceed {@code app.datasource.max-lag-ms} plus the lag check interval.
+ * <p>
+ * Metrics: Caffeine's {@code cache.gets} (tagged hit/miss), {@code cache.evictions} and
+ * {@code cache.size} under {@code cache=accounts}, plus {@code banking.cache.accounts.age}
+ * (age of entries when served) and {@code banking.cache.accounts.invalidations}.
+ */
+@Component
+@RequiredArgsConstructor
+public class AccountCache {
+
+    private record Entry(UserResponse account, long loadedAtNanos) {
+    }
+
+    private final PlatformTransactionManager transactionManager;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.cache.accounts.max-size:100000}")
+    private long maxSize;
+
+    @Value("${app.cache.accounts.ttl-seconds:600}")
+    private long ttlSeconds;
+
+    @Value("${app.cache.accounts.primary-window-ms:10000}")
+    private long primaryWindowMs;
+
+    private Cache<Long, Entry> cache;
+    private Cache<Long, Boolean> recentlyWritten;
+    private TransactionTemplate readOnlyTemplate;
+    private TransactionTemplate primaryTemplate;
+    private Timer entryAge;
+    private Counter invalidations;
+
+    @PostConstruct
+    public void init() {
+        cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .build();
+        recentlyWritten = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofMillis(primaryWindowMs))
+                .build();
+        readOnlyTemplate = new TransactionTemplate(transactionManager);
+        readOnlyTemplate.setReadOnly(true);
+        primaryTemplate = new TransactionTemplate(transactionManager);
+
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "accounts");
+        entryAge = Timer.builder("banking.cache.accounts.age")
+                .description("Time since the served entry was loaded")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+        invalidations = Counter.builder("banking.cache.accounts.invalidations").register(meterRegistry);
+    }
+
+    /**
+     * The cached account, or the result of {@code loader} run in a read-only transaction
+     * (read-write, on the primary, if the account was written recently). Concurrent misses
+     * for one account share a single load. The returned object is shared; do not modify it.
+     */
+    public UserResponse get(Long accountId, Function<Long, UserResponse> loader) {
+        Entry entry = cache.get(accountId, id -> {
+            TransactionTemplate template = recentlyWritten.getIfPresent(id) != null ? primaryTemplate : readOnlyTemplate;
+            return template.execute(status -> new Entry(loader.apply(id), System.nanoTime()));
+        });
+        entryAge.record(System.nanoTime() - entry.loadedAtNanos(), TimeUnit.NANOSECONDS);
+        return entry.account();
+    }
+
+    /**
+     * Drops the accounts once the surrounding transaction completes, or right away outside
+     * one. Dropping before the commit would let a concurrent read cache the old balance again.
+     */
+    public void invalidateAfterCompletion(Collection<Long> accountIds) {
+        Set<Long> ids = new TreeSet<>(accountIds);
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            invalidate(ids);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                invalidate(ids);
+            }
+        });
+    }
+
+    private void invalidate(Set<Long> ids) {
+        // Marked first, so a load that misses right after the invalidation already goes to the primary
+        ids.forEach(id -> recentlyWritten.put(id, Boolean.TRUE));
+        cache.invalidateAll(ids);
+        invalidations.increment(ids.size());
+    }
+}
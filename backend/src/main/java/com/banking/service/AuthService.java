@@ -8,8 +8,10 @@ import com.banking.model.User;
 import com.banking.model.enums.UserRole;
 import com.banking.repository.UserRepository;
 import com.banking.security.JwtService;
+import com.banking.security.LoginAttemptService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -30,6 +32,7 @@ public class AuthService {
     private final JwtService jwtService;
     private final AuthenticationManager authenticationManager;
     private final UserDetailsServiceImpl userDetailsService;
+    private final LoginAttemptService loginAttemptService;
 
     @Transactional
     public AuthResponse register(RegisterRequest request) {
@@ -65,9 +68,19 @@ public class AuthService {
                 .build();
     }
 
-    public AuthResponse login(LoginRequest request) {
-        Authentication authentication = authenticationManager.authenticate(
-                new UsernamePasswordAuthenticationToken(request.getEmail(), request.getPassword()));
+    public AuthResponse login(LoginRequest request, String clientIp) {
+        // Throttled IPs and locked accounts are turned away before the password is hashed
+        loginAttemptService.checkAllowed(request.getEmail(), clientIp);
+
+        Authentication authentication;
+        try {
+            authentication = authenticationManager.authenticate(
+                    new UsernamePasswordAuthenticationToken(request.getEmail(), request.getPassword()));
+        } catch (BadCredentialsException e) {
+            loginAttemptService.loginFailed(request.getEmail(), clientIp);
+            throw e;
+        }
+        loginAttemptService.loginSucceeded(request.getEmail());
 
         SecurityContextHolder.getContext().setAuthentication(authentication);
         
@@ -0,0 +1,28 @@
+package com.banking.service;
+
+/**
+ * RFC 4180 field quoting for the CSV exports. Values a spreadsheet would read as a formula
+ * are prefixed with {@code '} so user-controlled names cannot inject one.
+ */
+final class Csv {
+
+    private Csv() {
+    }
+
+    static String field(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (!value.isEmpty() && isFormulaTrigger(value.charAt(0))) {
+            value = "'" + value;
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+
+    private static boolean isFormulaTrigger(char first) {
+        return first == '=' || first == '+' || first == '-' || first == '@' || first == '\t' || first == '\r';
+    }
+}
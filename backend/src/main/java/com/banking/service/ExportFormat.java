@@ -0,0 +1,32 @@
+package com.banking.service;
+
+import org.springframework.http.MediaType;
+
+/**
+ * Output formats of the streaming transaction export.
+ */
+public enum ExportFormat {
+
+    CSV(new MediaType("text", "csv"), "csv"),
+
+    /**
+     * One JSON object per line, shaped like {@link com.banking.dto.response.TransactionResponse}.
+     */
+    NDJSON(MediaType.APPLICATION_NDJSON, "ndjson");
+
+    private final MediaType mediaType;
+    private final String extension;
+
+    ExportFormat(MediaType mediaType, String extension) {
+        this.mediaType = mediaType;
+        this.extension = extension;
+    }
+
+    public MediaType getMediaType() {
+        return mediaType;
+    }
+
+    public String getExtension() {
+        return extension;
+    }
+}
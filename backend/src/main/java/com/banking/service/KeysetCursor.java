@@ -0,0 +1,51 @@
+package com.banking.service;
+
+import com.banking.exception.BadRequestException;
+
+import java.nio.ByteBuffer;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.Base64;
+
+/**
+ * Position in a newest-first listing ordered by (createdAt, id): the last row the client
+ * has seen. Sent to clients as an opaque 22-character base64url token carrying the
+ * timestamp in epoch microseconds and the id.
+ */
+public record KeysetCursor(LocalDateTime createdAt, long id) {
+
+    // Sorts after every real row, so the first page needs no special-cased query
+    public static final KeysetCursor START = new KeysetCursor(LocalDateTime.of(9999, 12, 31, 0, 0), Long.MAX_VALUE);
+
+    private static final LocalDateTime EPOCH = LocalDateTime.ofEpochSecond(0, 0, ZoneOffset.UTC);
+
+    public String encode() {
+        ByteBuffer buffer = ByteBuffer.allocate(16);
+        buffer.putLong(ChronoUnit.MICROS.between(EPOCH, createdAt));
+        buffer.putLong(id);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(buffer.array());
+    }
+
+    /**
+     * The cursor in {@code token}, or {@link #START} when it is null or blank.
+     *
+     * @throws BadRequestException if the token was not produced by {@link #encode()}
+     */
+    public static KeysetCursor decode(String token) {
+        if (token == null || token.isBlank()) {
+            return START;
+        }
+        byte[] bytes;
+        try {
+            bytes = Base64.getUrlDecoder().decode(token);
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException("Invalid cursor");
+        }
+        if (bytes.length != 16) {
+            throw new BadRequestException("Invalid cursor");
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        return new KeysetCursor(EPOCH.plus(buffer.getLong(), ChronoUnit.MICROS), buffer.getLong());
+    }
+}
@@ -0,0 +1,48 @@
+package com.banking.service;
+
+import com.banking.events.TransactionEvent;
+import com.banking.model.OutboxEvent;
+import com.banking.repository.OutboxEventRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Records transaction events in the outbox table as part of the caller's database
+ * transaction. {@link com.banking.producer.OutboxRelay} delivers them to Kafka.
+ */
+@Service
+@RequiredArgsConstructor
+public class OutboxService {
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final ObjectMapper objectMapper;
+
+    @Value("${app.kafka.topics.transactions}")
+    private String transactionsTopic;
+
+    public void enqueue(List<TransactionEvent> events) {
+        List<OutboxEvent> rows = new ArrayList<>(events.size());
+        for (TransactionEvent event : events) {
+            rows.add(OutboxEvent.builder()
+                    .topic(transactionsTopic)
+                    .eventKey(String.valueOf(event.getSenderId()))
+                    .payload(serialize(event))
+                    .build());
+        }
+        outboxEventRepository.saveAll(rows);
+    }
+
+    private String serialize(TransactionEvent event) {
+        try {
+            return objectMapper.writeValueAsString(event);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot serialize transaction event " + event.getTransactionId(), e);
+        }
+    }
+}
@@ -0,0 +1,255 @@
+package com.banking.service;
+
+import com.banking.model.Transaction;
+import com.banking.model.enums.TransactionStatus;
+import com.banking.repository.TransactionRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * Completes PENDING transactions on {@code app.pending.workers} threads. Each cycle claims
+ * up to {@code app.pending.chunk-size} of the oldest rows with SKIP LOCKED and completes
+ * them in one transaction, so workers on any number of nodes drain disjoint chunks and a
+ * backlog never has to fit in memory at once. The transaction comes from
+ * {@link TransferExecutor}, so {@code app.transfer.locking-mode} applies as it does to live
+ * transfers, OPTIMISTIC retries included. When a chunk fails, its rows are retried one per
+ * transaction, so one bad row cannot hold back the rows claimed with it; a row that still
+ * fails after {@code app.pending.max-attempts} tries is marked FAILED. Workers start once the context is refreshed and stop
+ * before any bean is destroyed.
+ * <p>
+ * Metrics: {@code banking.pending.backlog} (PENDING rows at the last count),
+ * {@code banking.pending.lag} (age of the oldest row at the last claim),
+ * {@code banking.pending.chunk.size}, {@code banking.pending.processed} tagged with the
+ * outcome (its rate is the drain rate) and {@code banking.pending.failures}.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class PendingTransactionProcessor implements SmartLifecycle {
+
+    private final TransactionRepository transactionRepository;
+    private final TransactionService transactionService;
+    private final TransferExecutor transferExecutor;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.pending.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.pending.workers:4}")
+    private int workers;
+
+    @Value("${app.pending.chunk-size:100}")
+    private int chunkSize;
+
+    @Value("${app.pending.poll-interval-ms:1000}")
+    private long pollIntervalMs;
+
+    @Value("${app.pending.max-attempts:3}")
+    private int maxAttempts;
+
+    private final AtomicLong backlog = new AtomicLong();
+    private final AtomicLong lagMillis = new AtomicLong();
+    private DistributionSummary chunkSizeSummary;
+    private Counter completedCounter;
+    private Counter failedCounter;
+    private Counter failureCounter;
+    private ExecutorService workerPool;
+    private volatile boolean running;
+
+    @PostConstruct
+    public void init() {
+        Gauge.builder("banking.pending.backlog", backlog, AtomicLong::get)
+                .description("PENDING transactions at the last count")
+                .register(meterRegistry);
+        Gauge.builder("banking.pending.lag", lagMillis, AtomicLong::get)
+                .description("Age in milliseconds of the oldest PENDING transaction at the last claim")
+                .baseUnit("milliseconds")
+                .register(meterRegistry);
+        chunkSizeSummary = DistributionSummary.builder("banking.pending.chunk.size")
+                .description("PENDING transactions claimed per cycle")
+                .register(meterRegistry);
+        completedCounter = Counter.builder("banking.pending.processed").tag("outcome", "completed").register(meterRegistry);
+        failedCounter = Counter.builder("banking.pending.processed").tag("outcome", "failed").register(meterRegistry);
+        failureCounter = Counter.builder("banking.pending.failures")
+                .description("Chunks rolled back, to be claimed again")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        running = true;
+        AtomicInteger threadNumber = new AtomicInteger();
+        workerPool = Executors.newFixedThreadPool(workers, runnable -> {
+            Thread thread = new Thread(runnable, "pending-worker-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        for (int i = 0; i < workers; i++) {
+            workerPool.submit(this::run);
+        }
+        log.info("Processing pending transactions on {} workers in chunks of {}", workers, chunkSize);
+    }
+
+    @Override
+    public void stop() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        workerPool.shutdownNow();
+        try {
+            workerPool.awaitTermination(30, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Claims and completes one chunk in a single transaction, falling back to one
+     * transaction per row if the chunk fails.
+     *
+     * @return the number of transactions claimed
+     */
+    public int drainOnce() {
+        List<Long> claimedIds = new ArrayList<>();
+        List<Transaction> chunk;
+        try {
+            chunk = completeChunk(claimedIds);
+        } catch (RuntimeException e) {
+            if (claimedIds.isEmpty()) {
+                throw e;
+            }
+            failureCounter.increment();
+            log.warn("Pending chunk of {} rolled back, completing its rows one by one: {}",
+                    claimedIds.size(), e.getMessage());
+            chunk = new ArrayList<>(claimedIds.size());
+            for (Long id : claimedIds) {
+                Transaction transaction = completeAlone(id);
+                if (transaction != null) {
+                    chunk.add(transaction);
+                }
+            }
+        }
+
+        // Counted once committed, so a rolled back chunk is not counted twice
+        for (Transaction transaction : chunk) {
+            if (transaction.getStatus() == TransactionStatus.COMPLETED) {
+                completedCounter.increment();
+            } else if (transaction.getStatus() == TransactionStatus.FAILED) {
+                failedCounter.increment();
+            }
+        }
+        return claimedIds.size();
+    }
+
+    private List<Transaction> completeChunk(List<Long> claimedIds) {
+        // Row locks come from the claim and, in ORDERED mode, lockAccounts; users.version catches the rest
+        return transferExecutor.execute(status -> {
+            List<Transaction> claimed = transactionRepository.claimPending(chunkSize);
+            // Replaced on each OPTIMISTIC retry, so a failure reports what the last attempt claimed
+            claimedIds.clear();
+            claimed.forEach(transaction -> claimedIds.add(transaction.getId()));
+            if (claimed.isEmpty()) {
+                lagMillis.set(0);
+                return claimed;
+            }
+            chunkSizeSummary.record(claimed.size());
+            LocalDateTime oldest = claimed.get(0).getCreatedAt();
+            if (oldest != null) {
+                lagMillis.set(Math.max(0, Duration.between(oldest, LocalDateTime.now()).toMillis()));
+            }
+
+            transferExecutor.lockAccounts(claimed.stream()
+                    .flatMap(transaction -> Stream.of(transaction.getSender().getId(), transaction.getReceiver().getId()))
+                    .toArray(Long[]::new));
+            claimed.forEach(transactionService::completeTransaction);
+            return claimed;
+        });
+    }
+
+    /**
+     * Completes one row in its own transaction, marking it FAILED once it has failed
+     * {@code maxAttempts} times.
+     *
+     * @return the row, or null if another worker took it or it is no longer PENDING
+     */
+    private Transaction completeAlone(Long id) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return transferExecutor.execute(status -> transactionRepository.claimPendingById(id)
+                        .map(transaction -> {
+                            transferExecutor.lockAccounts(transaction.getSender().getId(), transaction.getReceiver().getId());
+                            transactionService.completeTransaction(transaction);
+                            return transaction;
+                        })
+                        .orElse(null));
+            } catch (RuntimeException e) {
+                if (attempt >= maxAttempts) {
+                    log.error("Pending transaction {} failed {} times, marking it FAILED: {}", id, attempt, e.getMessage());
+                    return transferExecutor.execute(status -> transactionRepository.claimPendingById(id)
+                            .map(transaction -> {
+                                transactionService.failTransaction(transaction);
+                                return transaction;
+                            })
+                            .orElse(null));
+                }
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.pending.backlog-refresh-ms:10000}")
+    public void refreshBacklog() {
+        backlog.set(transactionRepository.countByStatus(TransactionStatus.PENDING));
+    }
+
+    private void run() {
+        while (running) {
+            try {
+                // Keep draining while chunks come back full; back off only when caught up
+                if (drainOnce() < chunkSize) {
+                    Thread.sleep(pollIntervalMs);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                failureCounter.increment();
+                log.error("Pending transaction chunk failed: {}", e.getMessage());
+                try {
+                    Thread.sleep(pollIntervalMs);
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+}
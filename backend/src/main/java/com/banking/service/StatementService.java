@@ -0,0 +1,234 @@
+package com.banking.service;
+
+import com.banking.dto.response.StatementResponse;
+import com.banking.ledger.LedgerEngine;
+import com.banking.model.AccountDailyBalance;
+import com.banking.model.Transaction;
+import com.banking.model.enums.TransactionStatus;
+import com.banking.repository.AccountDailyBalanceRepository;
+import com.banking.repository.TransactionRepository;
+import com.banking.repository.TransactionRepository.TransactionHistoryView;
+import com.banking.repository.UserRepository;
+import com.banking.security.UserDetailsImpl;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+
+/**
+ * Balances as of a point in time and monthly statements, served from the daily closes in
+ * {@code account_daily_balances} plus a scan of at most one day of transfers.
+ * <p>
+ * The closes are kept current by {@link #recordCompleted}, which the transfer paths call in
+ * the transaction that moves the balances. A transfer belongs to the day of its
+ * {@code createdAt}, the same timestamp history and statements are ordered by. A new close
+ * is derived from the neighbouring close and the {@code transactions} rows, never from the
+ * ledger, whose in-memory balances may not yet include this transaction's credits or may
+ * include other transactions' uncommitted debits.
+ */
+@Service
+@RequiredArgsConstructor
+public class StatementService {
+
+    private static final String CSV_HEADER = "id,created_at,counterparty_id,counterparty_name,direction,amount,balance\n";
+
+    private final AccountDailyBalanceRepository dailyBalanceRepository;
+    private final TransactionRepository transactionRepository;
+    private final UserRepository userRepository;
+    private final LedgerEngine ledgerEngine;
+    private final PlatformTransactionManager transactionManager;
+
+    @Value("${app.statements.export-chunk-size:5000}")
+    private int exportChunkSize;
+
+    private TransactionTemplate committedRead;
+
+    @PostConstruct
+    public void init() {
+        committedRead = new TransactionTemplate(transactionManager);
+        committedRead.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * Folds completed transfers into the daily closes of both parties. Must run after the
+     * ledger transfer and after the rows were persisted, in the same transaction.
+     */
+    public void recordCompleted(Collection<Transaction> transactions) {
+        // Netted per account and day; ascending account order keeps row locks consistent
+        Map<Long, Map<LocalDate, BigDecimal>> deltas = new TreeMap<>();
+        for (Transaction transaction : transactions) {
+            if (transaction.getStatus() != TransactionStatus.COMPLETED) {
+                continue;
+            }
+            LocalDate day = transaction.getCreatedAt() != null
+                    ? transaction.getCreatedAt().toLocalDate()
+                    : LocalDate.now();
+            deltas.computeIfAbsent(transaction.getSender().getId(), id -> new TreeMap<>())
+                    .merge(day, transaction.getAmount().negate(), BigDecimal::add);
+            deltas.computeIfAbsent(transaction.getReceiver().getId(), id -> new TreeMap<>())
+                    .merge(day, transaction.getAmount(), BigDecimal::add);
+        }
+
+        LocalDate today = LocalDate.now();
+        deltas.forEach((accountId, byDay) -> byDay.forEach((day, delta) -> {
+            if (delta.signum() == 0) {
+                return;
+            }
+            // The common case, an account's second and later transfers of the day, costs one update
+            if (dailyBalanceRepository.addDelta(accountId, day, delta) == 0) {
+                dailyBalanceRepository.applyDelta(accountId, day, closingIfNew(accountId, day), delta);
+            }
+            if (day.isBefore(today)) {
+                // Booked to a past day: later closes move too
+                dailyBalanceRepository.shiftAfter(accountId, day, delta);
+            }
+        }));
+    }
+
+    /**
+     * Balance of the account just before {@code at}: the previous day's close plus the
+     * transfers booked earlier on the same day.
+     */
+    @Transactional(readOnly = true)
+    public BigDecimal getBalanceAsOf(Long accountId, LocalDateTime at) {
+        LocalDate day = at.toLocalDate();
+        Optional<AccountDailyBalance> previousClose =
+                dailyBalanceRepository.findFirstByUserIdAndBalanceDateLessThanOrderByBalanceDateDesc(accountId, day);
+        if (previousClose.isPresent()) {
+            return previousClose.get().getClosingBalance().add(netChange(accountId, day.atStartOfDay(), at));
+        }
+        // Before the first close: walk back from it. No close at all means the balance never moved
+        return dailyBalanceRepository.findFirstByUserIdAndBalanceDateGreaterThanEqualOrderByBalanceDateAsc(accountId, day)
+                .map(close -> close.getClosingBalance()
+                        .subtract(netChange(accountId, at, close.getBalanceDate().plusDays(1).atStartOfDay())))
+                .orElseGet(() -> ledgerEngine.getBalance(accountId));
+    }
+
+    @Transactional(readOnly = true)
+    public BigDecimal getBalanceAsOf(LocalDateTime at) {
+        return getBalanceAsOf(currentUserId(), at);
+    }
+
+    @Transactional(readOnly = true)
+    public StatementResponse getMonthlyStatement(YearMonth month) {
+        Long accountId = currentUserId();
+        LocalDateTime start = month.atDay(1).atStartOfDay();
+        LocalDateTime end = month.plusMonths(1).atDay(1).atStartOfDay();
+
+        return StatementResponse.builder()
+                .accountId(accountId)
+                .month(month)
+                .openingBalance(getBalanceAsOf(accountId, start))
+                .totalCredits(transactionRepository.getTotalReceivedAmountByUserAndDateRange(accountId, start, end))
+                .totalDebits(transactionRepository.getTotalSentAmountByUserAndDateRange(accountId, start, end))
+                .closingBalance(getBalanceAsOf(accountId, end))
+                .build();
+    }
+
+    /**
+     * The month's completed transfers as CSV with a running balance. Rows are read in keyset
+     * chunks of {@code app.statements.export-chunk-size}, each its own short query, so memory
+     * stays flat and no connection is held while the client reads.
+     */
+    public StreamingResponseBody exportMonthlyStatement(YearMonth month) {
+        // Resolved here: the body is written on an async thread without the security context
+        Long accountId = currentUserId();
+        LocalDateTime start = month.atDay(1).atStartOfDay();
+        LocalDateTime end = month.plusMonths(1).atDay(1).atStartOfDay();
+        BigDecimal opening = getBalanceAsOf(accountId, start);
+        return out -> writeStatement(accountId, start, end, opening, out);
+    }
+
+    void writeStatement(Long accountId, LocalDateTime start, LocalDateTime end, BigDecimal opening,
+                        OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 64 * 1024);
+        writer.write(CSV_HEADER);
+
+        BigDecimal balance = opening;
+        LocalDateTime createdAt = start;
+        long id = Long.MIN_VALUE;
+        List<TransactionHistoryView> chunk;
+        do {
+            chunk = transactionRepository.findStatementChunk(accountId, createdAt, id, end, exportChunkSize);
+            for (TransactionHistoryView row : chunk) {
+                boolean credit = row.getReceiverId().equals(accountId);
+                balance = credit ? balance.add(row.getAmount()) : balance.subtract(row.getAmount());
+                writer.write(String.valueOf(row.getId()));
+                writer.write(',');
+                writer.write(row.getCreatedAt().toString());
+                writer.write(',');
+                writer.write(String.valueOf(credit ? row.getSenderId() : row.getReceiverId()));
+                writer.write(',');
+                writer.write(Csv.field(credit ? row.getSenderName() : row.getReceiverName()));
+                writer.write(credit ? ",CREDIT," : ",DEBIT,");
+                writer.write(row.getAmount().toPlainString());
+                writer.write(',');
+                writer.write(balance.toPlainString());
+                writer.write('\n');
+            }
+            if (!chunk.isEmpty()) {
+                TransactionHistoryView last = chunk.get(chunk.size() - 1);
+                createdAt = last.getCreatedAt();
+                id = last.getId();
+            }
+            writer.flush();
+        } while (chunk.size() == exportChunkSize);
+    }
+
+    /**
+     * Close of a day that has no row yet, including this transaction's transfers, which the
+     * sums below see through the auto-flush.
+     */
+    private BigDecimal closingIfNew(Long accountId, LocalDate day) {
+        LocalDateTime endOfDay = day.plusDays(1).atStartOfDay();
+        Optional<AccountDailyBalance> previousClose =
+                dailyBalanceRepository.findFirstByUserIdAndBalanceDateLessThanOrderByBalanceDateDesc(accountId, day);
+        if (previousClose.isPresent()) {
+            return previousClose.get().getClosingBalance()
+                    .add(netChange(accountId, previousClose.get().getBalanceDate().plusDays(1).atStartOfDay(), endOfDay));
+        }
+        Optional<AccountDailyBalance> nextClose =
+                dailyBalanceRepository.findFirstByUserIdAndBalanceDateGreaterThanEqualOrderByBalanceDateAsc(accountId, day);
+        if (nextClose.isPresent()) {
+            return nextClose.get().getClosingBalance()
+                    .subtract(netChange(accountId, endOfDay, nextClose.get().getBalanceDate().plusDays(1).atStartOfDay()));
+        }
+        // No close at all, so no committed transfer has moved the stored balance yet. It is read in
+        // a transaction of its own, which sees it before this transaction's changes
+        BigDecimal opening = committedRead.execute(status -> userRepository.findBalanceById(accountId))
+                .orElse(BigDecimal.ZERO);
+        return opening.add(netChange(accountId, day.atStartOfDay(), endOfDay));
+    }
+
+    private BigDecimal netChange(Long accountId, LocalDateTime from, LocalDateTime to) {
+        return transactionRepository.getTotalReceivedAmountByUserAndDateRange(accountId, from, to)
+                .subtract(transactionRepository.getTotalSentAmountByUserAndDateRange(accountId, from, to));
+    }
+
+    private static Long currentUserId() {
+        UserDetailsImpl userDetails = (UserDetailsImpl) SecurityContextHolder.getContext().getAuthentication().getPrincipal();
+        return userDetails.getId();
+    }
+}
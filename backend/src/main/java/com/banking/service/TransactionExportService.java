@@ -0,0 +1,152 @@
+package com.banking.service;
+
+import com.banking.dto.response.TransactionResponse;
+import com.banking.repository.TransactionRepository;
+import com.banking.repository.TransactionRepository.TransactionHistoryView;
+import com.banking.security.UserDetailsImpl;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * Full transaction history as CSV or NDJSON, written straight from a forward-only JDBC
+ * cursor to the response. Rows are read as projections with the names already joined, so
+ * nothing accumulates in the persistence context and heap use does not depend on the
+ * number of rows.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class TransactionExportService {
+
+    private static final String CSV_HEADER = "id,created_at,sender_id,sender_name,receiver_id,receiver_name,amount,status,flagged\n";
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final TransactionRepository transactionRepository;
+    private final PlatformTransactionManager transactionManager;
+    private final ObjectMapper objectMapper;
+
+    private TransactionTemplate readOnlyTemplate;
+
+    @PostConstruct
+    public void init() {
+        readOnlyTemplate = new TransactionTemplate(transactionManager);
+        readOnlyTemplate.setReadOnly(true);
+    }
+
+    public StreamingResponseBody exportCurrentUser(ExportFormat format) {
+        // Resolved here: the body is written on an async thread without the security context
+        UserDetailsImpl userDetails = (UserDetailsImpl) SecurityContextHolder.getContext().getAuthentication().getPrincipal();
+        Long userId = userDetails.getId();
+        return out -> export(() -> transactionRepository.streamUserTransactions(userId), format, out);
+    }
+
+    public StreamingResponseBody exportAll(ExportFormat format) {
+        return out -> export(transactionRepository::streamAllTransactions, format, out);
+    }
+
+    /**
+     * Holds one connection for the duration of the export; the cursor only lives as long as
+     * its transaction.
+     */
+    private void export(Supplier<Stream<TransactionHistoryView>> query, ExportFormat format, OutputStream out) {
+        long started = System.nanoTime();
+        Long written = readOnlyTemplate.execute(status -> {
+            try (Stream<TransactionHistoryView> rows = query.get()) {
+                return write(rows, format, out);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        log.info("Exported {} transactions as {} in {} ms", written, format,
+                (System.nanoTime() - started) / 1_000_000);
+    }
+
+    /**
+     * @return the number of rows written
+     */
+    long write(Stream<TransactionHistoryView> rows, ExportFormat format, OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), BUFFER_SIZE);
+        long count = 0;
+        Iterator<TransactionHistoryView> iterator = rows.iterator();
+        if (format == ExportFormat.CSV) {
+            writer.write(CSV_HEADER);
+            while (iterator.hasNext()) {
+                writeCsv(iterator.next(), writer);
+                count++;
+            }
+            writer.flush();
+            return count;
+        }
+
+        // The sequence writer owns the Writer; closing it flushes without closing the response
+        try (SequenceWriter json = objectMapper.writerFor(TransactionResponse.class)
+                .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                .withRootValueSeparator("\n")
+                .writeValues(writer)) {
+            while (iterator.hasNext()) {
+                json.write(toResponse(iterator.next()));
+                count++;
+            }
+        }
+        if (count > 0) {
+            writer.write('\n');
+        }
+        writer.flush();
+        return count;
+    }
+
+    private static void writeCsv(TransactionHistoryView row, Writer writer) throws IOException {
+        writer.write(String.valueOf(row.getId()));
+        writer.write(',');
+        writer.write(String.valueOf(row.getCreatedAt()));
+        writer.write(',');
+        writer.write(String.valueOf(row.getSenderId()));
+        writer.write(',');
+        writer.write(Csv.field(row.getSenderName()));
+        writer.write(',');
+        writer.write(String.valueOf(row.getReceiverId()));
+        writer.write(',');
+        writer.write(Csv.field(row.getReceiverName()));
+        writer.write(',');
+        writer.write(row.getAmount().toPlainString());
+        writer.write(',');
+        writer.write(String.valueOf(row.getStatus()));
+        writer.write(',');
+        writer.write(Boolean.TRUE.equals(row.getFlagged()) ? "true" : "false");
+        writer.write('\n');
+    }
+
+    private static TransactionResponse toResponse(TransactionHistoryView row) {
+        return TransactionResponse.builder()
+                .id(row.getId())
+                .senderId(row.getSenderId())
+                .senderName(row.getSenderName())
+                .receiverId(row.getReceiverId())
+                .receiverName(row.getReceiverName())
+                .amount(row.getAmount())
+                .status(row.getStatus())
+                .isFlagged(Boolean.TRUE.equals(row.getFlagged()))
+                .createdAt(row.getCreatedAt())
+                .build();
+    }
+}
@@ -1,10 +1,16 @@
 package com.banking.service;
 
+import com.banking.dto.request.BatchTransferRequest;
 import com.banking.dto.request.TransferRequest;
+import com.banking.dto.response.BatchTransferLineResponse;
+import com.banking.dto.response.BatchTransferResponse;
+import com.banking.dto.response.CursorPageResponse;
 import com.banking.dto.response.TransactionResponse;
 import com.banking.events.TransactionEvent;
 import com.banking.exception.BadRequestException;
 import com.banking.exception.InsufficientBalanceException;
+import com.banking.exception.ResourceNotFoundException;
+import com.banking.ledger.LedgerEngine;
 import com.banking.model.Transaction;
 import com.banking.model.User;
 import com.banking.model.enums.TransactionStatus;
@@ -13,19 +19,24 @@ import com.banking.repository.UserRepository;
 import com.banking.security.UserDetailsImpl;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
-import org.springframework.kafka.core.KafkaTemplate;
-import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Isolation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Slf4j
 @Service
@@ -34,13 +45,23 @@ public class TransactionService {
 
     private final TransactionRepository transactionRepository;
     private final UserRepository userRepository;
-    private final KafkaTemplate<String, TransactionEvent> kafkaTemplate;
+    private final LedgerEngine ledgerEngine;
+    private final TransferExecutor transferExecutor;
+    private final OutboxService outboxService;
+    private final VelocityTracker velocityTracker;
+    private final StatementService statementService;
+    private final AccountCache accountCache;
+
+    @Value("${app.fraud.suspicious-amount:10000}")
+    private BigDecimal suspiciousAmount;
+
+    @Value("${app.fraud.velocity.tracker-enabled:true}")
+    private boolean velocityTrackerEnabled;
     
-    private static final BigDecimal SUSPICIOUS_AMOUNT = new BigDecimal("10000");
     private static final int TRANSACTIONS_THRESHOLD = 5;
     private static final int TIME_WINDOW_MINUTES = 10;
+    private static final int MAX_HISTORY_PAGE_SIZE = 100;
 
-    @Transactional(isolation = Isolation.SERIALIZABLE)
     public TransactionResponse transferMoney(TransferRequest transferRequest) {
         UserDetailsImpl userDetails = (UserDetailsImpl) SecurityContextHolder.getContext().getAuthentication().getPrincipal();
         
@@ -49,7 +70,13 @@ public class TransactionService {
             throw new BadRequestException("Cannot transfer money to yourself");
         }
 
-        User sender = userRepository.findById(userDetails.getId())
+        return transferExecutor.execute(status -> executeTransfer(userDetails.getId(), transferRequest));
+    }
+
+    private TransactionResponse executeTransfer(Long senderId, TransferRequest transferRequest) {
+        transferExecutor.lockAccounts(senderId, transferRequest.getReceiverId());
+
+        User sender = userRepository.findById(senderId)
                 .orElseThrow(() -> new BadRequestException("Sender not found"));
         
         User receiver = userRepository.findById(transferRequest.getReceiverId())
@@ -58,12 +85,12 @@ public class TransactionService {
         BigDecimal amount = transferRequest.getAmount();
         
         // Check if sender has sufficient balance
-        if (sender.getBalance().compareTo(amount) < 0) {
+        if (ledgerEngine.getBalance(sender.getId()).compareTo(amount) < 0) {
             throw new InsufficientBalanceException("Insufficient balance");
         }
         
         // Check for suspicious activity
-        boolean isSuspicious = amount.compareTo(SUSPICIOUS_AMOUNT) > 0 || 
+        boolean isSuspicious = Transaction.isSuspiciousAmount(amount, suspiciousAmount) || 
                 checkForSuspiciousActivity(sender, amount);
         
         // Create and save transaction
@@ -76,6 +103,7 @@ public class TransactionService {
                 .build();
         
         transaction = transactionRepository.save(transaction);
+        velocityTracker.record(sender.getId(), 1);
         
         // Process the transaction
         if (!isSuspicious) {
@@ -88,14 +116,141 @@ public class TransactionService {
         return mapToTransactionResponse(transaction);
     }
     
+    /**
+     * Executes many transfers from the current user in one database transaction. Receivers
+     * are loaded with a single query, the total is checked against the balance once and
+     * the transaction rows are inserted as a JDBC batch. Lines with an unknown receiver are
+     * rejected individually; an insufficient balance rejects the whole batch.
+     */
+    public BatchTransferResponse transferBatch(BatchTransferRequest batchRequest) {
+        UserDetailsImpl userDetails = (UserDetailsImpl) SecurityContextHolder.getContext().getAuthentication().getPrincipal();
+        return transferExecutor.execute(status -> executeBatchTransfer(userDetails.getId(), batchRequest.getTransfers()));
+    }
+
+    private BatchTransferResponse executeBatchTransfer(Long senderId, List<TransferRequest> lines) {
+        Set<Long> receiverIds = lines.stream()
+                .map(TransferRequest::getReceiverId)
+                .filter(receiverId -> !receiverId.equals(senderId))
+                .collect(Collectors.toSet());
+
+        Set<Long> accountIds = new HashSet<>(receiverIds);
+        accountIds.add(senderId);
+        transferExecutor.lockAccounts(accountIds.toArray(Long[]::new));
+
+        User sender = userRepository.findById(senderId)
+                .orElseThrow(() -> new BadRequestException("Sender not found"));
+        Map<Long, User> receivers = userRepository.findAllById(receiverIds).stream()
+                .collect(Collectors.toMap(User::getId, Function.identity()));
+
+        // The whole batch counts as one submission for the velocity check
+        boolean velocitySuspicious = checkForSuspiciousActivity(sender, BigDecimal.ZERO);
+
+        List<BatchTransferLineResponse> results = new ArrayList<>(lines.size());
+        List<Transaction> transactions = new ArrayList<>(lines.size());
+        BigDecimal totalDebited = BigDecimal.ZERO;
+
+        for (int i = 0; i < lines.size(); i++) {
+            TransferRequest line = lines.get(i);
+            BatchTransferLineResponse result = BatchTransferLineResponse.builder()
+                    .line(i)
+                    .receiverId(line.getReceiverId())
+                    .amount(line.getAmount())
+                    .build();
+            results.add(result);
+
+            User receiver = receivers.get(line.getReceiverId());
+            if (line.getReceiverId().equals(senderId)) {
+                result.setError("Cannot transfer money to yourself");
+                continue;
+            }
+            if (receiver == null) {
+                result.setError("Receiver not found");
+                continue;
+            }
+
+            boolean isSuspicious = velocitySuspicious || Transaction.isSuspiciousAmount(line.getAmount(), suspiciousAmount);
+            if (!isSuspicious) {
+                totalDebited = totalDebited.add(line.getAmount());
+            }
+            transactions.add(Transaction.builder()
+                    .sender(sender)
+                    .receiver(receiver)
+                    .amount(line.getAmount())
+                    .status(isSuspicious ? TransactionStatus.FLAGGED : TransactionStatus.COMPLETED)
+                    .isFlagged(isSuspicious)
+                    .build());
+        }
+
+        if (ledgerEngine.getBalance(senderId).compareTo(totalDebited) < 0) {
+            throw new InsufficientBalanceException("Insufficient balance for batch total " + totalDebited);
+        }
+
+        // Ids come from the pooled generator, so these inserts are flushed as JDBC batches at commit
+        // while the ledger already has the ids to journal against
+        transactionRepository.saveAll(transactions);
+        for (Transaction transaction : transactions) {
+            if (transaction.getStatus() == TransactionStatus.COMPLETED) {
+                ledgerEngine.transfer(transaction.getId(), senderId, transaction.getReceiver().getId(),
+                        transaction.getAmount());
+            }
+        }
+        statementService.recordCompleted(transactions);
+        accountCache.invalidateAfterCompletion(transactions.stream()
+                .filter(transaction -> transaction.getStatus() == TransactionStatus.COMPLETED)
+                .flatMap(transaction -> Stream.of(senderId, transaction.getReceiver().getId()))
+                .toList());
+        if (!transactions.isEmpty()) {
+            velocityTracker.record(senderId, 1);
+        }
+
+        int completed = 0;
+        int flagged = 0;
+        int rejected = 0;
+        Iterator<Transaction> saved = transactions.iterator();
+        for (BatchTransferLineResponse result : results) {
+            if (result.getError() != null) {
+                rejected++;
+                continue;
+            }
+            Transaction transaction = saved.next();
+            result.setTransactionId(transaction.getId());
+            result.setStatus(transaction.getStatus());
+            if (transaction.isFlagged()) {
+                flagged++;
+            } else {
+                completed++;
+            }
+        }
+
+        publishTransactionEvents(transactions.stream()
+                .map(transaction -> buildTransactionEvent(transaction, transaction.getStatus().name()))
+                .toList());
+
+        return BatchTransferResponse.builder()
+                .completed(completed)
+                .flagged(flagged)
+                .rejected(rejected)
+                .totalDebited(totalDebited)
+                .results(results)
+                .build();
+    }
+    
     private boolean checkForSuspiciousActivity(User sender, BigDecimal amount) {
         // Check for multiple transactions in a short time
+        if (velocityTrackerEnabled) {
+            return velocityTracker.count(sender.getId()) >= TRANSACTIONS_THRESHOLD;
+        }
         LocalDateTime tenMinutesAgo = LocalDateTime.now().minusMinutes(TIME_WINDOW_MINUTES);
         long recentTransactions = transactionRepository.countBySenderAndCreatedAtAfter(sender, tenMinutesAgo);
         
         return recentTransactions >= TRANSACTIONS_THRESHOLD;
     }
     
+    /**
+     * Moves the money for a PENDING transaction, or marks it FAILED when the sender cannot
+     * cover it or an account is gone. The status check makes a second call a no-op; callers
+     * outside a transfer must hold the row lock, as {@link PendingTransactionProcessor} does.
+     */
     @Transactional
     public void completeTransaction(Transaction transaction) {
         if (transaction.getStatus() != TransactionStatus.PENDING) {
@@ -104,23 +259,24 @@ public class TransactionService {
         
         try {
             // Perform the transfer
-            User sender = transaction.getSender();
-            User receiver = transaction.getReceiver();
-            BigDecimal amount = transaction.getAmount();
-            
-            sender.setBalance(sender.getBalance().subtract(amount));
-            receiver.setBalance(receiver.getBalance().add(amount));
-            
-            userRepository.save(sender);
-            userRepository.save(receiver);
+            ledgerEngine.transfer(
+                    transaction.getId(),
+                    transaction.getSender().getId(),
+                    transaction.getReceiver().getId(),
+                    transaction.getAmount());
             
             transaction.setStatus(TransactionStatus.COMPLETED);
             transactionRepository.save(transaction);
+            statementService.recordCompleted(List.of(transaction));
+            accountCache.invalidateAfterCompletion(List.of(
+                    transaction.getSender().getId(), transaction.getReceiver().getId()));
             
             // Publish transaction event
             publishTransactionEvent(transaction, "COMPLETED");
             
-        } catch (Exception e) {
+        } catch (InsufficientBalanceException | ResourceNotFoundException e) {
+            // Only failures raised before anything moved; anything else, notably an optimistic
+            // lock conflict surfacing at flush, rolls back so TransferExecutor can retry it
             log.error("Error processing transaction: {}", e.getMessage());
             transaction.setStatus(TransactionStatus.FAILED);
             transactionRepository.save(transaction);
@@ -130,6 +286,20 @@ public class TransactionService {
         }
     }
     
+    /**
+     * Marks a PENDING transaction FAILED without moving any money, for one that cannot be
+     * completed. Same locking contract as {@link #completeTransaction}.
+     */
+    @Transactional
+    public void failTransaction(Transaction transaction) {
+        if (transaction.getStatus() != TransactionStatus.PENDING) {
+            return;
+        }
+        transaction.setStatus(TransactionStatus.FAILED);
+        transactionRepository.save(transaction);
+        publishTransactionEvent(transaction, "FAILED");
+    }
+
     private void notifySuspiciousTransaction(Transaction transaction) {
         transaction.setStatus(TransactionStatus.FLAGGED);
         transactionRepository.save(transaction);
@@ -139,7 +309,11 @@ public class TransactionService {
     }
     
     private void publishTransactionEvent(Transaction transaction, String status) {
-        TransactionEvent event = TransactionEvent.builder()
+        publishTransactionEvents(List.of(buildTransactionEvent(transaction, status)));
+    }
+
+    private TransactionEvent buildTransactionEvent(Transaction transaction, String status) {
+        return TransactionEvent.builder()
                 .transactionId(transaction.getId())
                 .senderId(transaction.getSender().getId())
                 .receiverId(transaction.getReceiver().getId())
@@ -148,28 +322,62 @@ public class TransactionService {
                 .timestamp(LocalDateTime.now())
                 .isSuspicious(transaction.isFlagged())
                 .build();
-        
-        kafkaTemplate.send("banking.transactions", event);
+    }
+
+    private void publishTransactionEvents(List<TransactionEvent> events) {
+        // Written to the outbox in the current transaction; OutboxRelay sends them once committed
+        outboxService.enqueue(events);
     }
     
+    @Transactional(readOnly = true)
     public Page<TransactionResponse> getTransactionHistory(Pageable pageable) {
         UserDetailsImpl userDetails = (UserDetailsImpl) SecurityContextHolder.getContext().getAuthentication().getPrincipal();
-        User user = userRepository.findById(userDetails.getId())
-                .orElseThrow(() -> new BadRequestException("User not found"));
-        
-        return transactionRepository.findUserTransactions(
-                user, null, null, null, pageable)
-                .map(this::mapToTransactionResponse);
+        return transactionRepository.findUserTransactions(userDetails.getId(), null, null, null, pageable);
     }
-    
-    @Scheduled(fixedRate = 60000) // Run every minute
-    public void processPendingTransactions() {
-        List<Transaction> pendingTransactions = transactionRepository
-                .findByStatus(TransactionStatus.PENDING);
-        
-        pendingTransactions.forEach(this::completeTransaction);
+
+    /**
+     * Keyset-paginated history of the current user, newest first. Pages cost the same at
+     * any depth and no total count is computed.
+     */
+    @Transactional(readOnly = true)
+    public CursorPageResponse<TransactionResponse> getTransactionHistory(String cursor, int size, TransactionStatus status) {
+        UserDetailsImpl userDetails = (UserDetailsImpl) SecurityContextHolder.getContext().getAuthentication().getPrincipal();
+        int pageSize = Math.max(1, Math.min(size, MAX_HISTORY_PAGE_SIZE));
+        KeysetCursor position = KeysetCursor.decode(cursor);
+
+        // One extra row tells whether another page exists
+        List<TransactionRepository.TransactionHistoryView> rows = transactionRepository.findHistoryPage(
+                userDetails.getId(), position.createdAt(), position.id(),
+                status == null ? null : status.name(), pageSize + 1);
+
+        boolean hasMore = rows.size() > pageSize;
+        List<TransactionResponse> items = rows.stream()
+                .limit(pageSize)
+                .map(this::mapToTransactionResponse)
+                .toList();
+        TransactionResponse last = items.isEmpty() ? null : items.get(items.size() - 1);
+
+        return CursorPageResponse.<TransactionResponse>builder()
+                .items(items)
+                .hasMore(hasMore)
+                .nextCursor(hasMore ? new KeysetCursor(last.getCreatedAt(), last.getId()).encode() : null)
+                .build();
     }
-    
+
+    private TransactionResponse mapToTransactionResponse(TransactionRepository.TransactionHistoryView row) {
+        return TransactionResponse.builder()
+                .id(row.getId())
+                .senderId(row.getSenderId())
+                .senderName(row.getSenderName())
+                .receiverId(row.getReceiverId())
+                .receiverName(row.getReceiverName())
+                .amount(row.getAmount())
+                .status(row.getStatus())
+                .isFlagged(Boolean.TRUE.equals(row.getFlagged()))
+                .createdAt(row.getCreatedAt())
+                .build();
+    }
+
     private TransactionResponse mapToTransactionResponse(Transaction transaction) {
         return TransactionResponse.builder()
                 .id(transaction.getId())
@@ -0,0 +1,144 @@
+package com.banking.service;
+
+import com.banking.repository.UserRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.Stream;
+
+/**
+ * Runs transfers in a transaction shaped by {@code app.transfer.locking-mode}.
+ * <p>
+ * Publishes {@code banking.transfer} (timer), {@code banking.transfer.retries} and
+ * {@code banking.transfer.aborts}, all tagged with the mode, so modes can be compared
+ * under the same load.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class TransferExecutor {
+
+    private final PlatformTransactionManager transactionManager;
+    private final UserRepository userRepository;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.transfer.locking-mode:SERIALIZABLE}")
+    private TransferLockingMode lockingMode;
+
+    @Value("${app.transfer.optimistic.max-attempts:5}")
+    private int maxAttempts;
+
+    @Value("${app.transfer.optimistic.backoff-base-ms:5}")
+    private long backoffBaseMs;
+
+    @Value("${app.transfer.optimistic.backoff-max-ms:100}")
+    private long backoffMaxMs;
+
+    private TransactionTemplate transactionTemplate;
+    private Timer transferTimer;
+    private Counter retryCounter;
+    private Counter abortCounter;
+
+    @PostConstruct
+    public void init() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setIsolationLevel(lockingMode == TransferLockingMode.SERIALIZABLE
+                ? TransactionDefinition.ISOLATION_SERIALIZABLE
+                : TransactionDefinition.ISOLATION_READ_COMMITTED);
+
+        String mode = lockingMode.name();
+        transferTimer = Timer.builder("banking.transfer")
+                .tag("mode", mode)
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+        retryCounter = Counter.builder("banking.transfer.retries")
+                .description("Transfers re-run after an optimistic locking conflict")
+                .tag("mode", mode)
+                .register(meterRegistry);
+        abortCounter = Counter.builder("banking.transfer.aborts")
+                .description("Transfers abandoned after exhausting the retry budget")
+                .tag("mode", mode)
+                .register(meterRegistry);
+
+        log.info("Transfers use {} locking", lockingMode);
+    }
+
+    public <T> T execute(TransactionCallback<T> work) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        try {
+            return lockingMode == TransferLockingMode.OPTIMISTIC
+                    ? executeWithRetry(work)
+                    : transactionTemplate.execute(work);
+        } finally {
+            sample.stop(transferTimer);
+        }
+    }
+
+    /**
+     * Takes the row locks for the given accounts when running in {@link TransferLockingMode#ORDERED}
+     * mode. The locked entities stay in the persistence context, so later {@code findById}
+     * calls in the same transaction are served without another query. Must be called
+     * inside {@link #execute}.
+     */
+    public void lockAccounts(Long... accountIds) {
+        if (lockingMode != TransferLockingMode.ORDERED) {
+            return;
+        }
+        List<Long> ordered = Stream.of(accountIds)
+                .distinct()
+                .sorted()
+                .toList();
+        if (ordered.size() <= 2) {
+            ordered.forEach(userRepository::findByIdForUpdate);
+        } else {
+            userRepository.findAllByIdForUpdate(ordered);
+        }
+    }
+
+    public TransferLockingMode getLockingMode() {
+        return lockingMode;
+    }
+
+    private <T> T executeWithRetry(TransactionCallback<T> work) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return transactionTemplate.execute(work);
+            } catch (OptimisticLockingFailureException e) {
+                if (attempt >= maxAttempts) {
+                    abortCounter.increment();
+                    log.warn("Transfer aborted after {} optimistic locking conflicts", attempt);
+                    throw e;
+                }
+                retryCounter.increment();
+                backoff(attempt);
+            }
+        }
+    }
+
+    /**
+     * Exponential backoff with full jitter, so colliding transfers spread out instead of
+     * retrying in lockstep.
+     */
+    private void backoff(int attempt) {
+        long ceiling = Math.min(backoffMaxMs, backoffBaseMs << Math.min(attempt - 1, 20));
+        try {
+            Thread.sleep(ThreadLocalRandom.current().nextLong(ceiling + 1));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while backing off transfer retry", e);
+        }
+    }
+}
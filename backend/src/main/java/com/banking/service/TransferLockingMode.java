@@ -0,0 +1,25 @@
+package com.banking.service;
+
+/**
+ * How {@link TransactionService#transferMoney} protects the two account rows it updates.
+ */
+public enum TransferLockingMode {
+
+    /**
+     * Plain reads under SERIALIZABLE isolation. Opposing transfers between the same
+     * two accounts can deadlock.
+     */
+    SERIALIZABLE,
+
+    /**
+     * READ_COMMITTED isolation with both rows locked up front via SELECT ... FOR UPDATE,
+     * always in ascending id order, so concurrent transfers queue instead of deadlocking.
+     */
+    ORDERED,
+
+    /**
+     * READ_COMMITTED isolation without row locks. Conflicting updates are detected by the
+     * {@code users.version} column at commit and the whole transfer is retried.
+     */
+    OPTIMISTIC
+}
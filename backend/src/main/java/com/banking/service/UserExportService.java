@@ -0,0 +1,94 @@
+package com.banking.service;
+
+import com.banking.dto.request.UserFilterRequest;
+import com.banking.dto.response.UserResponse;
+import com.banking.ledger.LedgerEngine;
+import com.banking.repository.UserRepository;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Admin export of users as NDJSON, one {@link UserResponse} per line, written straight from
+ * a forward-only cursor of DTO projections. Heap use does not depend on the number of users.
+ * Balances come from the ledger; the balance filters match the flushed {@code users.balance}.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class UserExportService {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final UserRepository userRepository;
+    private final LedgerEngine ledgerEngine;
+    private final PlatformTransactionManager transactionManager;
+    private final ObjectMapper objectMapper;
+
+    private TransactionTemplate readOnlyTemplate;
+
+    @PostConstruct
+    public void init() {
+        readOnlyTemplate = new TransactionTemplate(transactionManager);
+        readOnlyTemplate.setReadOnly(true);
+    }
+
+    public StreamingResponseBody exportUsers(UserFilterRequest filter) {
+        Boolean accountNonLocked = filter.getLocked() == null ? null : !filter.getLocked();
+        return out -> {
+            long started = System.nanoTime();
+            Long written = readOnlyTemplate.execute(status -> {
+                try (Stream<UserResponse> users = userRepository.streamUsers(filter.getRole(),
+                        filter.getMinBalance(), filter.getMaxBalance(), accountNonLocked,
+                        filter.getCreatedFrom(), filter.getCreatedTo())) {
+                    return write(users.peek(user ->
+                            user.setBalance(ledgerEngine.currentBalance(user.getId(), user.getBalance()))), out);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            log.info("Exported {} users in {} ms", written, (System.nanoTime() - started) / 1_000_000);
+        };
+    }
+
+    /**
+     * @return the number of users written
+     */
+    long write(Stream<UserResponse> users, OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), BUFFER_SIZE);
+        long count = 0;
+        Iterator<UserResponse> iterator = users.iterator();
+        // The sequence writer owns the Writer; closing it flushes without closing the response
+        try (SequenceWriter json = objectMapper.writerFor(UserResponse.class)
+                .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                .withRootValueSeparator("\n")
+                .writeValues(writer)) {
+            while (iterator.hasNext()) {
+                json.write(iterator.next());
+                count++;
+            }
+        }
+        if (count > 0) {
+            writer.write('\n');
+        }
+        writer.flush();
+        return count;
+    }
+}
@@ -1,51 +1,87 @@
 package com.banking.service;
 
+import com.banking.dto.request.UserFilterRequest;
+import com.banking.dto.response.CursorPageResponse;
 import com.banking.dto.response.UserResponse;
 import com.banking.exception.ResourceNotFoundException;
+import com.banking.ledger.LedgerEngine;
 import com.banking.model.User;
 import com.banking.repository.UserRepository;
 import com.banking.security.UserDetailsImpl;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.util.List;
-import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 public class UserService {
 
+    private static final int MAX_PAGE_SIZE = 100;
+
     private final UserRepository userRepository;
+    private final LedgerEngine ledgerEngine;
+    private final AccountCache accountCache;
 
     public UserResponse getCurrentUser() {
         UserDetailsImpl userDetails = (UserDetailsImpl) SecurityContextHolder.getContext().getAuthentication().getPrincipal();
-        User user = userRepository.findById(userDetails.getId())
-                .orElseThrow(() -> new ResourceNotFoundException("User", "id", userDetails.getId()));
-        
-        return mapToUserResponse(user);
+        return accountCache.get(userDetails.getId(), this::loadAccount);
     }
 
-    public List<UserResponse> getAllUsers() {
-        return userRepository.findAll().stream()
-                .map(this::mapToUserResponse)
-                .collect(Collectors.toList());
+    /**
+     * Keyset-paginated admin listing, newest first. Rows are read as DTOs, so no entity or
+     * password hash is loaded, and pages cost the same at any depth. Balances shown come from
+     * the ledger; the balance filters match the flushed {@code users.balance}, which under the
+     * sharded engine trails it by up to one flush interval.
+     */
+    @Transactional(readOnly = true)
+    public CursorPageResponse<UserResponse> getUsers(UserFilterRequest filter, String cursor, int size) {
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        KeysetCursor position = KeysetCursor.decode(cursor);
+
+        // One extra row tells whether another page exists
+        List<UserResponse> rows = userRepository.findUserPage(position.createdAt(), position.id(),
+                filter.getRole(), filter.getMinBalance(), filter.getMaxBalance(),
+                filter.getLocked() == null ? null : !filter.getLocked(),
+                filter.getCreatedFrom(), filter.getCreatedTo(), PageRequest.ofSize(pageSize + 1));
+
+        boolean hasMore = rows.size() > pageSize;
+        List<UserResponse> items = hasMore ? rows.subList(0, pageSize) : rows;
+        items.forEach(user -> user.setBalance(ledgerEngine.currentBalance(user.getId(), user.getBalance())));
+        UserResponse last = items.isEmpty() ? null : items.get(items.size() - 1);
+
+        return CursorPageResponse.<UserResponse>builder()
+                .items(items)
+                .hasMore(hasMore)
+                .nextCursor(hasMore ? new KeysetCursor(last.getCreatedAt(), last.getId()).encode() : null)
+                .build();
     }
 
     public UserResponse getUserById(Long userId) {
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new ResourceNotFoundException("User", "id", userId));
         
-        return mapToUserResponse(user);
+        UserResponse response = mapToUserResponse(user);
+        response.setBalance(ledgerEngine.currentBalance(userId, user.getBalance()));
+        return response;
     }
 
     public BigDecimal getUserBalance() {
         UserDetailsImpl userDetails = (UserDetailsImpl) SecurityContextHolder.getContext().getAuthentication().getPrincipal();
-        User user = userRepository.findById(userDetails.getId())
-                .orElseThrow(() -> new ResourceNotFoundException("User", "id", userDetails.getId()));
-        
-        return user.getBalance();
+        return accountCache.get(userDetails.getId(), this::loadAccount).getBalance();
+    }
+
+    // Balance from the ledger, which is ahead of users.balance under the sharded engine
+    private UserResponse loadAccount(Long userId) {
+        User user = userRepository.findById(userId)
+                .orElseThrow(() -> new ResourceNotFoundException("User", "id", userId));
+        UserResponse account = mapToUserResponse(user);
+        account.setBalance(ledgerEngine.getBalance(userId));
+        return account;
     }
 
     private UserResponse mapToUserResponse(User user) {
@@ -0,0 +1,183 @@
+package com.banking.service;
+
+import com.banking.repository.TransactionRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Counts transfers per sender over a sliding window without touching the database.
+ * <p>
+ * Each sender gets a ring of {@code window / slot} counters plus a running total. Moving
+ * the ring forward clears the slots that fell out of the window, so {@link #count} and
+ * {@link #record} are O(1) amortised and a sender costs a fixed few hundred bytes. The
+ * window is slot-aligned: it covers between {@code window - slot} and {@code window} of
+ * history, and the oldest slot is kept whole, which errs towards flagging. Senders with
+ * nothing left in the window are evicted by {@link #evictIdle()}.
+ * <p>
+ * Counts are per node. The tracker is warmed from {@code transactions} at startup, but
+ * transfers made on other nodes afterwards are not seen. A batch transfer is recorded as a
+ * single submission, while warming counts its rows individually, which errs towards flagging.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class VelocityTracker {
+
+    private final TransactionRepository transactionRepository;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.fraud.velocity.window-minutes:10}")
+    private int windowMinutes;
+
+    @Value("${app.fraud.velocity.slot-seconds:10}")
+    private int slotSeconds;
+
+    @Value("${app.fraud.velocity.warm-on-startup:true}")
+    private boolean warmOnStartup;
+
+    private final Map<Long, SenderWindow> windows = new ConcurrentHashMap<>();
+    private long slotMillis;
+    private int slots;
+
+    @PostConstruct
+    public void init() {
+        slotMillis = slotSeconds * 1000L;
+        slots = Math.max(1, (int) (windowMinutes * 60_000L / slotMillis));
+
+        Gauge.builder("banking.fraud.velocity.senders", windows, Map::size)
+                .description("Senders currently tracked by the velocity window")
+                .register(meterRegistry);
+
+        if (warmOnStartup) {
+            warm();
+        }
+    }
+
+    /**
+     * Transfers recorded for the sender within the window, as of now.
+     */
+    public int count(Long senderId) {
+        SenderWindow window = windows.get(senderId);
+        return window == null ? 0 : window.count(currentSlot());
+    }
+
+    /**
+     * Records transfers for the sender. Inside a transaction the count is applied after
+     * commit, so rolled-back transfers never count.
+     */
+    public void record(Long senderId, int transfers) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    add(senderId, currentSlot(), transfers);
+                }
+            });
+        } else {
+            add(senderId, currentSlot(), transfers);
+        }
+    }
+
+    public int getWindowMinutes() {
+        return windowMinutes;
+    }
+
+    @Scheduled(fixedDelayString = "${app.fraud.velocity.evict-interval-ms:60000}")
+    public void evictIdle() {
+        long now = currentSlot();
+        // computeIfPresent serialises with add(), so a sender recorded mid-sweep is not lost
+        for (Long senderId : windows.keySet()) {
+            windows.computeIfPresent(senderId, (id, window) -> window.isIdle(now) ? null : window);
+        }
+    }
+
+    private void warm() {
+        long start = System.currentTimeMillis();
+        LocalDateTime since = LocalDateTime.now().minusMinutes(windowMinutes);
+        int loaded = 0;
+        for (TransactionRepository.SenderActivityView activity : transactionRepository.findSenderActivitySince(since)) {
+            long millis = activity.getCreatedAt().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+            add(activity.getSenderId(), millis / slotMillis, 1);
+            loaded++;
+        }
+        log.info("Velocity tracker warmed with {} transfers from {} senders in {} ms",
+                loaded, windows.size(), System.currentTimeMillis() - start);
+    }
+
+    private void add(Long senderId, long slot, int transfers) {
+        long now = currentSlot();
+        if (slot <= now - slots) {
+            return;
+        }
+        // Rows stamped slightly ahead of this node's clock count in the current slot
+        long effectiveSlot = Math.min(slot, now);
+        windows.compute(senderId, (id, window) -> {
+            SenderWindow target = window != null ? window : new SenderWindow(slots, now);
+            target.add(now, effectiveSlot, transfers);
+            return target;
+        });
+    }
+
+    private long currentSlot() {
+        return System.currentTimeMillis() / slotMillis;
+    }
+
+    private static final class SenderWindow {
+
+        private final int[] counts;
+        private long headSlot;
+        private int total;
+
+        private SenderWindow(int slots, long headSlot) {
+            this.counts = new int[slots];
+            this.headSlot = headSlot;
+        }
+
+        synchronized int count(long now) {
+            advance(now);
+            return total;
+        }
+
+        synchronized void add(long now, long slot, int transfers) {
+            advance(now);
+            counts[(int) Math.floorMod(slot, (long) counts.length)] += transfers;
+            total += transfers;
+        }
+
+        synchronized boolean isIdle(long now) {
+            advance(now);
+            return total == 0;
+        }
+
+        private void advance(long now) {
+            if (now <= headSlot) {
+                return;
+            }
+            if (now - headSlot >= counts.length) {
+                Arrays.fill(counts, 0);
+                total = 0;
+            } else {
+                for (long slot = headSlot + 1; slot <= now; slot++) {
+                    int index = (int) Math.floorMod(slot, (long) counts.length);
+                    total -= counts[index];
+                    counts[index] = 0;
+                }
+            }
+            headSlot = now;
+        }
+    }
+}
@@ -0,0 +1,2 @@
+-- Serves the periodic locked-account refresh used by stateless JWT authentication
+CREATE INDEX idx_users_account_non_locked ON users(account_non_locked);
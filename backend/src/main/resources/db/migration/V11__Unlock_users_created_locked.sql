@@ -0,0 +1,3 @@
+-- Accounts registered through User.builder() were stored with account_non_locked = FALSE even
+-- though no lockout had ever run; a lock always records lock_time, so those rows can be cleared
+UPDATE users SET account_non_locked = TRUE WHERE account_non_locked = FALSE AND lock_time IS NULL;
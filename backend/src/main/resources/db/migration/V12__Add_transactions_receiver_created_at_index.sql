@@ -0,0 +1,3 @@
+-- Receiver half of the keyset history query; the sender half uses idx_transactions_sender_created_at.
+-- InnoDB appends the primary key to secondary indexes, so both serve the (created_at, id) seek.
+CREATE INDEX idx_transactions_receiver_created_at ON transactions(receiver_id, created_at);
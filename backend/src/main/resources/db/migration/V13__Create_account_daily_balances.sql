@@ -0,0 +1,25 @@
+-- Closing balance per account for each day it had a completed transfer, maintained in the
+-- transfer's transaction. Days without activity have no row: the previous row still holds.
+CREATE TABLE IF NOT EXISTS account_daily_balances (
+    user_id BIGINT NOT NULL,
+    balance_date DATE NOT NULL,
+    closing_balance DECIMAL(19, 4) NOT NULL,
+    PRIMARY KEY (user_id, balance_date),
+    FOREIGN KEY (user_id) REFERENCES users(id)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
+
+-- Backfill from existing history: walk each account back from its current balance, one day at a time
+-- (assumes users.balance is current, i.e. the sharded ledger journal has been flushed)
+INSERT IGNORE INTO account_daily_balances (user_id, balance_date, closing_balance)
+SELECT d.user_id, d.balance_date,
+       u.balance - COALESCE(SUM(d.net_change) OVER (
+               PARTITION BY d.user_id ORDER BY d.balance_date DESC
+               ROWS BETWEEN UNBOUNDED PRECEDING AND 1 PRECEDING), 0)
+FROM (SELECT m.user_id, DATE(m.created_at) AS balance_date, SUM(m.amount) AS net_change
+      FROM (SELECT t.sender_id AS user_id, t.created_at, -t.amount AS amount
+            FROM transactions t WHERE t.status = 'COMPLETED'
+            UNION ALL
+            SELECT t.receiver_id, t.created_at, t.amount
+            FROM transactions t WHERE t.status = 'COMPLETED') m
+      GROUP BY m.user_id, DATE(m.created_at)) d
+JOIN users u ON u.id = d.user_id;
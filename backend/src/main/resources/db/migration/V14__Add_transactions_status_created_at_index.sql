@@ -0,0 +1,3 @@
+-- Pending-work claims: PendingTransactionProcessor reads the oldest PENDING rows with SKIP LOCKED,
+-- and the backlog gauge counts them. Both stay inside the PENDING range of this index.
+CREATE INDEX idx_transactions_status_created_at ON transactions(status, created_at);
@@ -0,0 +1,9 @@
+-- Admin user listing, newest first by (created_at, id); InnoDB appends id to each index.
+CREATE INDEX idx_users_created_at ON users(created_at);
+CREATE INDEX idx_users_role_created_at ON users(role, created_at);
+
+-- Supersedes idx_users_account_non_locked: the locked-account refresh and unlock job use its prefix
+CREATE INDEX idx_users_account_non_locked_created_at ON users(account_non_locked, created_at);
+DROP INDEX idx_users_account_non_locked ON users;
+
+-- No balance index: balance changes on every transfer. Balance ranges filter the created_at scan.
@@ -0,0 +1,7 @@
+-- Stamped on the primary and read back on each replica to measure replication lag
+CREATE TABLE IF NOT EXISTS replica_heartbeat (
+    id TINYINT PRIMARY KEY,
+    beat_at TIMESTAMP(6) NOT NULL
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
+
+INSERT IGNORE INTO replica_heartbeat (id, beat_at) VALUES (1, NOW(6));
@@ -0,0 +1,8 @@
+-- Elects the one node whose OutboxRelay publishes, so events for a key leave in order
+CREATE TABLE IF NOT EXISTS outbox_relay_lease (
+    id BIGINT PRIMARY KEY,
+    owner VARCHAR(64) NOT NULL,
+    expires_at DATETIME(6) NOT NULL
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
+
+INSERT IGNORE INTO outbox_relay_lease (id, owner, expires_at) VALUES (1, '', NOW(6));
@@ -0,0 +1,8 @@
+-- Journal position already applied to users.balance by the sharded ledger engine
+CREATE TABLE IF NOT EXISTS ledger_checkpoints (
+    id BIGINT PRIMARY KEY,
+    last_sequence BIGINT NOT NULL DEFAULT 0,
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
+
+INSERT IGNORE INTO ledger_checkpoints (id, last_sequence) VALUES (1, 0);
@@ -0,0 +1,3 @@
+-- Optimistic locking counter for the OPTIMISTIC transfer mode
+ALTER TABLE users
+ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
@@ -0,0 +1,9 @@
+-- Pooled id allocation so Hibernate can batch inserts (IDENTITY disables JDBC batching).
+-- The pooled optimizer hands out (next_val - 50, next_val], so seed one block past existing ids.
+CREATE TABLE IF NOT EXISTS id_generators (
+    sequence_name VARCHAR(64) NOT NULL PRIMARY KEY,
+    next_val BIGINT NOT NULL
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
+
+INSERT IGNORE INTO id_generators (sequence_name, next_val)
+SELECT 'transactions', COALESCE(MAX(id), 0) + 51 FROM transactions;
@@ -0,0 +1,3 @@
+-- Users share the pooled id allocation introduced for transactions in V5
+INSERT IGNORE INTO id_generators (sequence_name, next_val)
+SELECT 'users', COALESCE(MAX(id), 0) + 51 FROM users;
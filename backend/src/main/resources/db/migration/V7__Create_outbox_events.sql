@@ -0,0 +1,12 @@
+-- Transactional outbox for Kafka events, drained by OutboxRelay
+CREATE TABLE IF NOT EXISTS outbox_events (
+    id BIGINT PRIMARY KEY,
+    topic VARCHAR(200) NOT NULL,
+    payload TEXT NOT NULL,
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    sent_at TIMESTAMP NULL DEFAULT NULL
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
+
+CREATE INDEX idx_outbox_events_sent_at_id ON outbox_events(sent_at, id);
+
+INSERT IGNORE INTO id_generators (sequence_name, next_val) VALUES ('outbox_events', 51);
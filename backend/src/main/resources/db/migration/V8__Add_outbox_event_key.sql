@@ -0,0 +1,3 @@
+-- Kafka record key (sender id) so each account's events stay on one partition, in order
+ALTER TABLE outbox_events
+ADD COLUMN event_key VARCHAR(64) NULL AFTER topic;
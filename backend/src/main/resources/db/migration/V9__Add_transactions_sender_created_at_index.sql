@@ -0,0 +1,2 @@
+-- Serves the per-sender velocity count (database fallback) and the tracker warm-up range scan
+CREATE INDEX idx_transactions_sender_created_at ON transactions(sender_id, created_at);
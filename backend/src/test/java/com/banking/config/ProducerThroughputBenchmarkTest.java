@@ -0,0 +1,119 @@
+package com.banking.config;
+
+import com.banking.events.TransactionEvent;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.common.Metric;
+import org.apache.kafka.common.MetricName;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.serializer.JsonSerializer;
+import org.springframework.kafka.test.EmbeddedKafkaBroker;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Pushes the same stream of transaction events through the legacy and throughput producer
+ * profiles against an embedded broker and reports records/s and bytes/s on the wire.
+ * <p>
+ * Run with {@code mvn test -Pbenchmarks -Dtest=ProducerThroughputBenchmarkTest}.
+ */
+@Tag("benchmark")
+@EmbeddedKafka(partitions = 3, topics = {ProducerThroughputBenchmarkTest.LEGACY_TOPIC,
+        ProducerThroughputBenchmarkTest.THROUGHPUT_TOPIC}, kraft = false)
+public class ProducerThroughputBenchmarkTest {
+
+    static final String LEGACY_TOPIC = "benchmark.legacy";
+    static final String THROUGHPUT_TOPIC = "benchmark.throughput";
+
+    private static final int RECORDS = Integer.getInteger("benchmark.records", 200_000);
+    private static final int ACCOUNTS = 1_000;
+    private static final int WINDOW = 10_000;
+
+    @Test
+    public void compareProfiles(EmbeddedKafkaBroker broker) throws Exception {
+        Result legacy = run(broker, LEGACY_TOPIC, KafkaConfig.legacyProducerSettings());
+        Result throughput = run(broker, THROUGHPUT_TOPIC,
+                KafkaConfig.throughputProducerSettings(10, 131072, System.getProperty("benchmark.compression", "lz4")));
+
+        System.out.println("legacy:     " + legacy);
+        System.out.println("throughput: " + throughput);
+
+        assertThat(legacy.records()).isEqualTo(RECORDS);
+        assertThat(throughput.records()).isEqualTo(RECORDS);
+    }
+
+    private Result run(EmbeddedKafkaBroker broker, String topic, Map<String, Object> profile) throws Exception {
+        Map<String, Object> props = new HashMap<>(profile);
+        props.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, broker.getBrokersAsString());
+        DefaultKafkaProducerFactory<String, TransactionEvent> factory =
+                new DefaultKafkaProducerFactory<>(props, new StringSerializer(), new JsonSerializer<>());
+        try {
+            KafkaTemplate<String, TransactionEvent> template = new KafkaTemplate<>(factory);
+            // Warm up the connection and metadata outside the measured window
+            template.send(topic, "0", event(0)).get(10, TimeUnit.SECONDS);
+            double bytesBefore = outgoingBytes(template);
+
+            long start = System.nanoTime();
+            List<CompletableFuture<?>> inFlight = new ArrayList<>(WINDOW);
+            for (int i = 1; i <= RECORDS; i++) {
+                TransactionEvent event = event(i);
+                inFlight.add(template.send(topic, String.valueOf(event.getSenderId()), event));
+                // Bound the number of unacknowledged sends, the way the outbox relay does per batch
+                if (inFlight.size() == WINDOW) {
+                    CompletableFuture.allOf(inFlight.toArray(CompletableFuture[]::new)).get(60, TimeUnit.SECONDS);
+                    inFlight.clear();
+                }
+            }
+            CompletableFuture.allOf(inFlight.toArray(CompletableFuture[]::new)).get(60, TimeUnit.SECONDS);
+            long elapsedNanos = System.nanoTime() - start;
+
+            return new Result(RECORDS, elapsedNanos, outgoingBytes(template) - bytesBefore);
+        } finally {
+            factory.destroy();
+        }
+    }
+
+    private static double outgoingBytes(KafkaTemplate<String, TransactionEvent> template) {
+        for (Map.Entry<MetricName, ? extends Metric> metric : template.metrics().entrySet()) {
+            MetricName name = metric.getKey();
+            if ("producer-metrics".equals(name.group()) && "outgoing-byte-total".equals(name.name())) {
+                return ((Number) metric.getValue().metricValue()).doubleValue();
+            }
+        }
+        return 0;
+    }
+
+    private static TransactionEvent event(long id) {
+        return TransactionEvent.builder()
+                .transactionId(id)
+                .senderId(id % ACCOUNTS + 1)
+                .receiverId((id * 7) % ACCOUNTS + 1)
+                .amount(BigDecimal.valueOf(id % 50_000, 2))
+                .status("COMPLETED")
+                .timestamp(LocalDateTime.now())
+                .build();
+    }
+
+    private record Result(int records, long elapsedNanos, double bytes) {
+
+        @Override
+        public String toString() {
+            double seconds = elapsedNanos / 1e9;
+            return String.format("%d records in %.2fs: %.0f records/s, %.2f MB/s (%.1f MB sent)",
+                    records, seconds, records / seconds, bytes / seconds / 1e6, bytes / 1e6);
+        }
+    }
+}
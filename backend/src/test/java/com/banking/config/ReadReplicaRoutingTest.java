@@ -0,0 +1,127 @@
+package com.banking.config;
+
+import com.banking.events.TransactionEvent;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.MySQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Two independent MySQL instances stand in for a primary and its replica. Nothing
+ * replicates between them, so the test stamps the replica's heartbeat itself and tells the
+ * two apart by {@code @@server_uuid}.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+@SpringBootTest
+@ActiveProfiles("test")
+public class ReadReplicaRoutingTest {
+
+    @Container
+    static MySQLContainer<?> primary = new MySQLContainer<>("mysql:8.0");
+
+    @Container
+    static MySQLContainer<?> replica = new MySQLContainer<>("mysql:8.0");
+
+    @DynamicPropertySource
+    static void properties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", primary::getJdbcUrl);
+        registry.add("spring.datasource.username", primary::getUsername);
+        registry.add("spring.datasource.password", primary::getPassword);
+        registry.add("spring.jpa.show-sql", () -> "false");
+        registry.add("spring.kafka.admin.auto-create", () -> "false");
+        registry.add("app.outbox.enabled", () -> "false");
+        registry.add("app.datasource.replicas[0].url", replica::getJdbcUrl);
+        registry.add("app.datasource.replicas[0].username", replica::getUsername);
+        registry.add("app.datasource.replicas[0].password", replica::getPassword);
+        // Lag is checked by the test, not the scheduler
+        registry.add("app.datasource.lag-check-interval-ms", () -> "3600000");
+    }
+
+    @MockBean
+    private KafkaTemplate<String, TransactionEvent> kafkaTemplate;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private ReplicaRoutingDataSource routingDataSource;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @BeforeAll
+    static void createReplicaHeartbeat() throws SQLException {
+        execute(replica, "CREATE TABLE replica_heartbeat (id TINYINT PRIMARY KEY, beat_at TIMESTAMP(6) NOT NULL)");
+        execute(replica, "INSERT INTO replica_heartbeat VALUES (1, NOW(6))");
+    }
+
+    @Test
+    public void readOnlyTransactions_useTheReplicaWhileItKeepsUp() throws SQLException {
+        String primaryUuid = serverUuid(primary);
+        String replicaUuid = serverUuid(replica);
+
+        execute(replica, "UPDATE replica_heartbeat SET beat_at = NOW(6) WHERE id = 1");
+        routingDataSource.checkLag();
+
+        assertThat(serverUuidInTransaction(true)).isEqualTo(replicaUuid);
+        assertThat(serverUuidInTransaction(false)).isEqualTo(primaryUuid);
+        assertThat(meterRegistry.find("hikaricp.connections").tag("pool", "replica-1").gauge()).isNotNull();
+        assertThat(meterRegistry.find("hikaricp.connections").tag("pool", "primary").gauge()).isNotNull();
+
+        execute(replica, "UPDATE replica_heartbeat SET beat_at = NOW(6) - INTERVAL 1 MINUTE WHERE id = 1");
+        routingDataSource.checkLag();
+
+        assertThat(serverUuidInTransaction(true)).isEqualTo(primaryUuid);
+        assertThat(meterRegistry.get("banking.datasource.replica.fallbacks").counter().count()).isPositive();
+    }
+
+    private String serverUuidInTransaction(boolean readOnly) {
+        TransactionTemplate template = new TransactionTemplate(transactionManager);
+        template.setReadOnly(readOnly);
+        return template.execute(status ->
+                new JdbcTemplate(dataSource).queryForObject("SELECT @@server_uuid", String.class));
+    }
+
+    private static String serverUuid(MySQLContainer<?> mysql) throws SQLException {
+        try (Connection connection = connect(mysql);
+             Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery("SELECT @@server_uuid")) {
+            resultSet.next();
+            return resultSet.getString(1);
+        }
+    }
+
+    private static void execute(MySQLContainer<?> mysql, String sql) throws SQLException {
+        try (Connection connection = connect(mysql); Statement statement = connection.createStatement()) {
+            statement.execute(sql);
+        }
+    }
+
+    private static Connection connect(MySQLContainer<?> mysql) throws SQLException {
+        return DriverManager.getConnection(mysql.getJdbcUrl(), mysql.getUsername(), mysql.getPassword());
+    }
+}
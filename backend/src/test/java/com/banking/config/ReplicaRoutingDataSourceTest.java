@@ -0,0 +1,128 @@
+package com.banking.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.RETURNS_DEEP_STUBS;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class ReplicaRoutingDataSourceTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final Map<String, DataSource> replicas = new LinkedHashMap<>();
+
+    @AfterEach
+    public void clearTransaction() {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+    }
+
+    @Test
+    public void readWriteWork_staysOnThePrimary() throws SQLException {
+        replicas.put("replica-1", replicaWithLag(0));
+        ReplicaRoutingDataSource routing = routing();
+        routing.checkLag();
+
+        assertThat(routing.determineCurrentLookupKey()).isEqualTo(ReplicaRoutingDataSource.PRIMARY);
+    }
+
+    @Test
+    public void readOnlyWork_isSpreadOverFreshReplicas() throws SQLException {
+        replicas.put("replica-1", replicaWithLag(0));
+        replicas.put("replica-2", replicaWithLag(150_000));
+        replicas.put("replica-3", replicaWithLag(30_000_000));
+        ReplicaRoutingDataSource routing = routing();
+        routing.checkLag();
+        readOnly();
+
+        assertThat(new Object[]{routing.determineCurrentLookupKey(), routing.determineCurrentLookupKey(),
+                routing.determineCurrentLookupKey(), routing.determineCurrentLookupKey()})
+                .containsExactly("replica-1", "replica-2", "replica-1", "replica-2");
+        assertThat(meterRegistry.get("banking.datasource.replica.lag").tag("replica", "replica-2").gauge().value())
+                .isEqualTo(150);
+    }
+
+    @Test
+    public void laggingOrUnreachableReplicas_fallBackToThePrimary() throws SQLException {
+        replicas.put("replica-1", replicaWithLag(30_000_000));
+        DataSource down = Mockito.mock(DataSource.class);
+        when(down.getConnection()).thenThrow(new SQLException("Connection refused"));
+        replicas.put("replica-2", down);
+        ReplicaRoutingDataSource routing = routing();
+        readOnly();
+
+        // Nothing measured yet
+        assertThat(routing.determineCurrentLookupKey()).isEqualTo(ReplicaRoutingDataSource.PRIMARY);
+
+        routing.checkLag();
+
+        assertThat(routing.determineCurrentLookupKey()).isEqualTo(ReplicaRoutingDataSource.PRIMARY);
+        assertThat(meterRegistry.get("banking.datasource.replica.fallbacks").counter().count()).isEqualTo(2);
+        assertThat(meterRegistry.get("banking.datasource.replica.lag").tag("replica", "replica-2").gauge().value())
+                .isNaN();
+    }
+
+    @Test
+    public void startup_createsAndSeedsTheHeartbeatOnThePrimary() throws SQLException {
+        replicas.put("replica-1", replicaWithLag(40_000));
+        Statement statement = Mockito.mock(Statement.class);
+        DataSource primary = Mockito.mock(DataSource.class, RETURNS_DEEP_STUBS);
+        when(primary.getConnection().createStatement()).thenReturn(statement);
+        ReplicaRoutingDataSource routing = new ReplicaRoutingDataSource(primary, replicas, 2000, meterRegistry);
+
+        routing.afterSingletonsInstantiated();
+
+        verify(statement).execute(startsWith("CREATE TABLE IF NOT EXISTS replica_heartbeat"));
+        verify(statement).executeUpdate(startsWith("INSERT IGNORE INTO replica_heartbeat"));
+        assertThat(meterRegistry.get("banking.datasource.replica.lag").tag("replica", "replica-1").gauge().value())
+                .isEqualTo(40);
+    }
+
+    @Test
+    public void startup_failsWhenAReplicaCannotReadTheHeartbeat() throws SQLException {
+        replicas.put("replica-1", replicaWithLag(0));
+        DataSource down = Mockito.mock(DataSource.class);
+        when(down.getConnection()).thenThrow(new SQLException("Table 'replica_heartbeat' doesn't exist"));
+        replicas.put("replica-2", down);
+        ReplicaRoutingDataSource routing = routing();
+        routing.setStartupTimeoutMs(0);
+
+        assertThatThrownBy(routing::afterSingletonsInstantiated)
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("replica-2");
+    }
+
+    private ReplicaRoutingDataSource routing() {
+        return new ReplicaRoutingDataSource(Mockito.mock(DataSource.class, RETURNS_DEEP_STUBS), replicas, 2000,
+                meterRegistry);
+    }
+
+    private static void readOnly() {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+    }
+
+    /** A replica whose heartbeat query answers {@code lagMicros}. */
+    private static DataSource replicaWithLag(long lagMicros) throws SQLException {
+        ResultSet resultSet = Mockito.mock(ResultSet.class, RETURNS_DEEP_STUBS);
+        when(resultSet.next()).thenReturn(true, false);
+        when(resultSet.getLong(1)).thenReturn(lagMicros);
+        when(resultSet.getMetaData().getColumnCount()).thenReturn(1);
+        DataSource dataSource = Mockito.mock(DataSource.class, RETURNS_DEEP_STUBS);
+        when(dataSource.getConnection().createStatement().executeQuery(anyString())).thenReturn(resultSet);
+        return dataSource;
+    }
+}
@@ -0,0 +1,77 @@
+package com.banking.config;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.locks.ReentrantLock;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class VirtualThreadPinningMonitorTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private VirtualThreadPinningMonitor monitor;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    public void setUp() {
+        monitor = new VirtualThreadPinningMonitor(meterRegistry, Mockito.mock(ObjectProvider.class));
+        ReflectionTestUtils.setField(monitor, "thresholdMs", 10L);
+        ReflectionTestUtils.setField(monitor, "primaryPoolSize", 10);
+        monitor.init();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        monitor.stop();
+    }
+
+    @Test
+    public void sleepingInsideSynchronized_isReportedWithItsFrame() throws Exception {
+        Thread.ofVirtual().start(VirtualThreadPinningMonitorTest::sleepUnderReentrantLock).join();
+        Thread.ofVirtual().start(VirtualThreadPinningMonitorTest::sleepInsideSynchronized).join();
+
+        Timer pinned = null;
+        for (long deadline = System.currentTimeMillis() + 15_000; pinned == null && System.currentTimeMillis() < deadline; ) {
+            Thread.sleep(100);
+            pinned = meterRegistry.find("banking.virtual-threads.pinned")
+                    .tag("frame", VirtualThreadPinningMonitorTest.class.getName() + ".sleepInsideSynchronized")
+                    .timer();
+        }
+
+        assertThat(pinned).isNotNull();
+        assertThat(pinned.count()).isEqualTo(1);
+        // A java.util.concurrent lock unmounts the virtual thread instead of pinning it
+        assertThat(meterRegistry.find("banking.virtual-threads.pinned")
+                .tag("frame", VirtualThreadPinningMonitorTest.class.getName() + ".sleepUnderReentrantLock")
+                .timer()).isNull();
+    }
+
+    private static void sleepInsideSynchronized() {
+        synchronized (VirtualThreadPinningMonitorTest.class) {
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private static void sleepUnderReentrantLock() {
+        ReentrantLock lock = new ReentrantLock();
+        lock.lock();
+        try {
+            Thread.sleep(50);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            lock.unlock();
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package com.banking.consumer;
+
+import com.banking.events.TransactionEvent;
+import com.banking.model.Transaction;
+import com.banking.model.enums.TransactionStatus;
+import com.banking.repository.TransactionRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.TopicPartition;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.OptionalLong;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class FraudDetectionConsumerTest {
+
+    private static final String TOPIC = "banking.transactions";
+
+    private final TransactionRepository transactionRepository = mock(TransactionRepository.class);
+    private final Consumer<?, ?> kafkaConsumer = mock(Consumer.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private FraudDetectionConsumer fraudDetectionConsumer;
+
+    @BeforeEach
+    public void setUp() {
+        fraudDetectionConsumer = new FraudDetectionConsumer(transactionRepository, meterRegistry);
+        fraudDetectionConsumer.registerMetrics();
+        when(kafkaConsumer.currentLag(any(TopicPartition.class))).thenReturn(OptionalLong.of(42));
+    }
+
+    @Test
+    public void consumeTransactions_flagsPendingSuspiciousTransactionsWithOneLookup() {
+        Transaction pending = transaction(1L, TransactionStatus.PENDING);
+        Transaction completed = transaction(2L, TransactionStatus.COMPLETED);
+        when(transactionRepository.findAllById(Set.of(1L, 2L))).thenReturn(List.of(pending, completed));
+
+        fraudDetectionConsumer.consumeTransactions(List.of(
+                record(0, event(1L, true)),
+                record(1, event(2L, true)),
+                record(2, event(3L, false))), kafkaConsumer);
+
+        verify(transactionRepository).findAllById(Set.of(1L, 2L));
+        verify(transactionRepository).saveAll(List.of(pending));
+        verify(transactionRepository).flush();
+        assertThat(pending.getStatus()).isEqualTo(TransactionStatus.FLAGGED);
+        assertThat(pending.isFlagged()).isTrue();
+        assertThat(completed.getStatus()).isEqualTo(TransactionStatus.COMPLETED);
+
+        assertThat(meterRegistry.get("banking.fraud.records.per.poll").summary().totalAmount()).isEqualTo(3);
+        assertThat(meterRegistry.get("banking.fraud.consumer.lag").tag("partition", "0").gauge().value()).isEqualTo(42);
+    }
+
+    @Test
+    public void consumeTransactions_withoutSuspiciousEvents_skipsTheDatabase() {
+        fraudDetectionConsumer.consumeTransactions(List.of(record(0, event(1L, false))), kafkaConsumer);
+
+        verify(transactionRepository, never()).findAllById(any());
+        verify(transactionRepository, never()).flush();
+    }
+
+    private static ConsumerRecord<String, TransactionEvent> record(long offset, TransactionEvent event) {
+        return new ConsumerRecord<>(TOPIC, 0, offset, String.valueOf(event.getSenderId()), event);
+    }
+
+    private static TransactionEvent event(Long transactionId, boolean suspicious) {
+        return TransactionEvent.builder()
+                .transactionId(transactionId)
+                .senderId(10L)
+                .isSuspicious(suspicious)
+                .build();
+    }
+
+    private static Transaction transaction(Long id, TransactionStatus status) {
+        return Transaction.builder()
+                .id(id)
+                .status(status)
+                .build();
+    }
+}
@@ -0,0 +1,73 @@
+package com.banking.consumer;
+
+import com.banking.events.TransactionEvent;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.SplittableRandom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Single-threaded throughput of {@link FraudScoringEngine} with every rule enabled, over a
+ * synthetic stream spread across many accounts. The target is 50k events/s on one core.
+ * <p>
+ * Run with {@code mvn test -Pbenchmarks -Dtest=FraudScoringBenchmarkTest}.
+ */
+@Tag("benchmark")
+public class FraudScoringBenchmarkTest {
+
+    private static final int EVENTS = Integer.getInteger("benchmark.events", 2_000_000);
+    private static final int ACCOUNTS = Integer.getInteger("benchmark.accounts", 100_000);
+    private static final double TARGET_EVENTS_PER_SECOND = 50_000;
+
+    @Test
+    public void scoreStream() {
+        FraudScoringEngine engine = FraudScoringEngineTest.engine("large-amount:1.0", "velocity:0.6",
+                "rolling-sum:0.6", "new-receiver:0.4", "receiver-fanout:0.5", "amount-zscore:0.5");
+        TransactionEvent[] stream = stream(EVENTS);
+
+        // Warm-up pass over a separate slice so the JIT has compiled the scoring path
+        for (int i = 0; i < Math.min(200_000, EVENTS); i++) {
+            engine.score(stream[i]);
+        }
+
+        long alerts = 0;
+        long start = System.nanoTime();
+        for (TransactionEvent event : stream) {
+            if (engine.score(event).score() >= 1.0) {
+                alerts++;
+            }
+        }
+        long elapsedNanos = System.nanoTime() - start;
+
+        double perSecond = EVENTS / (elapsedNanos / 1e9);
+        System.out.printf("scored %d events over %d accounts in %.2fs: %.0f events/s, %.0f ns/event, %d alerts%n",
+                EVENTS, ACCOUNTS, elapsedNanos / 1e9, perSecond, (double) elapsedNanos / EVENTS, alerts);
+        assertThat(perSecond).isGreaterThan(TARGET_EVENTS_PER_SECOND);
+    }
+
+    private static TransactionEvent[] stream(int size) {
+        SplittableRandom random = new SplittableRandom(42);
+        LocalDateTime clock = LocalDateTime.of(2024, 6, 1, 0, 0);
+        TransactionEvent[] events = new TransactionEvent[size];
+        for (int i = 0; i < size; i++) {
+            clock = clock.plusNanos(random.nextInt(2_000_000));
+            long sender = random.nextInt(ACCOUNTS) + 1;
+            // Mostly small transfers to a handful of regular receivers, with occasional outliers
+            long receiver = random.nextInt(10) == 0 ? random.nextInt(ACCOUNTS) + 1 : sender % 97 + 1;
+            long cents = random.nextInt(1000) == 0 ? 1_500_000 + random.nextInt(1_000_000) : 100 + random.nextInt(20_000);
+            events[i] = TransactionEvent.builder()
+                    .transactionId((long) i)
+                    .senderId(sender)
+                    .receiverId(receiver)
+                    .amount(BigDecimal.valueOf(cents, 2))
+                    .status("COMPLETED")
+                    .timestamp(clock)
+                    .build();
+        }
+        return events;
+    }
+}
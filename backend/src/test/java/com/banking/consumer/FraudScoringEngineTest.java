@@ -0,0 +1,111 @@
+package com.banking.consumer;
+
+import com.banking.events.TransactionEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+
+public class FraudScoringEngineTest {
+
+    private static final LocalDateTime START = LocalDateTime.of(2024, 6, 1, 9, 0);
+
+    private FraudScoringEngine engine;
+
+    @BeforeEach
+    public void setUp() {
+        engine = engine("large-amount:1.0", "velocity:0.6", "rolling-sum:0.6", "new-receiver:0.4",
+                "receiver-fanout:0.5", "amount-zscore:0.5");
+    }
+
+    @Test
+    public void score_largeAmountAloneReachesTheAlertWeight() {
+        FraudScoringEngine.FraudScore score = engine.score(event(1L, 2L, "15000", START));
+
+        assertThat(score.score()).isEqualTo(1.0);
+        assertThat(score.reasons()).isEqualTo("large-amount");
+    }
+
+    @Test
+    public void score_ordinaryTransfersScoreZero() {
+        FraudScoringEngine.FraudScore score = engine.score(event(1L, 2L, "20", START));
+
+        assertThat(score.score()).isZero();
+        assertThat(score.reasons()).isEmpty();
+    }
+
+    @Test
+    public void score_velocityCountsOnlyTransfersInsideTheWindow() {
+        for (int i = 0; i < 5; i++) {
+            engine.score(event(1L, 2L, "20", START.plusMinutes(i)));
+        }
+        assertThat(engine.score(event(1L, 2L, "20", START.plusMinutes(6))).reasons()).isEqualTo("velocity");
+
+        // An hour later the burst has left the window
+        assertThat(engine.score(event(1L, 2L, "20", START.plusMinutes(70))).reasons()).isEmpty();
+    }
+
+    @Test
+    public void score_flagsNewReceiversFanOutAndOutlierAmounts() {
+        for (int i = 0; i < 12; i++) {
+            engine.score(event(1L, 100L + (i % 3), String.valueOf(40 + (i % 3) * 10), START.plusHours(i * 2L)));
+        }
+
+        FraudScoringEngine.FraudScore score = engine.score(event(1L, 999L, "5000", START.plusHours(30)));
+
+        assertThat(score.reasons()).isEqualTo("new-receiver,amount-zscore");
+        assertThat(score.score()).isCloseTo(0.9, within(1e-9));
+    }
+
+    @Test
+    public void score_keepsStatePerAccount() {
+        for (int i = 0; i < 5; i++) {
+            engine.score(event(1L, 10L + i, "20", START.plusMinutes(i)));
+        }
+
+        assertThat(engine.score(event(1L, 20L, "20", START.plusMinutes(6))).reasons()).isEqualTo("velocity,receiver-fanout");
+        assertThat(engine.score(event(2L, 20L, "20", START.plusMinutes(6))).reasons()).isEmpty();
+    }
+
+    @Test
+    public void init_rejectsUnknownRules() {
+        assertThatThrownBy(() -> engine("large-amount:1.0", "moon-phase:2.0"))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("moon-phase");
+    }
+
+    static FraudScoringEngine engine(String... rules) {
+        FraudScoringEngine engine = new FraudScoringEngine(new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(engine, "ruleWeights", rules);
+        ReflectionTestUtils.setField(engine, "windowMinutes", 60);
+        ReflectionTestUtils.setField(engine, "slotSeconds", 60);
+        ReflectionTestUtils.setField(engine, "maxReceivers", 64);
+        ReflectionTestUtils.setField(engine, "idleEvictionHours", 24);
+        ReflectionTestUtils.setField(engine, "suspiciousAmount", new BigDecimal("10000"));
+        ReflectionTestUtils.setField(engine, "velocityCount", 5);
+        ReflectionTestUtils.setField(engine, "rollingSum", new BigDecimal("25000"));
+        ReflectionTestUtils.setField(engine, "newReceiverAmount", new BigDecimal("1000"));
+        ReflectionTestUtils.setField(engine, "receiverFanout", 5);
+        ReflectionTestUtils.setField(engine, "zScoreThreshold", 3.0);
+        ReflectionTestUtils.setField(engine, "zScoreMinHistory", 10);
+        engine.init();
+        return engine;
+    }
+
+    static TransactionEvent event(Long senderId, Long receiverId, String amount, LocalDateTime timestamp) {
+        return TransactionEvent.builder()
+                .senderId(senderId)
+                .receiverId(receiverId)
+                .amount(new BigDecimal(amount))
+                .status("COMPLETED")
+                .timestamp(timestamp)
+                .build();
+    }
+}
@@ -0,0 +1,88 @@
+package com.banking.events;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.kafka.support.serializer.JsonSerializer;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class TransactionEventCodecTest {
+
+    private final TransactionEventSerializer serializer = new TransactionEventSerializer();
+    private final TransactionEventDeserializer deserializer = new TransactionEventDeserializer();
+
+    @Test
+    public void roundTrip_preservesAllFields() {
+        TransactionEvent event = TransactionEvent.builder()
+                .transactionId(42L)
+                .senderId(7L)
+                .receiverId(9L)
+                .amount(new BigDecimal("12345.6700"))
+                .status("FLAGGED")
+                .timestamp(LocalDateTime.of(2024, 3, 1, 12, 30, 45, 123_456_000))
+                .isSuspicious(true)
+                .senderIp("10.0.0.1")
+                .deviceFingerprint("fp-é中")
+                .location(null)
+                .fraudScore(1.6)
+                .fraudReasons("large-amount,new-receiver")
+                .build();
+
+        TransactionEvent decoded = deserializer.deserialize("t", serializer.serialize("t", event));
+
+        assertThat(decoded).isEqualTo(event);
+        assertThat(decoded.getAmount().scale()).isEqualTo(4);
+    }
+
+    @Test
+    public void roundTrip_handlesNullFieldsAndAmountsBeyondLongRange() {
+        TransactionEvent event = TransactionEvent.builder()
+                .amount(new BigDecimal("123456789012345678901234.5678"))
+                .build();
+
+        assertThat(deserializer.deserialize("t", serializer.serialize("t", event))).isEqualTo(event);
+    }
+
+    @Test
+    public void deserialize_readsJsonRecordsWrittenBeforeTheSwitch() {
+        TransactionEvent event = TransactionEvent.builder()
+                .transactionId(1L)
+                .amount(new BigDecimal("5.00"))
+                .status("COMPLETED")
+                .timestamp(LocalDateTime.of(2024, 1, 1, 0, 0))
+                .build();
+        byte[] json;
+        try (JsonSerializer<TransactionEvent> jsonSerializer = new JsonSerializer<>()) {
+            json = jsonSerializer.serialize("t", event);
+        }
+
+        assertThat(deserializer.deserialize("t", json)).isEqualTo(event);
+    }
+
+    @Test
+    public void encode_writesVersionOneUnlessScored() {
+        TransactionEvent event = TransactionEvent.builder()
+                .transactionId(3L)
+                .status("COMPLETED")
+                .build();
+        byte[] data = serializer.serialize("t", event);
+
+        assertThat(data[1]).isEqualTo((byte) 1);
+        assertThat(deserializer.deserialize("t", data)).isEqualTo(event);
+
+        event.setFraudScore(0.4);
+        assertThat(serializer.serialize("t", event)[1]).isEqualTo(TransactionEventCodec.VERSION);
+    }
+
+    @Test
+    public void decode_rejectsUnknownVersion() {
+        byte[] data = serializer.serialize("t", TransactionEvent.builder().transactionId(1L).build());
+        data[1] = 99;
+
+        assertThatThrownBy(() -> deserializer.deserialize("t", data))
+                .hasRootCauseMessage("Unsupported transaction event version 99");
+    }
+}
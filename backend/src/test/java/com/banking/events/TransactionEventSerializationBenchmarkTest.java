@@ -0,0 +1,96 @@
+package com.banking.events;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.kafka.support.serializer.JsonDeserializer;
+import org.springframework.kafka.support.serializer.JsonSerializer;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH comparison of the JSON and binary paths for {@link TransactionEvent}: ns/op for
+ * encode and decode, plus the encoded sizes printed once at setup.
+ * <p>
+ * Run with {@code mvn test -Pbenchmarks -Dtest=TransactionEventSerializationBenchmarkTest}.
+ */
+@Tag("benchmark")
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TransactionEventSerializationBenchmarkTest {
+
+    private JsonSerializer<TransactionEvent> jsonSerializer;
+    private JsonDeserializer<TransactionEvent> jsonDeserializer;
+    private TransactionEventSerializer binarySerializer;
+    private TransactionEventDeserializer binaryDeserializer;
+    private TransactionEvent event;
+    private byte[] json;
+    private byte[] binary;
+
+    @Test
+    public void runBenchmarks() throws Exception {
+        new Runner(new OptionsBuilder()
+                .include(TransactionEventSerializationBenchmarkTest.class.getSimpleName())
+                .build())
+                .run();
+    }
+
+    @Setup
+    public void setUp() {
+        jsonSerializer = new JsonSerializer<>();
+        jsonDeserializer = new JsonDeserializer<>(TransactionEvent.class, false);
+        binarySerializer = new TransactionEventSerializer();
+        binaryDeserializer = new TransactionEventDeserializer();
+        event = TransactionEvent.builder()
+                .transactionId(123_456_789L)
+                .senderId(4_211L)
+                .receiverId(98_765L)
+                .amount(new BigDecimal("1250.7500"))
+                .status("COMPLETED")
+                .timestamp(LocalDateTime.now())
+                .senderIp("192.168.14.201")
+                .deviceFingerprint("a3f9c2d17be04e5c")
+                .location("Paris, FR")
+                .build();
+        json = jsonSerializer.serialize("t", event);
+        binary = binarySerializer.serialize("t", event);
+        System.out.printf("encoded size: json=%d bytes, binary=%d bytes%n", json.length, binary.length);
+    }
+
+    @Benchmark
+    public byte[] jsonEncode() {
+        return jsonSerializer.serialize("t", event);
+    }
+
+    @Benchmark
+    public TransactionEvent jsonDecode() {
+        return jsonDeserializer.deserialize("t", json);
+    }
+
+    @Benchmark
+    public byte[] binaryEncode() {
+        return binarySerializer.serialize("t", event);
+    }
+
+    @Benchmark
+    public TransactionEvent binaryDecode() {
+        return binaryDeserializer.deserialize("t", binary);
+    }
+}
@@ -0,0 +1,63 @@
+package com.banking.ledger;
+
+import com.banking.model.LedgerCheckpoint;
+import com.banking.repository.LedgerCheckpointRepository;
+import com.banking.repository.TransactionRepository;
+import com.banking.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.Mockito;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class LedgerFlusherTest {
+
+    private final UserRepository userRepository = Mockito.mock(UserRepository.class);
+    private final LedgerCheckpointRepository checkpointRepository = Mockito.mock(LedgerCheckpointRepository.class);
+    private final LedgerFlusher flusher = new LedgerFlusher(userRepository, checkpointRepository,
+            Mockito.mock(TransactionRepository.class));
+
+    @Test
+    public void flush_netsDeltasPerAccount_andAdvancesCheckpoint() {
+        when(checkpointRepository.findById(1L))
+                .thenReturn(Optional.of(LedgerCheckpoint.builder().id(1L).lastSequence(3).build()));
+
+        long flushed = flusher.flush(List.of(
+                new LedgerEntry(3, 103, 1, 2, new BigDecimal("10.00")),
+                new LedgerEntry(4, 104, 2, 1, new BigDecimal("4.00")),
+                new LedgerEntry(5, 105, 1, 3, new BigDecimal("5.00")),
+                new LedgerEntry(6, 106, 3, 2, new BigDecimal("5.00"))));
+
+        assertThat(flushed).isEqualTo(6);
+        // Entry 3 is at the checkpoint and skipped; account 3 nets to zero and is not touched
+        InOrder order = inOrder(userRepository);
+        order.verify(userRepository).adjustBalance(1L, new BigDecimal("-1.00"));
+        order.verify(userRepository).adjustBalance(2L, new BigDecimal("1.00"));
+        verify(userRepository, never()).adjustBalance(Mockito.eq(3L), any());
+
+        ArgumentCaptor<LedgerCheckpoint> saved = ArgumentCaptor.forClass(LedgerCheckpoint.class);
+        verify(checkpointRepository).save(saved.capture());
+        assertThat(saved.getValue().getLastSequence()).isEqualTo(6);
+    }
+
+    @Test
+    public void flush_startsCheckpointOnFirstRun() {
+        when(checkpointRepository.findById(1L)).thenReturn(Optional.empty());
+
+        assertThat(flusher.flush(List.of(new LedgerEntry(1, 101, 1, 2, BigDecimal.ONE)))).isEqualTo(1);
+
+        verify(userRepository).adjustBalance(1L, BigDecimal.ONE.negate());
+        verify(userRepository).adjustBalance(2L, BigDecimal.ONE);
+        verify(checkpointRepository).save(any(LedgerCheckpoint.class));
+    }
+}
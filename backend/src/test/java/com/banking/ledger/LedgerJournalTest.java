@@ -0,0 +1,166 @@
+package com.banking.ledger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.zip.CRC32;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class LedgerJournalTest {
+
+    @TempDir
+    Path dir;
+
+    private LedgerJournal journal;
+
+    @AfterEach
+    public void tearDown() throws IOException {
+        journal.close();
+    }
+
+    @Test
+    public void reopen_recoversEveryEntry() throws IOException {
+        journal = open();
+        LedgerEntry first = journal.append(11L, 1L, 2L, new BigDecimal("10.50"));
+        LedgerEntry second = journal.append(12L, 2L, 3L, new BigDecimal("0.0001"));
+        LedgerEntry third = journal.append(13L, 3L, 1L, new BigDecimal("123456789012.3456"));
+        journal.close();
+
+        journal = open();
+
+        assertThat(journal.recoveredEntries()).containsExactly(first, second, third);
+        assertThat(journal.recoveredEntries().get(2).getAmount().scale()).isEqualTo(4);
+        // New entries continue the sequence
+        assertThat(journal.append(14L, 1L, 2L, BigDecimal.ONE).getSequence()).isEqualTo(4);
+    }
+
+    @Test
+    public void corruptTail_isDiscarded() throws IOException {
+        journal = open();
+        LedgerEntry first = journal.append(11L, 1L, 2L, BigDecimal.TEN);
+        long firstRecordEnd = Files.size(path());
+        journal.append(12L, 2L, 1L, BigDecimal.ONE);
+        journal.close();
+
+        try (RandomAccessFile file = new RandomAccessFile(path().toFile(), "rw")) {
+            // Flip a byte in the second record's payload so its checksum no longer matches
+            file.seek(file.length() - 1);
+            int last = file.read();
+            file.seek(file.length() - 1);
+            file.write(last ^ 0xFF);
+        }
+
+        journal = open();
+
+        assertThat(journal.recoveredEntries()).containsExactly(first);
+        assertThat(Files.size(path())).isEqualTo(firstRecordEnd);
+    }
+
+    @Test
+    public void truncatedTail_isDiscarded() throws IOException {
+        journal = open();
+        LedgerEntry first = journal.append(11L, 1L, 2L, BigDecimal.TEN);
+        long firstRecordEnd = Files.size(path());
+        journal.append(12L, 2L, 1L, BigDecimal.ONE);
+        journal.close();
+
+        try (RandomAccessFile file = new RandomAccessFile(path().toFile(), "rw")) {
+            file.setLength(file.length() - 5);
+        }
+
+        journal = open();
+
+        assertThat(journal.recoveredEntries()).containsExactly(first);
+        assertThat(Files.size(path())).isEqualTo(firstRecordEnd);
+    }
+
+    @Test
+    public void recordWithoutVersion_isRefused() throws IOException {
+        journal = open();
+        journal.append(11L, 1L, 2L, BigDecimal.TEN);
+        journal.close();
+
+        // Rewrite the record in the layout before transaction ids: no version byte, no txId
+        byte[] record = Files.readAllBytes(path());
+        ByteBuffer legacyPayload = ByteBuffer.allocate(record.length - 8 - 9)
+                .put(record, 9, 8)
+                .put(record, 25, record.length - 25);
+        byte[] legacyBytes = legacyPayload.array();
+        CRC32 crc = new CRC32();
+        crc.update(legacyBytes);
+        Files.write(path(), ByteBuffer.allocate(8 + legacyBytes.length)
+                .putInt(legacyBytes.length)
+                .putInt((int) crc.getValue())
+                .put(legacyBytes)
+                .array());
+
+        journal = new LedgerJournal();
+        ReflectionTestUtils.setField(journal, "journalPath", path().toString());
+        ReflectionTestUtils.setField(journal, "fsync", false);
+
+        assertThatThrownBy(journal::open)
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("older release");
+    }
+
+    @Test
+    public void pending_holdsBackUnresolvedEntries() throws IOException {
+        journal = open();
+        LedgerEntry first = journal.append(11L, 1L, 2L, BigDecimal.TEN);
+        LedgerEntry second = journal.append(12L, 1L, 2L, BigDecimal.ONE);
+        LedgerEntry third = journal.append(13L, 1L, 2L, BigDecimal.ONE);
+
+        journal.commit(second);
+        assertThat(journal.pending(10)).isEmpty();
+
+        journal.abort(first);
+        assertThat(journal.pending(10)).containsExactly(second);
+
+        journal.acknowledge(second.getSequence());
+        assertThat(journal.pendingCount()).isEqualTo(1);
+        assertThat(Files.size(path())).isPositive();
+
+        journal.abort(third);
+        assertThat(journal.pendingCount()).isZero();
+        assertThat(Files.size(path())).isZero();
+    }
+
+    @Test
+    public void awaitDurable_coversEveryEntryWrittenBeforeTheSync() throws IOException {
+        journal = open();
+        ReflectionTestUtils.setField(journal, "fsync", true);
+        LedgerEntry first = journal.append(11L, 1L, 2L, BigDecimal.TEN);
+        LedgerEntry second = journal.append(12L, 1L, 2L, BigDecimal.ONE);
+        LedgerEntry third = journal.append(13L, 1L, 2L, BigDecimal.ONE);
+
+        journal.awaitDurable(third);
+        journal.awaitDurable(first);
+        journal.awaitDurable(second);
+        assertThat(journal.syncCount()).isEqualTo(1);
+
+        journal.awaitDurable(journal.append(14L, 1L, 2L, BigDecimal.ONE));
+        assertThat(journal.syncCount()).isEqualTo(2);
+    }
+
+    private LedgerJournal open() throws IOException {
+        LedgerJournal opened = new LedgerJournal();
+        ReflectionTestUtils.setField(opened, "journalPath", path().toString());
+        ReflectionTestUtils.setField(opened, "fsync", false);
+        opened.open();
+        return opened;
+    }
+
+    private Path path() {
+        return dir.resolve("ledger.journal");
+    }
+}
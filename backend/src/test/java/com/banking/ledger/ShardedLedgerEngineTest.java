@@ -0,0 +1,247 @@
+package com.banking.ledger;
+
+import com.banking.exception.InsufficientBalanceException;
+import com.banking.model.LedgerCheckpoint;
+import com.banking.repository.LedgerCheckpointRepository;
+import com.banking.repository.TransactionRepository;
+import com.banking.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mockito;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.when;
+
+/**
+ * Runs the engine against a real journal and flusher, with the {@code users},
+ * {@code transactions} and checkpoint tables stood in for by maps.
+ */
+public class ShardedLedgerEngineTest {
+
+    @TempDir
+    Path dir;
+
+    private final Map<Long, BigDecimal> storedBalances = new ConcurrentHashMap<>();
+    private final Set<Long> completedTransactions = ConcurrentHashMap.newKeySet();
+    private final AtomicLong checkpoint = new AtomicLong();
+
+    private final UserRepository userRepository = Mockito.mock(UserRepository.class);
+    private final LedgerCheckpointRepository checkpointRepository = Mockito.mock(LedgerCheckpointRepository.class);
+    private final TransactionRepository transactionRepository = Mockito.mock(TransactionRepository.class);
+
+    private LedgerJournal journal;
+    private ShardedLedgerEngine engine;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    public void setUp() {
+        when(userRepository.findBalanceById(anyLong()))
+                .thenAnswer(invocation -> Optional.ofNullable(storedBalances.get(invocation.<Long>getArgument(0))));
+        when(userRepository.adjustBalance(anyLong(), any())).thenAnswer(invocation -> {
+            storedBalances.merge(invocation.getArgument(0), invocation.getArgument(1), BigDecimal::add);
+            return 1;
+        });
+        when(checkpointRepository.findById(1L)).thenAnswer(invocation ->
+                Optional.of(LedgerCheckpoint.builder().id(1L).lastSequence(checkpoint.get()).build()));
+        when(checkpointRepository.save(any())).thenAnswer(invocation -> {
+            checkpoint.set(invocation.<LedgerCheckpoint>getArgument(0).getLastSequence());
+            return invocation.getArgument(0);
+        });
+        when(transactionRepository.findIdsByStatus(any(), any())).thenAnswer(invocation ->
+                invocation.<Collection<Long>>getArgument(0).stream().filter(completedTransactions::contains).toList());
+    }
+
+    @AfterEach
+    public void tearDown() throws IOException {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        if (engine != null) {
+            engine.stop();
+        }
+        journal.close();
+    }
+
+    @Test
+    public void recovery_replaysOnlyCommittedEntriesAfterTheCheckpoint() throws IOException {
+        storedBalances.put(1L, new BigDecimal("90"));
+        storedBalances.put(2L, new BigDecimal("10"));
+        journal = openJournal();
+        journal.append(101L, 1L, 2L, BigDecimal.TEN);  // already flushed
+        journal.append(102L, 1L, 2L, BigDecimal.TEN);
+        journal.append(103L, 1L, 2L, BigDecimal.TEN);  // rolled back
+        journal.append(104L, 1L, 2L, BigDecimal.ONE);  // first attempt, rolled back
+        journal.append(104L, 1L, 2L, BigDecimal.ONE);  // retry, committed
+        journal.close();
+        journal = null;
+        checkpoint.set(1);
+        completedTransactions.addAll(List.of(101L, 102L, 104L));
+
+        startEngine();
+
+        assertThat(storedBalances).containsEntry(1L, new BigDecimal("79")).containsEntry(2L, new BigDecimal("21"));
+        assertThat(checkpoint.get()).isEqualTo(5);
+        assertThat(Files.size(journalPath())).isZero();
+        assertThat(engine.getBalance(1L)).isEqualByComparingTo("79");
+    }
+
+    @Test
+    public void credit_becomesVisibleOnlyAtCommit_andIsFlushedToUsers() {
+        storedBalances.put(1L, new BigDecimal("100"));
+        storedBalances.put(2L, BigDecimal.ZERO);
+        startEngine();
+
+        TransactionSynchronizationManager.initSynchronization();
+        engine.transfer(201L, 1L, 2L, new BigDecimal("30"));
+
+        assertThat(engine.getBalance(1L)).isEqualByComparingTo("70");
+        assertThat(engine.getBalance(2L)).isEqualByComparingTo("0");
+        engine.flush();
+        assertThat(storedBalances.get(1L)).isEqualByComparingTo("100");
+
+        complete(TransactionSynchronization.STATUS_COMMITTED);
+
+        assertThat(engine.getBalance(2L)).isEqualByComparingTo("30");
+        engine.flush();
+        assertThat(storedBalances.get(1L)).isEqualByComparingTo("70");
+        assertThat(storedBalances.get(2L)).isEqualByComparingTo("30");
+        assertThat(engine.currentBalance(2L, BigDecimal.ZERO)).isEqualByComparingTo("30");
+    }
+
+    @Test
+    public void rollback_releasesTheHold_andNothingIsFlushed() throws IOException {
+        storedBalances.put(1L, new BigDecimal("100"));
+        storedBalances.put(2L, new BigDecimal("5"));
+        startEngine();
+
+        TransactionSynchronizationManager.initSynchronization();
+        engine.transfer(301L, 1L, 2L, new BigDecimal("100"));
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+
+        // The hold is in place, so the same money cannot be spent twice meanwhile
+        assertThatThrownBy(() -> engine.transfer(302L, 1L, 2L, BigDecimal.ONE))
+                .isInstanceOf(InsufficientBalanceException.class);
+
+        synchronizations.forEach(synchronization ->
+                synchronization.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+
+        assertThat(engine.getBalance(1L)).isEqualByComparingTo("100");
+        assertThat(engine.getBalance(2L)).isEqualByComparingTo("5");
+        engine.flush();
+        assertThat(storedBalances.get(1L)).isEqualByComparingTo("100");
+        assertThat(checkpoint.get()).isZero();
+        assertThat(Files.size(journalPath())).isZero();
+    }
+
+    @Test
+    public void concurrentTransfers_conserveTheTotal() throws Exception {
+        int accounts = 8;
+        for (long id = 1; id <= accounts; id++) {
+            storedBalances.put(id, new BigDecimal("1000"));
+        }
+        startEngine();
+
+        AtomicLong transactionIds = new AtomicLong();
+        ExecutorService clients = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int c = 0; c < 8; c++) {
+                futures.add(clients.submit(() -> {
+                    ThreadLocalRandom random = ThreadLocalRandom.current();
+                    for (int i = 0; i < 500; i++) {
+                        long sender = random.nextLong(1, accounts + 1);
+                        long receiver = sender % accounts + 1;
+                        try {
+                            engine.transfer(transactionIds.incrementAndGet(), sender, receiver,
+                                    BigDecimal.valueOf(random.nextInt(1, 200)));
+                        } catch (InsufficientBalanceException ignored) {
+                            // Expected once an account runs dry
+                        }
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            clients.shutdown();
+        }
+        engine.flush();
+
+        BigDecimal resident = BigDecimal.ZERO;
+        for (long id = 1; id <= accounts; id++) {
+            BigDecimal balance = engine.getBalance(id);
+            assertThat(balance.signum()).isNotNegative();
+            assertThat(storedBalances.get(id)).isEqualByComparingTo(balance);
+            resident = resident.add(balance);
+        }
+        assertThat(resident).isEqualByComparingTo("8000");
+    }
+
+    private void complete(int status) {
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+        synchronizations.forEach(synchronization -> synchronization.afterCompletion(status));
+    }
+
+    private void startEngine() {
+        if (journal == null) {
+            journal = openJournal();
+        }
+        PlatformTransactionManager transactionManager = Mockito.mock(PlatformTransactionManager.class);
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        LedgerFlusher flusher = new LedgerFlusher(userRepository, checkpointRepository, transactionRepository);
+
+        engine = new ShardedLedgerEngine(journal, flusher, userRepository, transactionManager);
+        ReflectionTestUtils.setField(engine, "shardCount", 4);
+        ReflectionTestUtils.setField(engine, "flushBatchSize", 100);
+        ReflectionTestUtils.setField(engine, "warmOnStartup", false);
+        engine.start();
+    }
+
+    private LedgerJournal openJournal() {
+        LedgerJournal opened = new LedgerJournal();
+        ReflectionTestUtils.setField(opened, "journalPath", journalPath().toString());
+        ReflectionTestUtils.setField(opened, "fsync", false);
+        try {
+            opened.open();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return opened;
+    }
+
+    private Path journalPath() {
+        return dir.resolve("ledger.journal");
+    }
+}
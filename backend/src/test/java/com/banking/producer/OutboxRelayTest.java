@@ -0,0 +1,167 @@
+package com.banking.producer;
+
+import com.banking.events.TransactionEvent;
+import com.banking.model.OutboxEvent;
+import com.banking.repository.OutboxEventRepository;
+import com.banking.repository.OutboxRelayLeaseRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerRecords;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.serializer.JsonDeserializer;
+import org.springframework.kafka.support.serializer.JsonSerializer;
+import org.springframework.kafka.test.EmbeddedKafkaBroker;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+import org.springframework.kafka.test.utils.KafkaTestUtils;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@EmbeddedKafka(partitions = 1, topics = OutboxRelayTest.TOPIC, kraft = false)
+public class OutboxRelayTest {
+
+    static final String TOPIC = "banking.transactions";
+
+    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+    private final OutboxEventRepository repository = mock(OutboxEventRepository.class);
+    private final OutboxRelayLeaseRepository leaseRepository = mock(OutboxRelayLeaseRepository.class);
+    private final PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private EmbeddedKafkaBroker broker;
+    private DefaultKafkaProducerFactory<String, TransactionEvent> producerFactory;
+    private OutboxRelay relay;
+
+    @BeforeEach
+    public void setUp(EmbeddedKafkaBroker broker) {
+        this.broker = broker;
+        Map<String, Object> producerProps = KafkaTestUtils.producerProps(broker);
+        producerFactory = new DefaultKafkaProducerFactory<>(producerProps, new StringSerializer(), new JsonSerializer<>());
+
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        when(leaseRepository.acquire(anyString(), anyLong())).thenReturn(1);
+
+        relay = new OutboxRelay(repository, leaseRepository, new KafkaTemplate<>(producerFactory),
+                transactionManager, objectMapper, meterRegistry);
+        ReflectionTestUtils.setField(relay, "enabled", false);
+        ReflectionTestUtils.setField(relay, "batchSize", 100);
+        ReflectionTestUtils.setField(relay, "sendTimeoutMs", 10000L);
+        ReflectionTestUtils.setField(relay, "leaseMs", 30000L);
+        relay.init();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        producerFactory.destroy();
+    }
+
+    @Test
+    public void drainOnce_sendsClaimedBatchAndMarksItSent() throws Exception {
+        List<OutboxEvent> batch = new ArrayList<>();
+        for (long id = 1; id <= 3; id++) {
+            batch.add(outboxEvent(id));
+        }
+        when(repository.findUnsent(100)).thenReturn(batch);
+
+        int sent = relay.drainOnce();
+
+        assertThat(sent).isEqualTo(3);
+        // The read commits before the sends, and the rows are marked in a transaction of their own
+        InOrder order = inOrder(transactionManager, leaseRepository, repository);
+        order.verify(transactionManager).getTransaction(any());
+        order.verify(leaseRepository).acquire(anyString(), eq(30_000_000L));
+        order.verify(repository).findUnsent(100);
+        order.verify(transactionManager).commit(any());
+        order.verify(transactionManager).getTransaction(any());
+        order.verify(repository).markSent(eq(List.of(1L, 2L, 3L)), any(LocalDateTime.class));
+        order.verify(transactionManager).commit(any());
+        assertThat(meterRegistry.get("banking.outbox.batch.size").summary().totalAmount()).isEqualTo(3);
+        assertThat(meterRegistry.get("banking.outbox.lag").gauge().value()).isGreaterThanOrEqualTo(5000);
+
+        Map<String, Object> consumerProps = KafkaTestUtils.consumerProps("outbox-test", "false", broker);
+        consumerProps.put(JsonDeserializer.TRUSTED_PACKAGES, "com.banking.events");
+        try (Consumer<String, TransactionEvent> consumer = new DefaultKafkaConsumerFactory<>(consumerProps,
+                new StringDeserializer(), new JsonDeserializer<>(TransactionEvent.class, false)).createConsumer()) {
+            broker.consumeFromAnEmbeddedTopic(consumer, TOPIC);
+            ConsumerRecords<String, TransactionEvent> records = KafkaTestUtils.getRecords(consumer, Duration.ofSeconds(10), 3);
+            assertThat(records.count()).isEqualTo(3);
+            assertThat(records.iterator().next().key()).isEqualTo("10");
+            assertThat(records.iterator().next().value().getAmount()).isEqualByComparingTo("25.00");
+        }
+    }
+
+    @Test
+    public void drainOnce_withNothingPending_doesNotMarkAnything() {
+        when(repository.findUnsent(anyInt())).thenReturn(List.of());
+
+        assertThat(relay.drainOnce()).isZero();
+        verify(repository, never()).markSent(any(Collection.class), any());
+        assertThat(meterRegistry.get("banking.outbox.lag").gauge().value()).isZero();
+    }
+
+    @Test
+    public void drainOnce_withoutTheLease_publishesNothing() {
+        when(leaseRepository.acquire(anyString(), anyLong())).thenReturn(0);
+
+        assertThat(relay.drainOnce()).isZero();
+        verify(repository, never()).findUnsent(anyInt());
+    }
+
+    @Test
+    public void start_refusesALeaseShorterThanTheSendTimeout() {
+        ReflectionTestUtils.setField(relay, "enabled", true);
+        ReflectionTestUtils.setField(relay, "leaseMs", 5000L);
+
+        assertThatThrownBy(relay::start).isInstanceOf(IllegalStateException.class);
+        assertThat(relay.isRunning()).isFalse();
+    }
+
+    private OutboxEvent outboxEvent(long id) throws Exception {
+        TransactionEvent event = TransactionEvent.builder()
+                .transactionId(id)
+                .senderId(10L)
+                .receiverId(20L)
+                .amount(new BigDecimal("25.00"))
+                .status("COMPLETED")
+                .timestamp(LocalDateTime.now())
+                .build();
+        return OutboxEvent.builder()
+                .id(id)
+                .topic(TOPIC)
+                .eventKey("10")
+                .payload(objectMapper.writeValueAsString(event))
+                .createdAt(LocalDateTime.now().minusSeconds(5))
+                .build();
+    }
+}
@@ -0,0 +1,169 @@
+package com.banking.repository;
+
+import com.banking.events.TransactionEvent;
+import com.banking.model.Transaction;
+import com.banking.model.User;
+import com.banking.model.enums.TransactionStatus;
+import com.banking.model.enums.UserRole;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.MySQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Compares bulk inserts of transactions under the old IDENTITY scheme (one INSERT and
+ * one generated-key read per row, which is what Hibernate is forced into) against the
+ * pooled table generator with JDBC batching.
+ * <p>
+ * Run with {@code mvn test -Pbenchmarks -Dtest=IdGenerationBenchmarkTest}.
+ */
+@Tag("benchmark")
+@Testcontainers(disabledWithoutDocker = true)
+@SpringBootTest
+@ActiveProfiles("test")
+public class IdGenerationBenchmarkTest {
+
+    private static final int ROWS = Integer.getInteger("benchmark.rows", 100_000);
+    private static final int BATCH_SIZE = 500;
+
+    @Container
+    static MySQLContainer<?> mysql = new MySQLContainer<>("mysql:8.0")
+            .withUrlParam("rewriteBatchedStatements", "true");
+
+    @DynamicPropertySource
+    static void properties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", mysql::getJdbcUrl);
+        registry.add("spring.datasource.username", mysql::getUsername);
+        registry.add("spring.datasource.password", mysql::getPassword);
+        registry.add("spring.jpa.show-sql", () -> "false");
+        registry.add("spring.kafka.admin.auto-create", () -> "false");
+        registry.add("app.outbox.enabled", () -> "false");
+    }
+
+    @MockBean
+    private KafkaTemplate<String, TransactionEvent> kafkaTemplate;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Test
+    public void bulkInsertTransactions() throws Exception {
+        transactionRepository.deleteAll();
+        userRepository.deleteAll();
+        User sender = createUser("sender");
+        User receiver = createUser("receiver");
+
+        // Pooled run first: AUTO_INCREMENT then continues past the generated ids, while the
+        // generator knows nothing about ids handed out by AUTO_INCREMENT
+        long pooledNanos = insertWithPooledIds(sender, receiver);
+        long countAfterPooled = transactionRepository.count();
+
+        long identityNanos = insertWithIdentity(sender.getId(), receiver.getId());
+        long countAfterIdentity = transactionRepository.count();
+
+        System.out.printf("identity: %d rows in %.2fs (%.0f rows/s)%n",
+                ROWS, identityNanos / 1e9, ROWS / (identityNanos / 1e9));
+        System.out.printf("pooled+batch: %d rows in %.2fs (%.0f rows/s)%n",
+                ROWS, pooledNanos / 1e9, ROWS / (pooledNanos / 1e9));
+
+        assertThat(countAfterPooled).isEqualTo(ROWS);
+        assertThat(countAfterIdentity).isEqualTo(2L * ROWS);
+    }
+
+    private long insertWithIdentity(Long senderId, Long receiverId) throws Exception {
+        String sql = "INSERT INTO transactions (sender_id, receiver_id, amount, status, is_flagged, created_at, updated_at) "
+                + "VALUES (?, ?, ?, ?, ?, ?, ?)";
+        long start = System.nanoTime();
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement insert = connection.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+            connection.setAutoCommit(false);
+            for (int i = 0; i < ROWS; i++) {
+                Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+                insert.setLong(1, senderId);
+                insert.setLong(2, receiverId);
+                insert.setBigDecimal(3, BigDecimal.ONE);
+                insert.setString(4, TransactionStatus.COMPLETED.name());
+                insert.setBoolean(5, false);
+                insert.setTimestamp(6, now);
+                insert.setTimestamp(7, now);
+                insert.executeUpdate();
+                try (ResultSet keys = insert.getGeneratedKeys()) {
+                    keys.next();
+                }
+                if ((i + 1) % BATCH_SIZE == 0) {
+                    connection.commit();
+                }
+            }
+            connection.commit();
+        }
+        return System.nanoTime() - start;
+    }
+
+    private long insertWithPooledIds(User sender, User receiver) {
+        TransactionTemplate template = new TransactionTemplate(transactionManager);
+        long start = System.nanoTime();
+        for (int offset = 0; offset < ROWS; offset += BATCH_SIZE) {
+            int chunk = Math.min(BATCH_SIZE, ROWS - offset);
+            template.executeWithoutResult(status -> {
+                User senderRef = entityManager.getReference(User.class, sender.getId());
+                User receiverRef = entityManager.getReference(User.class, receiver.getId());
+                for (int i = 0; i < chunk; i++) {
+                    entityManager.persist(Transaction.builder()
+                            .sender(senderRef)
+                            .receiver(receiverRef)
+                            .amount(BigDecimal.ONE)
+                            .status(TransactionStatus.COMPLETED)
+                            .build());
+                }
+                entityManager.flush();
+                entityManager.clear();
+            });
+        }
+        return System.nanoTime() - start;
+    }
+
+    private User createUser(String name) {
+        return userRepository.save(User.builder()
+                .name(name)
+                .email(name + "@benchmark.test")
+                .password("n/a")
+                .role(UserRole.USER)
+                .balance(BigDecimal.ZERO)
+                .accountNonLocked(true)
+                .build());
+    }
+}
@@ -0,0 +1,149 @@
+package com.banking.repository;
+
+import com.banking.dto.response.TransactionResponse;
+import com.banking.model.Transaction;
+import com.banking.model.User;
+import com.banking.model.enums.TransactionStatus;
+import com.banking.model.enums.UserRole;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.MySQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Statement counts for the transaction read paths, from Hibernate statistics. Guards
+ * against lazy sender/receiver loads creeping back in (one SELECT per row).
+ */
+@Testcontainers(disabledWithoutDocker = true)
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+public class TransactionQueryCountTest {
+
+    @Container
+    static MySQLContainer<?> mysql = new MySQLContainer<>("mysql:8.0");
+
+    @DynamicPropertySource
+    static void properties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", mysql::getJdbcUrl);
+        registry.add("spring.datasource.username", mysql::getUsername);
+        registry.add("spring.datasource.password", mysql::getPassword);
+        registry.add("spring.jpa.properties.hibernate.generate_statistics", () -> "true");
+    }
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+    private User alice;
+
+    @BeforeEach
+    public void setUp() {
+        alice = userRepository.save(user("alice"));
+        // A distinct counterparty per row, so lazy loading would need one SELECT per row
+        for (int i = 0; i < 25; i++) {
+            User other = userRepository.save(user("user" + i));
+            TransactionStatus status = i % 5 == 0 ? TransactionStatus.PENDING : TransactionStatus.COMPLETED;
+            transactionRepository.save(i % 2 == 0 ? transaction(alice, other, status) : transaction(other, alice, status));
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    public void historyPage_isOneSelectPlusTheCount() {
+        Page<TransactionResponse> page = transactionRepository.findUserTransactions(alice.getId(), null, null, null,
+                PageRequest.of(1, 10, Sort.by(Sort.Direction.DESC, "createdAt")));
+
+        assertThat(page.getContent()).hasSize(10)
+                .allSatisfy(row -> {
+                    assertThat(row.getSenderName()).isNotNull();
+                    assertThat(row.getReceiverName()).isNotNull();
+                });
+        assertThat(page.getTotalElements()).isEqualTo(25);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+        assertThat(statistics.getEntityLoadCount()).isZero();
+    }
+
+    @Test
+    public void pendingClaim_readsCounterpartyIdsWithoutLoadingUsers() {
+        List<Transaction> pending = transactionRepository.claimPending(100);
+
+        assertThat(pending).hasSize(5)
+                .allSatisfy(transaction -> {
+                    assertThat(transaction.getSender().getId()).isNotNull();
+                    assertThat(transaction.getReceiver().getId()).isNotNull();
+                });
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        assertThat(statistics.getEntityLoadCount()).isEqualTo(5);
+    }
+
+    @Test
+    public void saveAll_insertsAsJdbcBatches() {
+        User bob = userRepository.save(user("bob"));
+        entityManager.flush();
+        statistics.clear();
+
+        List<Transaction> batch = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            batch.add(transaction(alice, bob, TransactionStatus.COMPLETED));
+        }
+        transactionRepository.saveAll(batch);
+        entityManager.flush();
+
+        // One prepared INSERT per JDBC batch, plus at most a few pooled id allocations
+        assertThat(statistics.getEntityInsertCount()).isEqualTo(200);
+        assertThat(statistics.getPrepareStatementCount()).isLessThan(10);
+    }
+
+    private static User user(String name) {
+        return User.builder()
+                .name(name)
+                .email(name + "@example.com")
+                .password("n/a")
+                .role(UserRole.USER)
+                .balance(BigDecimal.ZERO)
+                .build();
+    }
+
+    private static Transaction transaction(User sender, User receiver, TransactionStatus status) {
+        return Transaction.builder()
+                .sender(sender)
+                .receiver(receiver)
+                .amount(BigDecimal.TEN)
+                .status(status)
+                .build();
+    }
+}
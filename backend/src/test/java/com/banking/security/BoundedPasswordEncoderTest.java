@@ -0,0 +1,106 @@
+package com.banking.security;
+
+import com.banking.exception.TooManyRequestsException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class BoundedPasswordEncoderTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    public void legacyBcryptHashes_matchAndAreFlaggedForUpgrade() {
+        BoundedPasswordEncoder encoder = encoder("argon2", 4, 1, 8);
+        String legacy = new BCryptPasswordEncoder(4).encode("secret");
+
+        assertThat(encoder.matches("secret", legacy)).isTrue();
+        assertThat(encoder.matches("wrong", legacy)).isFalse();
+        assertThat(encoder.upgradeEncoding(legacy)).isTrue();
+
+        String upgraded = encoder.encode("secret");
+        assertThat(upgraded).startsWith("{argon2}");
+        assertThat(encoder.matches("secret", upgraded)).isTrue();
+        assertThat(encoder.upgradeEncoding(upgraded)).isFalse();
+        assertThat(meterRegistry.get("banking.password.hash").tag("operation", "matches").timer().count()).isEqualTo(3);
+    }
+
+    @Test
+    public void raisingTheBcryptCost_flagsWeakerHashes() {
+        String weak = encoder("bcrypt", 4, 1, 8).encode("secret");
+
+        BoundedPasswordEncoder stronger = encoder("bcrypt", 5, 1, 8);
+
+        assertThat(stronger.upgradeEncoding(weak)).isTrue();
+        assertThat(stronger.upgradeEncoding(stronger.encode("secret"))).isFalse();
+    }
+
+    @Test
+    public void fullQueue_rejectsImmediately() throws Exception {
+        BoundedPasswordEncoder encoder = encoder("bcrypt", 4, 1, 1);
+        CountDownLatch release = new CountDownLatch(1);
+        ReflectionTestUtils.setField(encoder, "delegate", blockingEncoder(release));
+
+        CompletableFuture<String> running = CompletableFuture.supplyAsync(() -> encoder.encode("a"));
+        awaitGauge("banking.password.hash.active", 1);
+        CompletableFuture<String> queued = CompletableFuture.supplyAsync(() -> encoder.encode("b"));
+        awaitGauge("banking.password.hash.queue.depth", 1);
+
+        assertThatThrownBy(() -> encoder.encode("c")).isInstanceOf(TooManyRequestsException.class);
+        assertThat(meterRegistry.get("banking.password.hash.rejected").counter().count()).isEqualTo(1);
+
+        release.countDown();
+        assertThat(running.get(5, TimeUnit.SECONDS)).isEqualTo("hashed-a");
+        assertThat(queued.get(5, TimeUnit.SECONDS)).isEqualTo("hashed-b");
+        encoder.shutdown();
+    }
+
+    private void awaitGauge(String name, double value) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (meterRegistry.get(name).gauge().value() < value && System.currentTimeMillis() < deadline) {
+            Thread.sleep(5);
+        }
+        assertThat(meterRegistry.get(name).gauge().value()).isEqualTo(value);
+    }
+
+    private BoundedPasswordEncoder encoder(String algorithm, int bcryptStrength, int threads, int queueCapacity) {
+        BoundedPasswordEncoder encoder = new BoundedPasswordEncoder(meterRegistry);
+        ReflectionTestUtils.setField(encoder, "algorithm", algorithm);
+        ReflectionTestUtils.setField(encoder, "bcryptStrength", bcryptStrength);
+        ReflectionTestUtils.setField(encoder, "argon2MemoryKb", 1024);
+        ReflectionTestUtils.setField(encoder, "argon2Iterations", 1);
+        ReflectionTestUtils.setField(encoder, "argon2Parallelism", 1);
+        ReflectionTestUtils.setField(encoder, "threads", threads);
+        ReflectionTestUtils.setField(encoder, "queueCapacity", queueCapacity);
+        encoder.init();
+        return encoder;
+    }
+
+    private static PasswordEncoder blockingEncoder(CountDownLatch release) {
+        return new PasswordEncoder() {
+            @Override
+            public String encode(CharSequence rawPassword) {
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return "hashed-" + rawPassword;
+            }
+
+            @Override
+            public boolean matches(CharSequence rawPassword, String encodedPassword) {
+                return encode(rawPassword).equals(encodedPassword);
+            }
+        };
+    }
+}
@@ -0,0 +1,105 @@
+package com.banking.security;
+
+import com.banking.repository.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class JwtAuthenticationFilterTest {
+
+    private final JwtService jwtService = JwtServiceTest.jwtService(new SimpleMeterRegistry(), 86_400_000L, 100);
+    private final UserDetailsServiceImpl userDetailsService = Mockito.mock(UserDetailsServiceImpl.class);
+    private final UserRepository userRepository = Mockito.mock(UserRepository.class);
+    private AccountLockRegistry accountLockRegistry;
+    private JwtAuthenticationFilter filter;
+
+    private final UserDetailsImpl alice = new UserDetailsImpl(7L, "Alice", "alice@example.com", "alice@example.com",
+            new BigDecimal("100.00"), "hash", List.of(new SimpleGrantedAuthority("ROLE_ADMIN")), true);
+
+    @BeforeEach
+    public void setUp() {
+        when(userRepository.findLockedUserIds()).thenReturn(List.of());
+        accountLockRegistry = new AccountLockRegistry(userRepository, new SimpleMeterRegistry());
+        accountLockRegistry.init();
+
+        filter = new JwtAuthenticationFilter();
+        ReflectionTestUtils.setField(filter, "jwtService", jwtService);
+        ReflectionTestUtils.setField(filter, "userDetailsService", userDetailsService);
+        ReflectionTestUtils.setField(filter, "accountLockRegistry", accountLockRegistry);
+        ReflectionTestUtils.setField(filter, "stateless", true);
+    }
+
+    @AfterEach
+    public void clearContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    public void statelessMode_buildsThePrincipalFromClaims() throws Exception {
+        Authentication authentication = authenticate(jwtService.generateToken(alice));
+
+        UserDetailsImpl principal = (UserDetailsImpl) authentication.getPrincipal();
+        assertThat(principal.getId()).isEqualTo(7L);
+        assertThat(principal.getName()).isEqualTo("Alice");
+        assertThat(principal.getUsername()).isEqualTo("alice@example.com");
+        assertThat(principal.getAuthorities()).extracting("authority").containsExactly("ROLE_ADMIN");
+        verify(userDetailsService, never()).loadUserByUsername(any());
+    }
+
+    @Test
+    public void statelessMode_rejectsLockedAccounts() throws Exception {
+        String token = jwtService.generateToken(alice);
+
+        accountLockRegistry.markLocked(7L);
+        assertThat(authenticate(token)).isNull();
+
+        accountLockRegistry.markUnlocked(7L);
+        assertThat(authenticate(token)).isNotNull();
+    }
+
+    @Test
+    public void statelessMode_picksUpLocksOnRefresh() throws Exception {
+        String token = jwtService.generateToken(alice);
+        when(userRepository.findLockedUserIds()).thenReturn(List.of(7L));
+
+        accountLockRegistry.refresh();
+
+        assertThat(authenticate(token)).isNull();
+    }
+
+    @Test
+    public void tokensWithoutIdentityClaims_fallBackToLoadingTheUser() throws Exception {
+        when(userDetailsService.loadUserByUsername("alice@example.com")).thenReturn(alice);
+
+        Authentication authentication = authenticate(jwtService.generateToken("alice@example.com"));
+
+        assertThat(authentication.getPrincipal()).isSameAs(alice);
+        verify(userDetailsService).loadUserByUsername("alice@example.com");
+    }
+
+    private Authentication authenticate(String token) throws Exception {
+        SecurityContextHolder.clearContext();
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader("Authorization", "Bearer " + token);
+        filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+        return SecurityContextHolder.getContext().getAuthentication();
+    }
+}
@@ -0,0 +1,132 @@
+package com.banking.security;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH cost of authenticating one request in {@link JwtAuthenticationFilter}: the previous
+ * call pattern (key and parser rebuilt on every parse, five parses per request) against
+ * the current filter with and without the verified-token cache. User lookup is stubbed
+ * so only token handling is measured.
+ * <p>
+ * Run with {@code mvn test -Pbenchmarks -Dtest=JwtFilterBenchmarkTest}.
+ */
+@Tag("benchmark")
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtFilterBenchmarkTest {
+
+    private static final String EMAIL = "alice@example.com";
+
+    private JwtAuthenticationFilter cachedFilter;
+    private JwtAuthenticationFilter uncachedFilter;
+    private UserDetails userDetails;
+    private MockHttpServletRequest request;
+    private FilterChain chain;
+    private String token;
+
+    @Test
+    public void runBenchmarks() throws Exception {
+        new Runner(new OptionsBuilder()
+                .include(JwtFilterBenchmarkTest.class.getSimpleName())
+                .build())
+                .run();
+    }
+
+    @Setup
+    public void setUp() {
+        userDetails = new User(EMAIL, "n/a", List.of());
+        UserDetailsServiceImpl userDetailsService = Mockito.mock(UserDetailsServiceImpl.class);
+        Mockito.when(userDetailsService.loadUserByUsername(EMAIL)).thenReturn(userDetails);
+
+        JwtService cached = JwtServiceTest.jwtService(new SimpleMeterRegistry(), 86_400_000L, 10_000);
+        JwtService uncached = JwtServiceTest.jwtService(new SimpleMeterRegistry(), 86_400_000L, 0);
+        cachedFilter = filter(cached, userDetailsService);
+        uncachedFilter = filter(uncached, userDetailsService);
+
+        token = cached.generateToken(EMAIL);
+        request = new MockHttpServletRequest();
+        request.addHeader("Authorization", "Bearer " + token);
+        chain = (req, res) -> { };
+    }
+
+    @Benchmark
+    public Object previousFilter() {
+        // isTokenValid (subject + expiry), extractUsername, then isTokenValid again
+        boolean valid = legacyIsTokenValid(token);
+        String username = legacyParse(token).getSubject();
+        valid &= username.equals(userDetails.getUsername()) && legacyIsTokenValid(token);
+        SecurityContextHolder.clearContext();
+        return valid;
+    }
+
+    @Benchmark
+    public Object cachedFilter() throws Exception {
+        cachedFilter.doFilter(request, new MockHttpServletResponse(), chain);
+        return clear();
+    }
+
+    @Benchmark
+    public Object uncachedFilter() throws Exception {
+        uncachedFilter.doFilter(request, new MockHttpServletResponse(), chain);
+        return clear();
+    }
+
+    private static Object clear() {
+        Object authentication = SecurityContextHolder.getContext().getAuthentication();
+        SecurityContextHolder.clearContext();
+        return authentication;
+    }
+
+    private static boolean legacyIsTokenValid(String token) {
+        return legacyParse(token).getSubject() != null && !legacyParse(token).getExpiration().before(new Date());
+    }
+
+    private static Claims legacyParse(String token) {
+        return Jwts.parserBuilder()
+                .setSigningKey(Keys.hmacShaKeyFor(Decoders.BASE64.decode(JwtServiceTest.SECRET)))
+                .build()
+                .parseClaimsJws(token)
+                .getBody();
+    }
+
+    private static JwtAuthenticationFilter filter(JwtService jwtService, UserDetailsServiceImpl userDetailsService) {
+        JwtAuthenticationFilter filter = new JwtAuthenticationFilter();
+        ReflectionTestUtils.setField(filter, "jwtService", jwtService);
+        ReflectionTestUtils.setField(filter, "userDetailsService", userDetailsService);
+        return filter;
+    }
+}
@@ -0,0 +1,193 @@
+package com.banking.security;
+
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.security.SignatureException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.security.Key;
+import java.security.KeyPair;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class JwtServiceTest {
+
+    static final String SECRET = "YmFua2luZ1N5c3RlbVNlY3JldEtleUZvckpXVFRva2VuR2VuZXJhdGlvbkFuZFZhbGlkYXRpb24yMDI1";
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    public void verify_servesRepeatTokensFromTheCache() {
+        JwtService jwtService = jwtService(meterRegistry, 86_400_000L, 100);
+        String token = jwtService.generateToken("alice@example.com");
+
+        assertThat(jwtService.verify(token).getSubject()).isEqualTo("alice@example.com");
+        assertThat(jwtService.verify(token).getSubject()).isEqualTo("alice@example.com");
+        assertThat(jwtService.extractUsername(token)).isEqualTo("alice@example.com");
+
+        assertThat(meterRegistry.get("banking.jwt.cache").tag("result", "miss").counter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("banking.jwt.cache").tag("result", "hit").counter().count()).isEqualTo(2);
+    }
+
+    @Test
+    public void verify_rejectsTamperedTokens() {
+        JwtService jwtService = jwtService(meterRegistry, 86_400_000L, 100);
+        String token = jwtService.generateToken("alice@example.com");
+        jwtService.verify(token);
+        String tampered = token.substring(0, token.length() - 2) + (token.endsWith("AA") ? "BB" : "AA");
+
+        assertThatThrownBy(() -> jwtService.verify(tampered)).isInstanceOf(SignatureException.class);
+        assertThat(jwtService.isTokenValid(tampered, null)).isFalse();
+    }
+
+    @Test
+    public void verify_rejectsExpiredTokens() {
+        JwtService jwtService = jwtService(meterRegistry, -1_000L, 100);
+        String token = jwtService.generateToken("alice@example.com");
+
+        assertThatThrownBy(() -> jwtService.verify(token)).isInstanceOf(ExpiredJwtException.class);
+    }
+
+    @Test
+    public void isTokenValid_checksTheOwnerWhenGiven() {
+        JwtService jwtService = jwtService(meterRegistry, 86_400_000L, 100);
+        String token = jwtService.generateToken(Map.of(), new User("alice@example.com", "n/a", List.of()));
+
+        assertThat(jwtService.isTokenValid(token, null)).isTrue();
+        assertThat(jwtService.isTokenValid(token, new User("alice@example.com", "n/a", List.of()))).isTrue();
+        assertThat(jwtService.isTokenValid(token, new User("bob@example.com", "n/a", List.of()))).isFalse();
+    }
+
+    @Test
+    public void es256_signsWithTheActiveKidAndVerifiesAcrossRotation() {
+        KeyPair oldKey = Keys.keyPairFor(SignatureAlgorithm.ES256);
+        KeyPair newKey = Keys.keyPairFor(SignatureAlgorithm.ES256);
+        String bothPublic = "k1=" + base64(oldKey.getPublic()) + ",k2=" + base64(newKey.getPublic());
+
+        JwtService before = jwtService(meterRegistry, 86_400_000L, 0,
+                keyRing(SignatureAlgorithm.ES256, "k1", base64(oldKey.getPrivate()), bothPublic));
+        JwtService after = jwtService(meterRegistry, 86_400_000L, 0,
+                keyRing(SignatureAlgorithm.ES256, "k2", base64(newKey.getPrivate()), bothPublic));
+        JwtService retired = jwtService(meterRegistry, 86_400_000L, 0,
+                keyRing(SignatureAlgorithm.ES256, "k2", base64(newKey.getPrivate()), "k2=" + base64(newKey.getPublic())));
+
+        String oldToken = before.generateToken("alice@example.com");
+        String newToken = after.generateToken("alice@example.com");
+
+        assertThat(Jwts.parserBuilder().build().parse(stripSignature(newToken)).getHeader().get("kid")).isEqualTo("k2");
+        assertThat(after.verify(oldToken).getSubject()).isEqualTo("alice@example.com");
+        assertThat(before.verify(newToken).getSubject()).isEqualTo("alice@example.com");
+        assertThatThrownBy(() -> retired.verify(oldToken)).isInstanceOf(JwtException.class);
+    }
+
+    @Test
+    public void es256_acceptsLegacySecretTokensWithoutKid_untilTheCutoff() {
+        String token = jwtService(meterRegistry, 86_400_000L, 0, keyRing(SignatureAlgorithm.HS256, null, null, null))
+                .generateToken("alice@example.com");
+        JwtKeyRing keyRing = keyRing(SignatureAlgorithm.ES256, null, null, null, "2030-01-01T00:00:00Z");
+        JwtService current = jwtService(meterRegistry, 86_400_000L, 0, keyRing);
+
+        ReflectionTestUtils.setField(keyRing, "clock", Clock.fixed(Instant.parse("2029-12-31T23:59:59Z"), ZoneOffset.UTC));
+        assertThat(current.verify(token).getSubject()).isEqualTo("alice@example.com");
+
+        ReflectionTestUtils.setField(keyRing, "clock", Clock.fixed(Instant.parse("2030-01-01T00:00:00Z"), ZoneOffset.UTC));
+        assertThatThrownBy(() -> current.verify(token)).isInstanceOf(JwtException.class);
+    }
+
+    @Test
+    public void es256_rejectsLegacySecretTokensUnlessOptedIn() {
+        String token = jwtService(meterRegistry, 86_400_000L, 0, keyRing(SignatureAlgorithm.HS256, null, null, null))
+                .generateToken("alice@example.com");
+        JwtService current = jwtService(meterRegistry, 86_400_000L, 0);
+
+        assertThatThrownBy(() -> current.verify(token)).isInstanceOf(JwtException.class);
+    }
+
+    @Test
+    public void es256_withoutSigningKey_failsUnlessEphemeralKeysAreAllowed() {
+        JwtKeyRing keyRing = new JwtKeyRing();
+        ReflectionTestUtils.setField(keyRing, "algorithm", SignatureAlgorithm.ES256);
+
+        assertThatThrownBy(keyRing::init)
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("signing-private-key");
+    }
+
+    @Test
+    public void jwks_publishesEveryVerificationKey() {
+        KeyPair key = Keys.keyPairFor(SignatureAlgorithm.ES256);
+        JwtKeyRing keyRing = keyRing(SignatureAlgorithm.ES256, "k1", base64(key.getPrivate()), "k1=" + base64(key.getPublic()));
+
+        List<?> keys = (List<?>) keyRing.getJwks().get("keys");
+
+        assertThat(keys).hasSize(1);
+        @SuppressWarnings("unchecked")
+        Map<String, Object> jwk = (Map<String, Object>) keys.get(0);
+        assertThat(jwk).containsEntry("kid", "k1").containsEntry("kty", "EC").containsEntry("crv", "P-256");
+        assertThat(Base64.getUrlDecoder().decode((String) jwk.get("x"))).hasSize(32);
+        assertThat(Base64.getUrlDecoder().decode((String) jwk.get("y"))).hasSize(32);
+    }
+
+    @Test
+    public void cache_staysWithinItsBound() {
+        JwtService jwtService = jwtService(meterRegistry, 86_400_000L, 50);
+        for (int i = 0; i < 500; i++) {
+            jwtService.verify(jwtService.generateToken("user" + i + "@example.com"));
+        }
+
+        VerifiedTokenCache cache = (VerifiedTokenCache) ReflectionTestUtils.getField(jwtService, "verifiedTokens");
+        assertThat(cache.size()).isLessThanOrEqualTo(50);
+    }
+
+    static JwtService jwtService(SimpleMeterRegistry meterRegistry, long expirationMs, int cacheMaxSize) {
+        return jwtService(meterRegistry, expirationMs, cacheMaxSize, keyRing(SignatureAlgorithm.ES256, null, null, null));
+    }
+
+    static JwtService jwtService(SimpleMeterRegistry meterRegistry, long expirationMs, int cacheMaxSize, JwtKeyRing keyRing) {
+        JwtService jwtService = new JwtService(meterRegistry, keyRing);
+        ReflectionTestUtils.setField(jwtService, "jwtExpirationMs", expirationMs);
+        ReflectionTestUtils.setField(jwtService, "cacheMaxSize", cacheMaxSize);
+        ReflectionTestUtils.setField(jwtService, "cacheTtlMs", 300_000L);
+        jwtService.init();
+        return jwtService;
+    }
+
+    private static String base64(Key key) {
+        return Base64.getEncoder().encodeToString(key.getEncoded());
+    }
+
+    private static String stripSignature(String token) {
+        return token.substring(0, token.lastIndexOf('.') + 1);
+    }
+
+    static JwtKeyRing keyRing(SignatureAlgorithm algorithm, String signingKid, String signingPrivateKey, String publicKeys) {
+        return keyRing(algorithm, signingKid, signingPrivateKey, publicKeys, null);
+    }
+
+    static JwtKeyRing keyRing(SignatureAlgorithm algorithm, String signingKid, String signingPrivateKey, String publicKeys,
+                              String legacyAcceptUntil) {
+        JwtKeyRing keyRing = new JwtKeyRing();
+        ReflectionTestUtils.setField(keyRing, "algorithm", algorithm);
+        ReflectionTestUtils.setField(keyRing, "secret", SECRET);
+        ReflectionTestUtils.setField(keyRing, "signingKid", signingKid);
+        ReflectionTestUtils.setField(keyRing, "signingPrivateKey", signingPrivateKey);
+        ReflectionTestUtils.setField(keyRing, "publicKeys", publicKeys);
+        ReflectionTestUtils.setField(keyRing, "allowEphemeralKey", true);
+        ReflectionTestUtils.setField(keyRing, "legacyAcceptUntil", legacyAcceptUntil);
+        keyRing.init();
+        return keyRing;
+    }
+}
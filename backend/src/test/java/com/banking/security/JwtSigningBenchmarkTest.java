@@ -0,0 +1,138 @@
+package com.banking.security;
+
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.nio.charset.StandardCharsets;
+import java.security.Key;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.security.Signature;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH sign and verify throughput of the token algorithms we can run, on an access token
+ * with our usual claims. HS256 is the shared-secret baseline, ES256 is the current
+ * default and RS256 is the common alternative. JJWT 0.11 has no EdDSA support, so Ed25519
+ * signs and verifies the same header and payload directly through JCA, for reference.
+ * <p>
+ * Run with {@code mvn test -Pbenchmarks -Dtest=JwtSigningBenchmarkTest}.
+ */
+@Tag("benchmark")
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtSigningBenchmarkTest {
+
+    private static final String ED25519 = "Ed25519";
+
+    @Param({"HS256", "ES256", "RS256", ED25519})
+    private String algorithm;
+
+    private Key signingKey;
+    private JwtParser parser;
+    private String token;
+
+    // Ed25519 only: the public key, header.payload bytes and their signature
+    private PublicKey ed25519PublicKey;
+    private byte[] signingInput;
+    private byte[] ed25519Signature;
+
+    @Test
+    public void runBenchmarks() throws Exception {
+        new Runner(new OptionsBuilder()
+                .include(JwtSigningBenchmarkTest.class.getSimpleName())
+                .build())
+                .run();
+    }
+
+    @Setup
+    public void setUp() throws Exception {
+        if (ED25519.equals(algorithm)) {
+            KeyPair pair = KeyPairGenerator.getInstance(ED25519).generateKeyPair();
+            signingKey = pair.getPrivate();
+            ed25519PublicKey = pair.getPublic();
+            String unsigned = Jwts.builder().setClaims(claims()).compact();
+            signingInput = unsigned.substring(0, unsigned.length() - 1).getBytes(StandardCharsets.US_ASCII);
+            ed25519Signature = ed25519Sign();
+            return;
+        }
+        SignatureAlgorithm alg = SignatureAlgorithm.forName(algorithm);
+        Key verificationKey;
+        if (alg.isHmac()) {
+            signingKey = Keys.secretKeyFor(alg);
+            verificationKey = signingKey;
+        } else {
+            KeyPair pair = Keys.keyPairFor(alg);
+            signingKey = pair.getPrivate();
+            verificationKey = pair.getPublic();
+        }
+        parser = Jwts.parserBuilder().setSigningKey(verificationKey).build();
+        token = jjwtSign();
+    }
+
+    @Benchmark
+    public Object sign() throws Exception {
+        return ED25519.equals(algorithm) ? ed25519Sign() : jjwtSign();
+    }
+
+    @Benchmark
+    public Object verify() throws Exception {
+        if (ED25519.equals(algorithm)) {
+            Signature signature = Signature.getInstance(ED25519);
+            signature.initVerify(ed25519PublicKey);
+            signature.update(signingInput);
+            return signature.verify(ed25519Signature);
+        }
+        return parser.parseClaimsJws(token).getBody();
+    }
+
+    private String jjwtSign() {
+        return Jwts.builder()
+                .setHeaderParam("kid", "k1")
+                .setClaims(claims())
+                .signWith(signingKey, SignatureAlgorithm.forName(algorithm))
+                .compact();
+    }
+
+    private byte[] ed25519Sign() throws Exception {
+        Signature signature = Signature.getInstance(ED25519);
+        signature.initSign((PrivateKey) signingKey);
+        signature.update(signingInput);
+        return signature.sign();
+    }
+
+    private static Map<String, Object> claims() {
+        return Map.of(
+                "sub", "alice@example.com",
+                "uid", 42L,
+                "name", "Alice",
+                "roles", List.of("ROLE_USER"),
+                "iat", System.currentTimeMillis() / 1000,
+                "exp", System.currentTimeMillis() / 1000 + 86_400);
+    }
+}
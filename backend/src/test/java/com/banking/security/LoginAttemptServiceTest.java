@@ -0,0 +1,105 @@
+package com.banking.security;
+
+import com.banking.exception.TooManyRequestsException;
+import com.banking.repository.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.security.authentication.LockedException;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.offset;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class LoginAttemptServiceTest {
+
+    private final UserRepository userRepository = Mockito.mock(UserRepository.class);
+    private final AccountLockRegistry accountLockRegistry = Mockito.mock(AccountLockRegistry.class);
+    private LoginAttemptService service;
+
+    @BeforeEach
+    public void setUp() {
+        when(userRepository.updateAccountLockStatus(anyBoolean(), any(), any())).thenReturn(1);
+        service = new LoginAttemptService(userRepository, accountLockRegistry,
+                Mockito.mock(PlatformTransactionManager.class), new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(service, "emailMaxFailures", 5);
+        ReflectionTestUtils.setField(service, "ipMaxFailures", 20);
+        ReflectionTestUtils.setField(service, "halfLifeMinutes", 10L);
+        ReflectionTestUtils.setField(service, "lockMinutes", 15L);
+        ReflectionTestUtils.setField(service, "ipBlockMinutes", 5L);
+        ReflectionTestUtils.setField(service, "maxTrackedKeys", 1024);
+        service.init();
+    }
+
+    @Test
+    public void repeatedFailures_lockTheAccountWithASingleWrite() {
+        for (int i = 0; i < 4; i++) {
+            service.loginFailed("alice@example.com", "10.0.0." + i);
+        }
+        assertThatCode(() -> service.checkAllowed("alice@example.com", "10.0.0.9")).doesNotThrowAnyException();
+        verify(userRepository, never()).updateAccountLockStatus(anyBoolean(), any(), any());
+
+        service.loginFailed("Alice@Example.com", "10.0.0.5");
+        service.loginFailed("alice@example.com", "10.0.0.6");
+        service.loginFailed("alice@example.com", "10.0.0.7");
+
+        assertThatThrownBy(() -> service.checkAllowed("alice@example.com", "10.0.0.9"))
+                .isInstanceOf(LockedException.class);
+        verify(userRepository, times(1)).updateAccountLockStatus(eq(false), any(), any());
+        verify(accountLockRegistry).refresh();
+    }
+
+    @Test
+    public void successfulLogin_clearsTheFailureScore() {
+        for (int i = 0; i < 4; i++) {
+            service.loginFailed("alice@example.com", null);
+        }
+        service.loginSucceeded("alice@example.com");
+        service.loginFailed("alice@example.com", null);
+
+        assertThatCode(() -> service.checkAllowed("alice@example.com", null)).doesNotThrowAnyException();
+    }
+
+    @Test
+    public void sprayingManyEmailsFromOneIp_throttlesTheIp() {
+        for (int i = 0; i < 20; i++) {
+            service.loginFailed("user" + i + "@example.com", "203.0.113.7");
+        }
+
+        assertThatThrownBy(() -> service.checkAllowed("someone@example.com", "203.0.113.7"))
+                .isInstanceOf(TooManyRequestsException.class);
+        assertThatCode(() -> service.checkAllowed("someone@example.com", "203.0.113.8")).doesNotThrowAnyException();
+        verify(userRepository, never()).updateAccountLockStatus(anyBoolean(), any(), any());
+    }
+
+    @Test
+    public void scores_decayWithTheHalfLife() {
+        StripedDecayingCounter counter = new StripedDecayingCounter(4, 100, 60_000);
+
+        counter.increment("k", 0);
+        assertThat(counter.increment("k", 0)).isEqualTo(2.0);
+        assertThat(counter.increment("k", 60_000)).isCloseTo(2.0, offset(1e-9));
+        assertThat(counter.increment("k", 180_000)).isCloseTo(1.5, offset(1e-9));
+    }
+
+    @Test
+    public void counters_stayWithinTheirBound() {
+        StripedDecayingCounter counter = new StripedDecayingCounter(4, 100, 60_000);
+        for (int i = 0; i < 10_000; i++) {
+            counter.increment("key" + i, i);
+        }
+
+        assertThat(counter.size()).isLessThanOrEqualTo(100);
+    }
+}
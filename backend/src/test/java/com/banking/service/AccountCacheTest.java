@@ -0,0 +1,118 @@
+package com.banking.service;
+
+import com.banking.dto.response.UserResponse;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class AccountCacheTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final PlatformTransactionManager transactionManager = Mockito.mock(PlatformTransactionManager.class);
+    private final Map<Long, BigDecimal> balances = new ConcurrentHashMap<>();
+    private final AtomicInteger loads = new AtomicInteger();
+    private final Function<Long, UserResponse> loader = id -> {
+        loads.incrementAndGet();
+        return UserResponse.builder().id(id).balance(balances.get(id)).build();
+    };
+    private AccountCache accountCache;
+
+    @BeforeEach
+    public void setUp() {
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        accountCache = new AccountCache(transactionManager, meterRegistry);
+        ReflectionTestUtils.setField(accountCache, "maxSize", 100L);
+        ReflectionTestUtils.setField(accountCache, "ttlSeconds", 600L);
+        ReflectionTestUtils.setField(accountCache, "primaryWindowMs", 10_000L);
+        accountCache.init();
+        balances.put(1L, new BigDecimal("100.00"));
+        balances.put(2L, new BigDecimal("5.00"));
+    }
+
+    @AfterEach
+    public void clearSynchronization() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    public void repeatedReads_loadOnce() {
+        for (int i = 0; i < 10; i++) {
+            assertThat(accountCache.get(1L, loader).getBalance()).isEqualByComparingTo("100.00");
+        }
+
+        assertThat(loads).hasValue(1);
+        assertThat(meterRegistry.get("cache.gets").tag("cache", "accounts").tag("result", "hit")
+                .functionCounter().count()).isEqualTo(9);
+        assertThat(meterRegistry.get("banking.cache.accounts.age").timer().count()).isEqualTo(10);
+    }
+
+    @Test
+    public void transfer_isVisibleToTheOwnerOnlyOnceItCompletes() {
+        accountCache.get(1L, loader);
+        accountCache.get(2L, loader);
+
+        TransactionSynchronizationManager.initSynchronization();
+        accountCache.invalidateAfterCompletion(List.of(1L, 2L));
+        balances.put(1L, new BigDecimal("60.00"));
+        balances.put(2L, new BigDecimal("45.00"));
+
+        // Still inside the transfer's transaction: nothing committed yet
+        assertThat(accountCache.get(1L, loader).getBalance()).isEqualByComparingTo("100.00");
+
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+        synchronizations.forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+
+        assertThat(accountCache.get(1L, loader).getBalance()).isEqualByComparingTo("60.00");
+        assertThat(accountCache.get(2L, loader).getBalance()).isEqualByComparingTo("45.00");
+        assertThat(meterRegistry.get("banking.cache.accounts.invalidations").counter().count()).isEqualTo(2);
+    }
+
+    @Test
+    public void invalidationOutsideATransaction_isImmediate() {
+        accountCache.get(1L, loader);
+        balances.put(1L, new BigDecimal("1.00"));
+
+        accountCache.invalidateAfterCompletion(List.of(1L));
+
+        assertThat(accountCache.get(1L, loader).getBalance()).isEqualByComparingTo("1.00");
+        assertThat(loads).hasValue(2);
+    }
+
+    @Test
+    public void reloadAfterAWrite_isReadWriteSoItStaysOnThePrimary() {
+        accountCache.get(1L, loader);
+        accountCache.invalidateAfterCompletion(List.of(1L));
+        accountCache.get(1L, loader);
+        accountCache.get(2L, loader);
+
+        ArgumentCaptor<TransactionDefinition> definitions = ArgumentCaptor.forClass(TransactionDefinition.class);
+        verify(transactionManager, times(3)).getTransaction(definitions.capture());
+        assertThat(definitions.getAllValues()).extracting(TransactionDefinition::isReadOnly)
+                .containsExactly(true, false, true);
+    }
+}
@@ -0,0 +1,221 @@
+package com.banking.service;
+
+import com.banking.controller.TransactionController;
+import com.banking.dto.request.BatchTransferRequest;
+import com.banking.dto.request.TransferRequest;
+import com.banking.dto.response.BatchTransferLineResponse;
+import com.banking.dto.response.BatchTransferResponse;
+import com.banking.exception.InsufficientBalanceException;
+import com.banking.ledger.LedgerEngine;
+import com.banking.model.Transaction;
+import com.banking.model.User;
+import com.banking.model.enums.TransactionStatus;
+import com.banking.model.enums.UserRole;
+import com.banking.repository.TransactionRepository;
+import com.banking.repository.UserRepository;
+import com.banking.security.UserDetailsImpl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+import org.springframework.http.MediaType;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyIterable;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+public class BatchTransferTest {
+
+    private static final long SENDER = 1L;
+
+    private final TransactionRepository transactionRepository = Mockito.mock(TransactionRepository.class);
+    private final UserRepository userRepository = Mockito.mock(UserRepository.class);
+    private final LedgerEngine ledgerEngine = Mockito.mock(LedgerEngine.class);
+    private final VelocityTracker velocityTracker = Mockito.mock(VelocityTracker.class);
+    private TransactionService transactionService;
+
+    @BeforeEach
+    public void setUp() {
+        PlatformTransactionManager transactionManager = Mockito.mock(PlatformTransactionManager.class);
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        TransferExecutor transferExecutor = new TransferExecutor(transactionManager, userRepository,
+                new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(transferExecutor, "lockingMode", TransferLockingMode.SERIALIZABLE);
+        transferExecutor.init();
+
+        transactionService = new TransactionService(transactionRepository, userRepository, ledgerEngine,
+                transferExecutor, Mockito.mock(OutboxService.class), velocityTracker,
+                Mockito.mock(StatementService.class), Mockito.mock(AccountCache.class));
+        ReflectionTestUtils.setField(transactionService, "suspiciousAmount", new BigDecimal("10000"));
+        ReflectionTestUtils.setField(transactionService, "velocityTrackerEnabled", true);
+
+        when(userRepository.findById(SENDER)).thenReturn(Optional.of(user(SENDER)));
+        when(userRepository.findAllById(anyIterable())).thenAnswer(invocation -> {
+            Iterable<Long> ids = invocation.getArgument(0);
+            List<User> found = new ArrayList<>();
+            // Accounts 2 and 3 exist; anything else is unknown
+            ids.forEach(id -> {
+                if (id == 2L || id == 3L) {
+                    found.add(user(id));
+                }
+            });
+            return found;
+        });
+        when(ledgerEngine.getBalance(SENDER)).thenReturn(new BigDecimal("500"));
+        AtomicLong ids = new AtomicLong(100);
+        when(transactionRepository.saveAll(anyIterable())).thenAnswer(invocation -> {
+            Iterable<Transaction> transactions = invocation.getArgument(0);
+            transactions.forEach(transaction -> transaction.setId(ids.incrementAndGet()));
+            return transactions;
+        });
+
+        UserDetailsImpl principal = new UserDetailsImpl(SENDER, "Alice", "alice@example.com", "alice@example.com",
+                null, null, List.of(), true);
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(principal, null, List.of()));
+    }
+
+    @AfterEach
+    public void clearContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    public void unknownAndSelfReceivers_areRejectedPerLine() {
+        BatchTransferResponse response = transactionService.transferBatch(batch(
+                line(2L, "10"), line(SENDER, "10"), line(99L, "10"), line(3L, "20")));
+
+        List<BatchTransferLineResponse> results = response.getResults();
+        assertThat(results.get(1).getError()).isEqualTo("Cannot transfer money to yourself");
+        assertThat(results.get(2).getError()).isEqualTo("Receiver not found");
+        assertThat(results.get(0).getStatus()).isEqualTo(TransactionStatus.COMPLETED);
+        assertThat(results.get(3).getStatus()).isEqualTo(TransactionStatus.COMPLETED);
+        assertThat(response.getRejected()).isEqualTo(2);
+        assertThat(response.getCompleted()).isEqualTo(2);
+        assertThat(response.getTotalDebited()).isEqualByComparingTo("30");
+        verify(ledgerEngine, never()).transfer(anyLong(), eq(SENDER), eq(99L), any());
+        verify(ledgerEngine, never()).transfer(anyLong(), eq(SENDER), eq(SENDER), any());
+    }
+
+    @Test
+    public void insufficientBalanceForTheTotal_rejectsTheWholeBatch() {
+        assertThatThrownBy(() -> transactionService.transferBatch(batch(line(2L, "300"), line(3L, "300"))))
+                .isInstanceOf(InsufficientBalanceException.class);
+
+        verify(ledgerEngine, never()).transfer(anyLong(), anyLong(), anyLong(), any());
+        verify(transactionRepository, never()).saveAll(anyIterable());
+    }
+
+    @Test
+    public void flaggedLines_areRecordedButNotDebited() {
+        when(ledgerEngine.getBalance(SENDER)).thenReturn(new BigDecimal("50000"));
+
+        BatchTransferResponse response = transactionService.transferBatch(batch(line(2L, "10"), line(3L, "20000")));
+
+        assertThat(response.getResults().get(1).getStatus()).isEqualTo(TransactionStatus.FLAGGED);
+        assertThat(response.getFlagged()).isEqualTo(1);
+        assertThat(response.getCompleted()).isEqualTo(1);
+        assertThat(response.getTotalDebited()).isEqualByComparingTo("10");
+        verify(ledgerEngine).transfer(anyLong(), eq(SENDER), eq(2L), any());
+        verify(ledgerEngine, never()).transfer(anyLong(), eq(SENDER), eq(3L), any());
+    }
+
+    @Test
+    public void rows_areInsertedWithOneSaveAll_beforeTheLedgerMovesMoney() {
+        BatchTransferResponse response = transactionService.transferBatch(batch(
+                line(2L, "1"), line(3L, "2"), line(2L, "3")));
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<Iterable<Transaction>> saved = ArgumentCaptor.forClass(Iterable.class);
+        verify(transactionRepository).saveAll(saved.capture());
+        assertThat(saved.getValue()).hasSize(3);
+        verify(transactionRepository, never()).save(any());
+        // Ids come from saveAll, so every ledger movement is tied to its row
+        assertThat(response.getResults()).extracting(BatchTransferLineResponse::getTransactionId)
+                .containsExactly(101L, 102L, 103L);
+        verify(ledgerEngine).transfer(eq(101L), eq(SENDER), eq(2L), any());
+        verify(ledgerEngine).transfer(eq(103L), eq(SENDER), eq(2L), any());
+    }
+
+    @Test
+    public void wholeBatch_countsAsOneVelocitySubmission() {
+        transactionService.transferBatch(batch(line(2L, "1"), line(3L, "2"), line(2L, "3"), line(99L, "4")));
+
+        verify(velocityTracker).record(SENDER, 1);
+    }
+
+    @Test
+    public void batchWithEveryLineRejected_isNotRecorded() {
+        transactionService.transferBatch(batch(line(99L, "1"), line(SENDER, "2")));
+
+        verify(velocityTracker, never()).record(anyLong(), anyInt());
+    }
+
+    @Test
+    public void endpoint_returnsTheCounts_andValidatesTheBatch() throws Exception {
+        MockMvc mockMvc = MockMvcBuilders.standaloneSetup(new TransactionController(transactionService,
+                Mockito.mock(StatementService.class), Mockito.mock(TransactionExportService.class))).build();
+
+        mockMvc.perform(post("/transactions/transfer/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"transfers\":[{\"receiverId\":2,\"amount\":10},{\"receiverId\":99,\"amount\":5}]}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.completed").value(1))
+                .andExpect(jsonPath("$.rejected").value(1))
+                .andExpect(jsonPath("$.flagged").value(0))
+                .andExpect(jsonPath("$.results[1].error").value("Receiver not found"));
+
+        mockMvc.perform(post("/transactions/transfer/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"transfers\":[]}"))
+                .andExpect(status().isBadRequest());
+    }
+
+    private static BatchTransferRequest batch(TransferRequest... lines) {
+        return BatchTransferRequest.builder().transfers(List.of(lines)).build();
+    }
+
+    private static TransferRequest line(Long receiverId, String amount) {
+        return TransferRequest.builder()
+                .receiverId(receiverId)
+                .amount(new BigDecimal(amount))
+                .build();
+    }
+
+    private static User user(Long id) {
+        return User.builder()
+                .id(id)
+                .name("User " + id)
+                .email("user" + id + "@example.com")
+                .password("n/a")
+                .role(UserRole.USER)
+                .balance(new BigDecimal("500"))
+                .accountNonLocked(true)
+                .build();
+    }
+}
@@ -0,0 +1,31 @@
+package com.banking.service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class CsvTest {
+
+    @Test
+    public void plainValues_areWrittenAsIs() {
+        assertThat(Csv.field("Alice")).isEqualTo("Alice");
+        assertThat(Csv.field("Anne-Marie")).isEqualTo("Anne-Marie");
+        assertThat(Csv.field("")).isEmpty();
+        assertThat(Csv.field(null)).isEmpty();
+    }
+
+    @Test
+    public void formulaTriggers_arePrefixedWithAQuote() {
+        assertThat(Csv.field("=HYPERLINK(\"http://evil\")")).isEqualTo("\"'=HYPERLINK(\"\"http://evil\"\")\"");
+        assertThat(Csv.field("+1+1")).isEqualTo("'+1+1");
+        assertThat(Csv.field("-2+3")).isEqualTo("'-2+3");
+        assertThat(Csv.field("@SUM(A1:A2)")).isEqualTo("'@SUM(A1:A2)");
+        assertThat(Csv.field("\t=1")).isEqualTo("'\t=1");
+    }
+
+    @Test
+    public void separatorsAndQuotes_areQuoted() {
+        assertThat(Csv.field("Smith, \"Bob\"")).isEqualTo("\"Smith, \"\"Bob\"\"\"");
+        assertThat(Csv.field("line\nbreak")).isEqualTo("\"line\nbreak\"");
+    }
+}
@@ -0,0 +1,180 @@
+package com.banking.service;
+
+import com.banking.model.Transaction;
+import com.banking.model.User;
+import com.banking.model.enums.TransactionStatus;
+import com.banking.repository.TransactionRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import org.springframework.transaction.support.TransactionCallback;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class PendingTransactionProcessorTest {
+
+    private final TransactionRepository transactionRepository = Mockito.mock(TransactionRepository.class);
+    private final TransactionService transactionService = Mockito.mock(TransactionService.class);
+    private final TransferExecutor transferExecutor = Mockito.mock(TransferExecutor.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private PendingTransactionProcessor processor;
+
+    @BeforeEach
+    public void setUp() {
+        when(transferExecutor.execute(any())).thenAnswer(invocation ->
+                invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(new SimpleTransactionStatus()));
+
+        processor = new PendingTransactionProcessor(transactionRepository, transactionService, transferExecutor,
+                meterRegistry);
+        ReflectionTestUtils.setField(processor, "enabled", false);
+        ReflectionTestUtils.setField(processor, "workers", 4);
+        ReflectionTestUtils.setField(processor, "chunkSize", 3);
+        ReflectionTestUtils.setField(processor, "pollIntervalMs", 5L);
+        ReflectionTestUtils.setField(processor, "maxAttempts", 3);
+        processor.init();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        processor.stop();
+    }
+
+    @Test
+    public void drainOnce_completesABoundedChunkAndCountsOutcomes() {
+        List<Transaction> chunk = List.of(pending(1L, 10L, 20L), pending(2L, 30L, 10L), pending(3L, 40L, 50L));
+        when(transactionRepository.claimPending(3)).thenReturn(chunk);
+        doAnswer(invocation -> {
+            Transaction transaction = invocation.getArgument(0);
+            transaction.setStatus(transaction.getId() == 2L ? TransactionStatus.FAILED : TransactionStatus.COMPLETED);
+            return null;
+        }).when(transactionService).completeTransaction(any());
+
+        assertThat(processor.drainOnce()).isEqualTo(3);
+
+        verify(transferExecutor).execute(any());
+        verify(transferExecutor).lockAccounts(10L, 20L, 30L, 10L, 40L, 50L);
+        chunk.forEach(transaction -> verify(transactionService).completeTransaction(transaction));
+        assertThat(meterRegistry.get("banking.pending.processed").tag("outcome", "completed").counter().count()).isEqualTo(2);
+        assertThat(meterRegistry.get("banking.pending.processed").tag("outcome", "failed").counter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("banking.pending.chunk.size").summary().count()).isEqualTo(1);
+    }
+
+    @Test
+    public void drainOnce_withNothingPending_touchesNoAccounts() {
+        when(transactionRepository.claimPending(anyInt())).thenReturn(List.of());
+
+        assertThat(processor.drainOnce()).isZero();
+
+        verify(transactionService, never()).completeTransaction(any());
+        verify(transferExecutor, never()).lockAccounts(any());
+    }
+
+    @Test
+    public void poisonRow_isIsolated_andMarkedFailedAfterMaxAttempts() {
+        when(transactionRepository.claimPending(3))
+                .thenReturn(List.of(pending(1L, 10L, 20L), pending(2L, 30L, 40L), pending(3L, 50L, 60L)));
+        when(transactionRepository.claimPendingById(anyLong()))
+                .thenAnswer(invocation -> Optional.of(pending(invocation.getArgument(0), 1L, 2L)));
+        doAnswer(invocation -> {
+            Transaction transaction = invocation.getArgument(0);
+            if (transaction.getId() == 2L) {
+                throw new IllegalStateException("Data truncation");
+            }
+            transaction.setStatus(TransactionStatus.COMPLETED);
+            return null;
+        }).when(transactionService).completeTransaction(any());
+        doAnswer(invocation -> {
+            invocation.<Transaction>getArgument(0).setStatus(TransactionStatus.FAILED);
+            return null;
+        }).when(transactionService).failTransaction(any());
+
+        assertThat(processor.drainOnce()).isEqualTo(3);
+
+        // Once in the chunk, then maxAttempts times alone
+        verify(transactionService, times(4)).completeTransaction(argThat(transaction -> transaction.getId() == 2L));
+        verify(transactionService).failTransaction(argThat(transaction -> transaction.getId() == 2L));
+        verify(transactionService, never()).failTransaction(argThat(transaction -> transaction.getId() != 2L));
+        assertThat(meterRegistry.get("banking.pending.processed").tag("outcome", "completed").counter().count()).isEqualTo(2);
+        assertThat(meterRegistry.get("banking.pending.processed").tag("outcome", "failed").counter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("banking.pending.failures").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    public void workers_drainTheBacklogWithoutProcessingARowTwice() throws Exception {
+        // Stands in for SKIP LOCKED: every claim takes rows no other claim can see
+        Queue<Transaction> table = new ConcurrentLinkedQueue<>();
+        for (long id = 1; id <= 1000; id++) {
+            table.add(pending(id, id, id + 1));
+        }
+        when(transactionRepository.claimPending(anyInt())).thenAnswer(invocation -> {
+            List<Transaction> claimed = new ArrayList<>();
+            Transaction next;
+            while (claimed.size() < (int) invocation.getArgument(0) && (next = table.poll()) != null) {
+                claimed.add(next);
+            }
+            return claimed;
+        });
+        Map<Long, AtomicInteger> completions = new ConcurrentHashMap<>();
+        doAnswer(invocation -> {
+            Transaction transaction = invocation.getArgument(0);
+            completions.computeIfAbsent(transaction.getId(), id -> new AtomicInteger()).incrementAndGet();
+            transaction.setStatus(TransactionStatus.COMPLETED);
+            return null;
+        }).when(transactionService).completeTransaction(any());
+        when(transactionRepository.countByStatus(TransactionStatus.PENDING)).thenAnswer(invocation -> (long) table.size());
+
+        ReflectionTestUtils.setField(processor, "enabled", true);
+        processor.start();
+        assertThat(processor.isRunning()).isTrue();
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (completions.size() < 1000 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        processor.refreshBacklog();
+
+        assertThat(completions).hasSize(1000);
+        assertThat(completions.values()).allSatisfy(count -> assertThat(count.get()).isEqualTo(1));
+        assertThat(meterRegistry.get("banking.pending.processed").tag("outcome", "completed").counter().count()).isEqualTo(1000);
+        assertThat(meterRegistry.get("banking.pending.backlog").gauge().value()).isZero();
+
+        processor.stop();
+        assertThat(processor.isRunning()).isFalse();
+    }
+
+    private static Transaction pending(Long id, Long senderId, Long receiverId) {
+        return Transaction.builder()
+                .id(id)
+                .sender(User.builder().id(senderId).build())
+                .receiver(User.builder().id(receiverId).build())
+                .amount(BigDecimal.TEN)
+                .status(TransactionStatus.PENDING)
+                .createdAt(LocalDateTime.now().minusMinutes(5))
+                .build();
+    }
+}
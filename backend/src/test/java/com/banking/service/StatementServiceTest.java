@@ -0,0 +1,227 @@
+package com.banking.service;
+
+import com.banking.ledger.LedgerEngine;
+import com.banking.ledger.LedgerFlusher;
+import com.banking.ledger.LedgerJournal;
+import com.banking.ledger.ShardedLedgerEngine;
+import com.banking.model.AccountDailyBalance;
+import com.banking.model.Transaction;
+import com.banking.model.User;
+import com.banking.model.enums.TransactionStatus;
+import com.banking.repository.AccountDailyBalanceRepository;
+import com.banking.repository.LedgerCheckpointRepository;
+import com.banking.repository.TransactionRepository;
+import com.banking.repository.TransactionRepository.TransactionHistoryView;
+import com.banking.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mockito;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class StatementServiceTest {
+
+    private static final LocalDate DAY = LocalDate.of(2024, 6, 12);
+
+    private final AccountDailyBalanceRepository dailyBalanceRepository = Mockito.mock(AccountDailyBalanceRepository.class);
+    private final TransactionRepository transactionRepository = Mockito.mock(TransactionRepository.class);
+    private final UserRepository userRepository = Mockito.mock(UserRepository.class);
+    private final LedgerEngine ledgerEngine = Mockito.mock(LedgerEngine.class);
+    private final PlatformTransactionManager transactionManager = Mockito.mock(PlatformTransactionManager.class);
+    private StatementService statementService;
+
+    @TempDir
+    Path dir;
+
+    @BeforeEach
+    public void setUp() {
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        statementService = statementService(userRepository, ledgerEngine);
+        when(transactionRepository.getTotalReceivedAmountByUserAndDateRange(anyLong(), any(), any()))
+                .thenReturn(BigDecimal.ZERO);
+        when(transactionRepository.getTotalSentAmountByUserAndDateRange(anyLong(), any(), any()))
+                .thenReturn(BigDecimal.ZERO);
+    }
+
+    @Test
+    public void completedTransfers_areNettedIntoTodaysClosePerAccount() {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDate today = now.toLocalDate();
+        LocalDateTime endOfToday = today.plusDays(1).atStartOfDay();
+        // Account 1 already has a close today; 2 closed two days ago; 3 has never closed
+        when(dailyBalanceRepository.addDelta(eq(1L), eq(today), any())).thenReturn(1);
+        when(dailyBalanceRepository.findFirstByUserIdAndBalanceDateLessThanOrderByBalanceDateDesc(2L, today))
+                .thenReturn(Optional.of(close(today.minusDays(2), "5.00")));
+        when(transactionRepository.getTotalReceivedAmountByUserAndDateRange(2L, today.minusDays(1).atStartOfDay(), endOfToday))
+                .thenReturn(new BigDecimal("20.00"));
+        when(userRepository.findBalanceById(3L)).thenReturn(Optional.of(new BigDecimal("1.00")));
+        when(transactionRepository.getTotalReceivedAmountByUserAndDateRange(3L, today.atStartOfDay(), endOfToday))
+                .thenReturn(new BigDecimal("10.00"));
+
+        statementService.recordCompleted(List.of(
+                transaction(1L, 2L, "20.00", TransactionStatus.COMPLETED, now),
+                transaction(1L, 3L, "10.00", TransactionStatus.COMPLETED, now),
+                transaction(1L, 3L, "99.00", TransactionStatus.FLAGGED, now)));
+
+        verify(dailyBalanceRepository).addDelta(1L, today, new BigDecimal("-30.00"));
+        verify(dailyBalanceRepository, never()).applyDelta(eq(1L), any(), any(), any());
+        verify(dailyBalanceRepository).applyDelta(2L, today, new BigDecimal("25.00"), new BigDecimal("20.00"));
+        verify(dailyBalanceRepository).applyDelta(3L, today, new BigDecimal("11.00"), new BigDecimal("10.00"));
+        verify(dailyBalanceRepository, never()).shiftAfter(anyLong(), any(), any());
+        verify(ledgerEngine, never()).getBalance(anyLong());
+    }
+
+    @Test
+    public void firstCloseOfTheDay_underTheShardedLedger_includesTheUncommittedCredit() throws Exception {
+        UserRepository balances = Mockito.mock(UserRepository.class);
+        when(balances.findBalanceById(1L)).thenReturn(Optional.of(new BigDecimal("100.00")));
+        when(balances.findBalanceById(2L)).thenReturn(Optional.of(new BigDecimal("5.00")));
+        when(balances.findAllBalances()).thenReturn(List.of());
+        LedgerJournal journal = new LedgerJournal();
+        ReflectionTestUtils.setField(journal, "journalPath", dir.resolve("ledger.journal").toString());
+        ReflectionTestUtils.setField(journal, "fsync", false);
+        journal.open();
+        ShardedLedgerEngine engine = new ShardedLedgerEngine(journal, new LedgerFlusher(balances,
+                Mockito.mock(LedgerCheckpointRepository.class), transactionRepository), balances, transactionManager);
+        ReflectionTestUtils.setField(engine, "shardCount", 2);
+        ReflectionTestUtils.setField(engine, "flushBatchSize", 100);
+        ReflectionTestUtils.setField(engine, "warmOnStartup", false);
+        engine.start();
+        statementService = statementService(balances, engine);
+
+        LocalDateTime now = LocalDateTime.now();
+        LocalDate today = now.toLocalDate();
+        when(transactionRepository.getTotalReceivedAmountByUserAndDateRange(eq(2L), any(), any()))
+                .thenReturn(new BigDecimal("30.00"));
+        when(transactionRepository.getTotalSentAmountByUserAndDateRange(eq(1L), any(), any()))
+                .thenReturn(new BigDecimal("30.00"));
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            engine.transfer(501L, 1L, 2L, new BigDecimal("30.00"));
+            // Receiver's credit waits for the commit, so the ledger still says 5.00 here
+            assertThat(engine.getBalance(2L)).isEqualByComparingTo("5.00");
+
+            statementService.recordCompleted(List.of(
+                    transaction(1L, 2L, "30.00", TransactionStatus.COMPLETED, now)));
+
+            verify(dailyBalanceRepository).applyDelta(1L, today, new BigDecimal("70.00"), new BigDecimal("-30.00"));
+            verify(dailyBalanceRepository).applyDelta(2L, today, new BigDecimal("35.00"), new BigDecimal("30.00"));
+        } finally {
+            List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+            TransactionSynchronizationManager.clearSynchronization();
+            synchronizations.forEach(synchronization ->
+                    synchronization.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+            engine.stop();
+            journal.close();
+        }
+    }
+
+    @Test
+    public void balanceAsOf_addsTheSameDayDeltaToThePreviousClose() {
+        LocalDateTime at = DAY.atTime(15, 30);
+        when(dailyBalanceRepository.findFirstByUserIdAndBalanceDateLessThanOrderByBalanceDateDesc(7L, DAY))
+                .thenReturn(Optional.of(close(DAY.minusDays(3), "100.00")));
+        when(transactionRepository.getTotalReceivedAmountByUserAndDateRange(7L, DAY.atStartOfDay(), at))
+                .thenReturn(new BigDecimal("25.00"));
+        when(transactionRepository.getTotalSentAmountByUserAndDateRange(7L, DAY.atStartOfDay(), at))
+                .thenReturn(new BigDecimal("5.00"));
+
+        assertThat(statementService.getBalanceAsOf(7L, at)).isEqualByComparingTo("120.00");
+    }
+
+    @Test
+    public void balanceAsOf_beforeTheFirstClose_walksBackFromIt() {
+        LocalDateTime at = DAY.atTime(9, 0);
+        LocalDateTime endOfFirstDay = DAY.plusDays(2).atStartOfDay();
+        when(dailyBalanceRepository.findFirstByUserIdAndBalanceDateLessThanOrderByBalanceDateDesc(7L, DAY))
+                .thenReturn(Optional.empty());
+        when(dailyBalanceRepository.findFirstByUserIdAndBalanceDateGreaterThanEqualOrderByBalanceDateAsc(7L, DAY))
+                .thenReturn(Optional.of(close(DAY.plusDays(1), "50.00")));
+        when(transactionRepository.getTotalReceivedAmountByUserAndDateRange(7L, at, endOfFirstDay))
+                .thenReturn(new BigDecimal("50.00"));
+        when(transactionRepository.getTotalSentAmountByUserAndDateRange(7L, at, endOfFirstDay))
+                .thenReturn(BigDecimal.ZERO);
+
+        assertThat(statementService.getBalanceAsOf(7L, at)).isEqualByComparingTo("0.00");
+    }
+
+    @Test
+    public void export_streamsKeysetChunksWithARunningBalance() throws Exception {
+        LocalDateTime start = DAY.withDayOfMonth(1).atStartOfDay();
+        LocalDateTime end = start.plusMonths(1);
+        TransactionHistoryView first = row(10L, 8L, "Bob", 7L, "Alice", "40.00", DAY.atTime(9, 0));
+        TransactionHistoryView second = row(11L, 7L, "Alice", 9L, "Acme, Inc.", "15.50", DAY.atTime(10, 0));
+        TransactionHistoryView third = row(12L, 8L, "Bob", 7L, "Alice", "1.00", DAY.atTime(11, 0));
+        when(transactionRepository.findStatementChunk(7L, start, Long.MIN_VALUE, end, 2)).thenReturn(List.of(first, second));
+        when(transactionRepository.findStatementChunk(7L, DAY.atTime(10, 0), 11L, end, 2)).thenReturn(List.of(third));
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        statementService.writeStatement(7L, start, end, new BigDecimal("100.00"), out);
+
+        assertThat(out.toString(StandardCharsets.UTF_8).split("\n")).containsExactly(
+                "id,created_at,counterparty_id,counterparty_name,direction,amount,balance",
+                "10,2024-06-12T09:00,8,Bob,CREDIT,40.00,140.00",
+                "11,2024-06-12T10:00,9,\"Acme, Inc.\",DEBIT,15.50,124.50",
+                "12,2024-06-12T11:00,8,Bob,CREDIT,1.00,125.50");
+        verify(transactionRepository, Mockito.times(2)).findStatementChunk(eq(7L), any(), anyLong(), eq(end), anyInt());
+    }
+
+    private StatementService statementService(UserRepository users, LedgerEngine engine) {
+        StatementService service = new StatementService(dailyBalanceRepository, transactionRepository, users,
+                engine, transactionManager);
+        ReflectionTestUtils.setField(service, "exportChunkSize", 2);
+        service.init();
+        return service;
+    }
+
+    private static Transaction transaction(Long senderId, Long receiverId, String amount,
+                                           TransactionStatus status, LocalDateTime createdAt) {
+        return Transaction.builder()
+                .sender(User.builder().id(senderId).build())
+                .receiver(User.builder().id(receiverId).build())
+                .amount(new BigDecimal(amount))
+                .status(status)
+                .createdAt(createdAt)
+                .build();
+    }
+
+    private static AccountDailyBalance close(LocalDate date, String balance) {
+        return AccountDailyBalance.builder().userId(7L).balanceDate(date).closingBalance(new BigDecimal(balance)).build();
+    }
+
+    private static TransactionHistoryView row(Long id, Long senderId, String senderName, Long receiverId,
+                                              String receiverName, String amount, LocalDateTime createdAt) {
+        TransactionHistoryView row = Mockito.mock(TransactionHistoryView.class);
+        when(row.getId()).thenReturn(id);
+        when(row.getSenderId()).thenReturn(senderId);
+        when(row.getSenderName()).thenReturn(senderName);
+        when(row.getReceiverId()).thenReturn(receiverId);
+        when(row.getReceiverName()).thenReturn(receiverName);
+        when(row.getAmount()).thenReturn(new BigDecimal(amount));
+        when(row.getCreatedAt()).thenReturn(createdAt);
+        return row;
+    }
+}
@@ -0,0 +1,136 @@
+package com.banking.service;
+
+import com.banking.dto.request.TransferRequest;
+import com.banking.dto.response.TransactionResponse;
+import com.banking.exception.InsufficientBalanceException;
+import com.banking.ledger.LedgerEngine;
+import com.banking.model.Transaction;
+import com.banking.model.User;
+import com.banking.model.enums.TransactionStatus;
+import com.banking.model.enums.UserRole;
+import com.banking.repository.TransactionRepository;
+import com.banking.repository.UserRepository;
+import com.banking.security.UserDetailsImpl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class TransactionCompletionTest {
+
+    private final TransactionRepository transactionRepository = Mockito.mock(TransactionRepository.class);
+    private final UserRepository userRepository = Mockito.mock(UserRepository.class);
+    private final LedgerEngine ledgerEngine = Mockito.mock(LedgerEngine.class);
+    private final StatementService statementService = Mockito.mock(StatementService.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final List<TransactionStatus> savedStatuses = new ArrayList<>();
+    private TransactionService transactionService;
+
+    @BeforeEach
+    public void setUp() {
+        PlatformTransactionManager transactionManager = Mockito.mock(PlatformTransactionManager.class);
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        TransferExecutor transferExecutor = new TransferExecutor(transactionManager, userRepository, meterRegistry);
+        ReflectionTestUtils.setField(transferExecutor, "lockingMode", TransferLockingMode.OPTIMISTIC);
+        ReflectionTestUtils.setField(transferExecutor, "maxAttempts", 3);
+        ReflectionTestUtils.setField(transferExecutor, "backoffBaseMs", 1L);
+        ReflectionTestUtils.setField(transferExecutor, "backoffMaxMs", 1L);
+        transferExecutor.init();
+
+        transactionService = new TransactionService(transactionRepository, userRepository, ledgerEngine,
+                transferExecutor, Mockito.mock(OutboxService.class), Mockito.mock(VelocityTracker.class),
+                statementService, Mockito.mock(AccountCache.class));
+        ReflectionTestUtils.setField(transactionService, "suspiciousAmount", new BigDecimal("10000"));
+        ReflectionTestUtils.setField(transactionService, "velocityTrackerEnabled", true);
+
+        when(userRepository.findById(1L)).thenReturn(Optional.of(user(1L)));
+        when(userRepository.findById(2L)).thenReturn(Optional.of(user(2L)));
+        when(ledgerEngine.getBalance(1L)).thenReturn(new BigDecimal("100"));
+        AtomicLong ids = new AtomicLong();
+        when(transactionRepository.save(any(Transaction.class))).thenAnswer(invocation -> {
+            Transaction transaction = invocation.getArgument(0);
+            if (transaction.getId() == null) {
+                transaction.setId(ids.incrementAndGet());
+            }
+            savedStatuses.add(transaction.getStatus());
+            return transaction;
+        });
+
+        UserDetailsImpl principal = new UserDetailsImpl(1L, "Alice", "alice@example.com", "alice@example.com",
+                null, null, List.of(), true);
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(principal, null, List.of()));
+    }
+
+    @AfterEach
+    public void clearContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    public void concurrentVersionBump_isRetried_notMarkedFailed() {
+        // Another transfer bumped users.version; the auto-flush before the statement upsert detects it
+        doThrow(new ObjectOptimisticLockingFailureException(User.class, 1L))
+                .doNothing()
+                .when(statementService).recordCompleted(anyList());
+
+        TransactionResponse response = transactionService.transferMoney(transfer(2L, "40"));
+
+        assertThat(response.getStatus()).isEqualTo(TransactionStatus.COMPLETED);
+        assertThat(savedStatuses).doesNotContain(TransactionStatus.FAILED);
+        assertThat(meterRegistry.get("banking.transfer.retries").counter().count()).isEqualTo(1);
+        verify(ledgerEngine, times(2)).transfer(anyLong(), Mockito.eq(1L), Mockito.eq(2L), any());
+    }
+
+    @Test
+    public void insufficientBalanceInTheLedger_marksTheTransactionFailed() {
+        doThrow(new InsufficientBalanceException("Insufficient balance"))
+                .when(ledgerEngine).transfer(anyLong(), anyLong(), anyLong(), any());
+
+        TransactionResponse response = transactionService.transferMoney(transfer(2L, "40"));
+
+        assertThat(response.getStatus()).isEqualTo(TransactionStatus.FAILED);
+        assertThat(meterRegistry.get("banking.transfer.retries").counter().count()).isZero();
+    }
+
+    private static TransferRequest transfer(Long receiverId, String amount) {
+        return TransferRequest.builder()
+                .receiverId(receiverId)
+                .amount(new BigDecimal(amount))
+                .build();
+    }
+
+    private static User user(Long id) {
+        return User.builder()
+                .id(id)
+                .name("User " + id)
+                .email("user" + id + "@example.com")
+                .password("n/a")
+                .role(UserRole.USER)
+                .balance(new BigDecimal("100"))
+                .accountNonLocked(true)
+                .build();
+    }
+}
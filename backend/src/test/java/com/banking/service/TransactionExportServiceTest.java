@@ -0,0 +1,189 @@
+package com.banking.service;
+
+import com.banking.model.enums.TransactionStatus;
+import com.banking.repository.TransactionRepository.TransactionHistoryView;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class TransactionExportServiceTest {
+
+    private static final LocalDateTime T0 = LocalDateTime.of(2024, 6, 1, 12, 0);
+    private static final long LOAD_ROWS = 5_000_000;
+
+    private final ObjectMapper objectMapper = objectMapper();
+    private final TransactionExportService exportService = new TransactionExportService(null, null, objectMapper);
+
+    @Test
+    public void csv_writesAHeaderAndQuotesNames() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        long written = exportService.write(rows(1, 3), ExportFormat.CSV, out);
+
+        assertThat(written).isEqualTo(2);
+        assertThat(out.toString(StandardCharsets.UTF_8).split("\n")).containsExactly(
+                "id,created_at,sender_id,sender_name,receiver_id,receiver_name,amount,status,flagged",
+                "1,2024-06-01T12:00:01,7,Alice,8,\"Smith, \"\"Bob\"\"\",10.25,COMPLETED,false",
+                "2,2024-06-01T12:00:02,7,Alice,8,\"Smith, \"\"Bob\"\"\",10.25,COMPLETED,true");
+    }
+
+    @Test
+    public void ndjson_writesOneObjectPerLine() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        long written = exportService.write(rows(1, 4), ExportFormat.NDJSON, out);
+
+        String body = out.toString(StandardCharsets.UTF_8);
+        assertThat(written).isEqualTo(3);
+        assertThat(body).endsWith("}\n");
+        List<String> lines = body.lines().toList();
+        assertThat(lines).hasSize(3);
+        JsonNode first = objectMapper.readTree(lines.get(0));
+        assertThat(first.get("id").asLong()).isEqualTo(1);
+        assertThat(first.get("receiverName").asText()).isEqualTo("Smith, \"Bob\"");
+        assertThat(first.get("amount").decimalValue()).isEqualByComparingTo("10.25");
+        assertThat(first.get("createdAt").asText()).isEqualTo("2024-06-01T12:00:01");
+    }
+
+    @Test
+    public void emptyExport_isJustTheHeader() throws Exception {
+        ByteArrayOutputStream csv = new ByteArrayOutputStream();
+        ByteArrayOutputStream ndjson = new ByteArrayOutputStream();
+
+        exportService.write(Stream.empty(), ExportFormat.CSV, csv);
+        exportService.write(Stream.empty(), ExportFormat.NDJSON, ndjson);
+
+        assertThat(csv.toString(StandardCharsets.UTF_8)).hasLineCount(1);
+        assertThat(ndjson.size()).isZero();
+    }
+
+    /**
+     * Exports five million rows per format in a child JVM capped at 32 MB of heap. Anything
+     * holding on to rows would run out of memory long before the end.
+     */
+    @Test
+    @Tag("benchmark")
+    public void fiveMillionRows_exportWithinASmallHeap() throws Exception {
+        for (ExportFormat format : ExportFormat.values()) {
+            Process child = new ProcessBuilder(
+                    System.getProperty("java.home") + File.separator + "bin" + File.separator + "java",
+                    "-Xmx32m", "-XX:+UseSerialGC",
+                    "-cp", System.getProperty("java.class.path"),
+                    TransactionExportServiceTest.class.getName(), format.name())
+                    .redirectErrorStream(true)
+                    .start();
+            String output = new String(child.getInputStream().readAllBytes(), StandardCharsets.UTF_8).trim();
+
+            assertThat(child.waitFor(5, TimeUnit.MINUTES)).isTrue();
+            System.out.printf("%s export: %s%n", format, output);
+            assertThat(child.exitValue()).as(output).isZero();
+            assertThat(output).startsWith(LOAD_ROWS + " rows");
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        ExportFormat format = ExportFormat.valueOf(args[0]);
+        CountingOutputStream out = new CountingOutputStream();
+        long started = System.nanoTime();
+
+        long written = new TransactionExportService(null, null, objectMapper())
+                .write(rows(1, LOAD_ROWS + 1), format, out);
+
+        long millis = (System.nanoTime() - started) / 1_000_000;
+        Runtime runtime = Runtime.getRuntime();
+        System.out.printf("%d rows, %d MB in %d ms, heap max %d MB%n", written, out.bytes >> 20, millis,
+                runtime.maxMemory() >> 20);
+    }
+
+    private static Stream<TransactionHistoryView> rows(long fromId, long toId) {
+        return LongStream.range(fromId, toId).mapToObj(GeneratedRow::new);
+    }
+
+    private static ObjectMapper objectMapper() {
+        return JsonMapper.builder()
+                .findAndAddModules()
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+    }
+
+    private record GeneratedRow(long id) implements TransactionHistoryView {
+
+        private static final BigDecimal AMOUNT = new BigDecimal("10.25");
+
+        @Override
+        public Long getId() {
+            return id;
+        }
+
+        @Override
+        public Long getSenderId() {
+            return 7L;
+        }
+
+        @Override
+        public String getSenderName() {
+            return "Alice";
+        }
+
+        @Override
+        public Long getReceiverId() {
+            return 8L;
+        }
+
+        @Override
+        public String getReceiverName() {
+            return "Smith, \"Bob\"";
+        }
+
+        @Override
+        public BigDecimal getAmount() {
+            return AMOUNT;
+        }
+
+        @Override
+        public TransactionStatus getStatus() {
+            return TransactionStatus.COMPLETED;
+        }
+
+        @Override
+        public Boolean getFlagged() {
+            return id % 2 == 0;
+        }
+
+        @Override
+        public LocalDateTime getCreatedAt() {
+            return T0.plusSeconds(id);
+        }
+    }
+
+    private static final class CountingOutputStream extends OutputStream {
+
+        private long bytes;
+
+        @Override
+        public void write(int b) {
+            bytes++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            bytes += len;
+        }
+    }
+}
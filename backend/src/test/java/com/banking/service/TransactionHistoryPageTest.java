@@ -0,0 +1,110 @@
+package com.banking.service;
+
+import com.banking.dto.response.CursorPageResponse;
+import com.banking.dto.response.TransactionResponse;
+import com.banking.exception.BadRequestException;
+import com.banking.ledger.LedgerEngine;
+import com.banking.model.enums.TransactionStatus;
+import com.banking.repository.TransactionRepository;
+import com.banking.repository.TransactionRepository.TransactionHistoryView;
+import com.banking.repository.UserRepository;
+import com.banking.security.UserDetailsImpl;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class TransactionHistoryPageTest {
+
+    private static final LocalDateTime T0 = LocalDateTime.of(2024, 6, 1, 12, 0, 0, 123_456_000);
+
+    private final TransactionRepository transactionRepository = Mockito.mock(TransactionRepository.class);
+    private TransactionService transactionService;
+
+    @BeforeEach
+    public void setUp() {
+        transactionService = new TransactionService(transactionRepository, Mockito.mock(UserRepository.class),
+                Mockito.mock(LedgerEngine.class), Mockito.mock(TransferExecutor.class),
+                Mockito.mock(OutboxService.class), Mockito.mock(VelocityTracker.class),
+                Mockito.mock(StatementService.class), Mockito.mock(AccountCache.class));
+        UserDetailsImpl principal = new UserDetailsImpl(7L, "Alice", "alice@example.com", "alice@example.com",
+                null, null, List.of(), true);
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(principal, null, List.of()));
+    }
+
+    @AfterEach
+    public void clearContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    public void cursor_roundTripsToTheMicrosecond() {
+        KeysetCursor cursor = new KeysetCursor(T0, 987_654_321L);
+
+        String token = cursor.encode();
+
+        assertThat(token).hasSize(22).doesNotContain("=", "+", "/");
+        assertThat(KeysetCursor.decode(token)).isEqualTo(cursor);
+        assertThat(KeysetCursor.decode(null)).isEqualTo(KeysetCursor.START);
+        assertThatThrownBy(() -> KeysetCursor.decode("not-a-cursor")).isInstanceOf(BadRequestException.class);
+    }
+
+    @Test
+    public void firstPage_startsAtTheTopAndPointsAtItsLastRow() {
+        List<TransactionHistoryView> rows = rows(4);
+        when(transactionRepository.findHistoryPage(eq(7L), eq(KeysetCursor.START.createdAt()),
+                eq(Long.MAX_VALUE), isNull(), eq(4))).thenReturn(rows);
+
+        CursorPageResponse<TransactionResponse> page = transactionService.getTransactionHistory(null, 3, null);
+
+        assertThat(page.getItems()).extracting(TransactionResponse::getId).containsExactly(100L, 99L, 98L);
+        assertThat(page.isHasMore()).isTrue();
+        assertThat(KeysetCursor.decode(page.getNextCursor())).isEqualTo(new KeysetCursor(T0.minusSeconds(2), 98L));
+    }
+
+    @Test
+    public void lastPage_hasNoNextCursor() {
+        KeysetCursor position = new KeysetCursor(T0, 50L);
+        List<TransactionHistoryView> rows = rows(2);
+        when(transactionRepository.findHistoryPage(7L, T0, 50L, "COMPLETED", 11)).thenReturn(rows);
+
+        CursorPageResponse<TransactionResponse> page =
+                transactionService.getTransactionHistory(position.encode(), 10, TransactionStatus.COMPLETED);
+
+        assertThat(page.getItems()).hasSize(2);
+        assertThat(page.isHasMore()).isFalse();
+        assertThat(page.getNextCursor()).isNull();
+        verify(transactionRepository).findHistoryPage(7L, T0, 50L, "COMPLETED", 11);
+    }
+
+    private static List<TransactionHistoryView> rows(int count) {
+        List<TransactionHistoryView> rows = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            TransactionHistoryView row = Mockito.mock(TransactionHistoryView.class);
+            when(row.getId()).thenReturn(100L - i);
+            when(row.getSenderId()).thenReturn(7L);
+            when(row.getReceiverId()).thenReturn(8L);
+            when(row.getAmount()).thenReturn(BigDecimal.TEN);
+            when(row.getStatus()).thenReturn(TransactionStatus.COMPLETED);
+            when(row.getFlagged()).thenReturn(false);
+            when(row.getCreatedAt()).thenReturn(T0.minusSeconds(i));
+            rows.add(row);
+        }
+        return rows;
+    }
+}
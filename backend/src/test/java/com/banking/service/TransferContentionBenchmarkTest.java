@@ -0,0 +1,193 @@
+package com.banking.service;
+
+import com.banking.dto.request.TransferRequest;
+import com.banking.events.TransactionEvent;
+import com.banking.model.User;
+import com.banking.model.enums.UserRole;
+import com.banking.repository.TransactionRepository;
+import com.banking.repository.UserRepository;
+import com.banking.security.UserDetailsImpl;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.dao.PessimisticLockingFailureException;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.MySQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Fires opposing A->B / B->A transfers at a real MySQL and reports deadlocks, retries,
+ * throughput and latency for the configured locking mode.
+ * <p>
+ * Run with {@code mvn test -Pbenchmarks -Dtest=TransferContentionBenchmarkTest -Dharness.locking-mode=SERIALIZABLE}
+ * (or ORDERED, OPTIMISTIC) to compare modes under identical load. Each account sends fewer transfers
+ * than the fraud velocity threshold so every transfer actually moves money.
+ */
+@Tag("benchmark")
+@Testcontainers(disabledWithoutDocker = true)
+@SpringBootTest
+@ActiveProfiles("test")
+public class TransferContentionBenchmarkTest {
+
+    private static final int PAIRS = Integer.getInteger("harness.pairs", 500);
+    private static final int TRANSFERS_PER_DIRECTION = 4;
+    private static final int THREADS = Integer.getInteger("harness.threads", 32);
+    private static final int MAX_ATTEMPTS = 10;
+
+    @Container
+    static MySQLContainer<?> mysql = new MySQLContainer<>("mysql:8.0");
+
+    @DynamicPropertySource
+    static void properties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", mysql::getJdbcUrl);
+        registry.add("spring.datasource.username", mysql::getUsername);
+        registry.add("spring.datasource.password", mysql::getPassword);
+        registry.add("spring.jpa.show-sql", () -> "false");
+        registry.add("spring.kafka.admin.auto-create", () -> "false");
+        registry.add("app.outbox.enabled", () -> "false");
+        registry.add("app.transfer.locking-mode", () -> System.getProperty("harness.locking-mode", "ORDERED"));
+    }
+
+    @MockBean
+    private KafkaTemplate<String, TransactionEvent> kafkaTemplate;
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private TransferExecutor transferExecutor;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Test
+    public void opposingTransfers() throws Exception {
+        transactionRepository.deleteAll();
+        userRepository.deleteAll();
+
+        List<Runnable> tasks = new ArrayList<>();
+        AtomicInteger deadlocks = new AtomicInteger();
+        AtomicInteger retries = new AtomicInteger();
+        AtomicInteger failures = new AtomicInteger();
+        long[] latencies = new long[PAIRS * TRANSFERS_PER_DIRECTION * 2];
+        AtomicInteger completed = new AtomicInteger();
+
+        for (int pair = 0; pair < PAIRS; pair++) {
+            User a = createUser("a" + pair);
+            User b = createUser("b" + pair);
+            // Interleave directions so both sides of a pair are in flight at the same time
+            for (int i = 0; i < TRANSFERS_PER_DIRECTION; i++) {
+                tasks.add(transfer(a, b, deadlocks, retries, failures, latencies, completed));
+                tasks.add(transfer(b, a, deadlocks, retries, failures, latencies, completed));
+            }
+        }
+
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        long start = System.nanoTime();
+        List<Future<?>> futures = new ArrayList<>();
+        tasks.forEach(task -> futures.add(pool.submit(task)));
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        long elapsedNanos = System.nanoTime() - start;
+        pool.shutdown();
+        pool.awaitTermination(1, TimeUnit.MINUTES);
+
+        long[] sorted = Arrays.copyOf(latencies, completed.get());
+        Arrays.sort(sorted);
+        System.out.printf(
+                "mode=%s transfers=%d deadlocks=%d retries=%d failures=%d throughput=%.1f/s p50=%.2fms p99=%.2fms%n",
+                transferExecutor.getLockingMode(), tasks.size(), deadlocks.get(), retries.get(), failures.get(),
+                tasks.size() / (elapsedNanos / 1e9),
+                percentile(sorted, 0.50) / 1e6, percentile(sorted, 0.99) / 1e6);
+        System.out.printf("executor retries=%.0f aborts=%.0f%n",
+                meterRegistry.counter("banking.transfer.retries", "mode", transferExecutor.getLockingMode().name()).count(),
+                meterRegistry.counter("banking.transfer.aborts", "mode", transferExecutor.getLockingMode().name()).count());
+
+        if (transferExecutor.getLockingMode() == TransferLockingMode.ORDERED) {
+            assertThat(deadlocks.get()).isZero();
+        }
+        assertThat(failures.get()).isZero();
+    }
+
+    private Runnable transfer(User from, User to, AtomicInteger deadlocks, AtomicInteger retries,
+                              AtomicInteger failures, long[] latencies, AtomicInteger completed) {
+        TransferRequest request = TransferRequest.builder()
+                .receiverId(to.getId())
+                .amount(BigDecimal.ONE)
+                .build();
+        UserDetailsImpl principal = UserDetailsImpl.build(from);
+
+        return () -> {
+            SecurityContextHolder.getContext().setAuthentication(
+                    new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities()));
+            long start = System.nanoTime();
+            try {
+                for (int attempt = 1; ; attempt++) {
+                    try {
+                        transactionService.transferMoney(request);
+                        break;
+                    } catch (ConcurrencyFailureException e) {
+                        if (e instanceof PessimisticLockingFailureException) {
+                            deadlocks.incrementAndGet();
+                        }
+                        if (attempt == MAX_ATTEMPTS) {
+                            failures.incrementAndGet();
+                            return;
+                        }
+                        retries.incrementAndGet();
+                    }
+                }
+                latencies[completed.getAndIncrement()] = System.nanoTime() - start;
+            } finally {
+                SecurityContextHolder.clearContext();
+            }
+        };
+    }
+
+    private User createUser(String name) {
+        return userRepository.save(User.builder()
+                .name(name)
+                .email(name + "@harness.test")
+                .password("n/a")
+                .role(UserRole.USER)
+                .balance(new BigDecimal("1000.0000"))
+                .accountNonLocked(true)
+                .build());
+    }
+
+    private static long percentile(long[] sorted, double percentile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        return sorted[Math.min(sorted.length - 1, (int) Math.ceil(percentile * sorted.length) - 1)];
+    }
+}
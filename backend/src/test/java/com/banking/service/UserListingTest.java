@@ -0,0 +1,97 @@
+package com.banking.service;
+
+import com.banking.dto.request.UserFilterRequest;
+import com.banking.dto.response.CursorPageResponse;
+import com.banking.dto.response.UserResponse;
+import com.banking.ledger.LedgerEngine;
+import com.banking.model.enums.UserRole;
+import com.banking.repository.UserRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.data.domain.PageRequest;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class UserListingTest {
+
+    private static final LocalDateTime T0 = LocalDateTime.of(2024, 6, 1, 12, 0);
+
+    private final UserRepository userRepository = Mockito.mock(UserRepository.class);
+    private final UserService userService = new UserService(userRepository, Mockito.mock(LedgerEngine.class),
+            Mockito.mock(AccountCache.class));
+
+    @Test
+    public void firstPage_passesFiltersAndPointsAtItsLastRow() {
+        UserFilterRequest filter = UserFilterRequest.builder()
+                .role(UserRole.USER)
+                .minBalance(new BigDecimal("100"))
+                .locked(true)
+                .build();
+        when(userRepository.findUserPage(eq(KeysetCursor.START.createdAt()), eq(Long.MAX_VALUE), eq(UserRole.USER),
+                eq(new BigDecimal("100")), isNull(), eq(false), isNull(), isNull(), eq(PageRequest.ofSize(3))))
+                .thenReturn(users(3));
+
+        CursorPageResponse<UserResponse> page = userService.getUsers(filter, null, 2);
+
+        assertThat(page.getItems()).extracting(UserResponse::getId).containsExactly(50L, 49L);
+        assertThat(page.isHasMore()).isTrue();
+        assertThat(KeysetCursor.decode(page.getNextCursor())).isEqualTo(new KeysetCursor(T0.minusMinutes(1), 49L));
+    }
+
+    @Test
+    public void lastPage_hasNoCursorAndPageSizeIsCapped() {
+        KeysetCursor position = new KeysetCursor(T0, 10L);
+        when(userRepository.findUserPage(any(), any(), any(), any(), any(), any(), any(), any(), any()))
+                .thenReturn(users(1));
+
+        CursorPageResponse<UserResponse> page = userService.getUsers(new UserFilterRequest(), position.encode(), 10_000);
+
+        assertThat(page.isHasMore()).isFalse();
+        assertThat(page.getNextCursor()).isNull();
+        verify(userRepository).findUserPage(T0, 10L, null, null, null, null, null, null, PageRequest.ofSize(101));
+    }
+
+    @Test
+    public void export_writesOneUserPerLine() throws Exception {
+        ObjectMapper objectMapper = JsonMapper.builder()
+                .findAndAddModules()
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+        UserExportService exportService = new UserExportService(userRepository, Mockito.mock(LedgerEngine.class), null, objectMapper);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        long written = exportService.write(users(3).stream(), out);
+
+        List<String> lines = out.toString(StandardCharsets.UTF_8).lines().toList();
+        assertThat(written).isEqualTo(3);
+        assertThat(lines).hasSize(3);
+        assertThat(objectMapper.readTree(lines.get(0)).get("email").asText()).isEqualTo("user50@example.com");
+        assertThat(lines).noneMatch(line -> line.contains("password"));
+        assertThat(exportService.write(Stream.empty(), new ByteArrayOutputStream())).isZero();
+    }
+
+    private static List<UserResponse> users(int count) {
+        List<UserResponse> users = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            users.add(new UserResponse(50L - i, "User " + (50 - i), "user" + (50 - i) + "@example.com",
+                    UserRole.USER, BigDecimal.TEN, T0.minusMinutes(i)));
+        }
+        return users;
+    }
+}
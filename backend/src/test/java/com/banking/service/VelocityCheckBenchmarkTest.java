@@ -0,0 +1,195 @@
+package com.banking.service;
+
+import com.banking.dto.request.TransferRequest;
+import com.banking.events.TransactionEvent;
+import com.banking.model.User;
+import com.banking.model.enums.UserRole;
+import com.banking.repository.TransactionRepository;
+import com.banking.repository.UserRepository;
+import com.banking.security.UserDetailsImpl;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.testcontainers.containers.MySQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares transfer latency with the velocity check answered by {@link VelocityTracker}
+ * against the COUNT query it replaced. Every sender carries {@code harness.history} older
+ * transactions, so the COUNT has realistic per-sender history to range over.
+ * <p>
+ * Run with {@code mvn test -Pbenchmarks -Dtest=VelocityCheckBenchmarkTest}.
+ */
+@Tag("benchmark")
+@Testcontainers(disabledWithoutDocker = true)
+@SpringBootTest
+@ActiveProfiles("test")
+public class VelocityCheckBenchmarkTest {
+
+    private static final int SENDERS = Integer.getInteger("harness.senders", 500);
+    private static final int HISTORY = Integer.getInteger("harness.history", 200);
+    private static final int TRANSFERS_PER_SENDER = 4;
+    private static final int THREADS = Integer.getInteger("harness.threads", 16);
+
+    @Container
+    static MySQLContainer<?> mysql = new MySQLContainer<>("mysql:8.0")
+            .withUrlParam("rewriteBatchedStatements", "true");
+
+    @DynamicPropertySource
+    static void properties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", mysql::getJdbcUrl);
+        registry.add("spring.datasource.username", mysql::getUsername);
+        registry.add("spring.datasource.password", mysql::getPassword);
+        registry.add("spring.jpa.show-sql", () -> "false");
+        registry.add("spring.kafka.admin.auto-create", () -> "false");
+        registry.add("app.outbox.enabled", () -> "false");
+        registry.add("app.transfer.locking-mode", () -> "ORDERED");
+    }
+
+    @MockBean
+    private KafkaTemplate<String, TransactionEvent> kafkaTemplate;
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Test
+    public void transferLatency() throws Exception {
+        transactionRepository.deleteAll();
+        userRepository.deleteAll();
+        User receiver = createUser("receiver");
+        List<User> trackerSenders = createSenders("tracker");
+        List<User> querySenders = createSenders("query");
+        seedHistory(trackerSenders, receiver, 1_000_000_000L);
+        seedHistory(querySenders, receiver, 2_000_000_000L);
+
+        ReflectionTestUtils.setField(transactionService, "velocityTrackerEnabled", false);
+        long[] query = run(querySenders, receiver);
+        ReflectionTestUtils.setField(transactionService, "velocityTrackerEnabled", true);
+        long[] tracker = run(trackerSenders, receiver);
+
+        report("count query", query);
+        report("tracker", tracker);
+    }
+
+    private long[] run(List<User> senders, User receiver) throws Exception {
+        TransferRequest request = TransferRequest.builder()
+                .receiverId(receiver.getId())
+                .amount(BigDecimal.ONE)
+                .build();
+        List<Runnable> tasks = new ArrayList<>();
+        long[] latencies = new long[senders.size() * TRANSFERS_PER_SENDER];
+        for (int i = 0; i < TRANSFERS_PER_SENDER; i++) {
+            for (int s = 0; s < senders.size(); s++) {
+                UserDetailsImpl principal = UserDetailsImpl.build(senders.get(s));
+                int slot = i * senders.size() + s;
+                tasks.add(() -> {
+                    SecurityContextHolder.getContext().setAuthentication(
+                            new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities()));
+                    try {
+                        long start = System.nanoTime();
+                        transactionService.transferMoney(request);
+                        latencies[slot] = System.nanoTime() - start;
+                    } finally {
+                        SecurityContextHolder.clearContext();
+                    }
+                });
+            }
+        }
+
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        List<Future<?>> futures = new ArrayList<>();
+        tasks.forEach(task -> futures.add(pool.submit(task)));
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        pool.shutdown();
+        pool.awaitTermination(1, TimeUnit.MINUTES);
+        Arrays.sort(latencies);
+        return latencies;
+    }
+
+    private void seedHistory(List<User> senders, User receiver, long firstId) throws Exception {
+        String sql = "INSERT INTO transactions (id, sender_id, receiver_id, amount, status, is_flagged, created_at, updated_at) "
+                + "VALUES (?, ?, ?, 1, 'COMPLETED', false, ?, ?)";
+        // Old enough to fall outside the window, so every transfer still completes
+        Timestamp createdAt = Timestamp.valueOf(LocalDateTime.now().minusDays(1));
+        long id = firstId;
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement insert = connection.prepareStatement(sql)) {
+            connection.setAutoCommit(false);
+            for (User sender : senders) {
+                for (int i = 0; i < HISTORY; i++) {
+                    insert.setLong(1, id++);
+                    insert.setLong(2, sender.getId());
+                    insert.setLong(3, receiver.getId());
+                    insert.setTimestamp(4, createdAt);
+                    insert.setTimestamp(5, createdAt);
+                    insert.addBatch();
+                }
+                insert.executeBatch();
+            }
+            connection.commit();
+        }
+    }
+
+    private List<User> createSenders(String prefix) {
+        List<User> senders = new ArrayList<>(SENDERS);
+        for (int i = 0; i < SENDERS; i++) {
+            senders.add(createUser(prefix + i));
+        }
+        return senders;
+    }
+
+    private User createUser(String name) {
+        return userRepository.save(User.builder()
+                .name(name)
+                .email(name + "@harness.test")
+                .password("n/a")
+                .role(UserRole.USER)
+                .balance(new BigDecimal("1000.0000"))
+                .accountNonLocked(true)
+                .build());
+    }
+
+    private static void report(String label, long[] sorted) {
+        System.out.printf("%s: transfers=%d p50=%.2fms p99=%.2fms max=%.2fms%n", label, sorted.length,
+                percentile(sorted, 0.50) / 1e6, percentile(sorted, 0.99) / 1e6, sorted[sorted.length - 1] / 1e6);
+    }
+
+    private static long percentile(long[] sorted, double percentile) {
+        return sorted[Math.min(sorted.length - 1, (int) Math.ceil(percentile * sorted.length) - 1)];
+    }
+}
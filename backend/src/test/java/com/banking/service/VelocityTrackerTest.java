@@ -0,0 +1,103 @@
+package com.banking.service;
+
+import com.banking.repository.TransactionRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class VelocityTrackerTest {
+
+    private final TransactionRepository transactionRepository = mock(TransactionRepository.class);
+
+    @Test
+    public void warmsFromRecentTransactionsAndCountsNewOnes() {
+        when(transactionRepository.findSenderActivitySince(any())).thenReturn(List.of(
+                activity(1L, LocalDateTime.now().minusMinutes(3)),
+                activity(1L, LocalDateTime.now().minusMinutes(1)),
+                activity(2L, LocalDateTime.now().minusSeconds(5)),
+                activity(3L, LocalDateTime.now().minusMinutes(30))));
+        VelocityTracker tracker = tracker(true);
+
+        tracker.record(1L, 2);
+
+        assertThat(tracker.count(1L)).isEqualTo(4);
+        assertThat(tracker.count(2L)).isEqualTo(1);
+        assertThat(tracker.count(3L)).isZero();
+        assertThat(tracker.count(99L)).isZero();
+    }
+
+    @Test
+    public void record_insideTransaction_appliesOnlyAfterCommit() {
+        VelocityTracker tracker = tracker(false);
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            tracker.record(1L, 1);
+            assertThat(tracker.count(1L)).isZero();
+
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertThat(tracker.count(1L)).isEqualTo(1);
+    }
+
+    @Test
+    public void evictIdle_dropsSendersWithNothingInTheWindow() {
+        when(transactionRepository.findSenderActivitySince(any())).thenReturn(List.of(
+                activity(1L, LocalDateTime.now().minusSeconds(1))));
+        VelocityTracker tracker = tracker(true);
+        tracker.record(2L, 1);
+
+        // Shrink the window to a single slot and wait for it to roll over
+        ReflectionTestUtils.setField(tracker, "slots", 1);
+        ReflectionTestUtils.setField(tracker, "slotMillis", 50L);
+        sleep(120);
+        tracker.evictIdle();
+
+        assertThat(tracker.count(1L)).isZero();
+        assertThat(tracker.count(2L)).isZero();
+    }
+
+    private VelocityTracker tracker(boolean warm) {
+        VelocityTracker tracker = new VelocityTracker(transactionRepository, new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(tracker, "windowMinutes", 10);
+        ReflectionTestUtils.setField(tracker, "slotSeconds", 10);
+        ReflectionTestUtils.setField(tracker, "warmOnStartup", warm);
+        tracker.init();
+        return tracker;
+    }
+
+    private static TransactionRepository.SenderActivityView activity(Long senderId, LocalDateTime createdAt) {
+        return new TransactionRepository.SenderActivityView() {
+            @Override
+            public Long getSenderId() {
+                return senderId;
+            }
+
+            @Override
+            public LocalDateTime getCreatedAt() {
+                return createdAt;
+            }
+        };
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
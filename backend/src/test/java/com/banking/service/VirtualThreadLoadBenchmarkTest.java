@@ -0,0 +1,226 @@
+package com.banking.service;
+
+import com.banking.events.TransactionEvent;
+import com.banking.model.User;
+import com.banking.model.enums.UserRole;
+import com.banking.repository.TransactionRepository;
+import com.banking.repository.UserRepository;
+import com.banking.security.JwtService;
+import com.banking.security.UserDetailsImpl;
+import jakarta.servlet.Filter;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.MySQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.lang.management.ManagementFactory;
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Drives transfers through HTTP with {@code harness.clients} concurrent clients and reports
+ * the most transfers Tomcat had in flight at once, live threads, and memory per request for
+ * the configured thread mode. Platform mode caps in-flight requests at Tomcat's 200 worker
+ * threads; virtual mode admits every client and queues them on the connection pool instead.
+ * <p>
+ * Run with {@code mvn test -Pbenchmarks -Dtest=VirtualThreadLoadBenchmarkTest -Dharness.virtual-threads=true}
+ * and again with {@code false} to compare. Clients run in the same JVM on virtual threads in
+ * both modes, so their share of the allocation figure is identical.
+ */
+@Tag("benchmark")
+@Testcontainers(disabledWithoutDocker = true)
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("test")
+public class VirtualThreadLoadBenchmarkTest {
+
+    private static final int CLIENTS = Integer.getInteger("harness.clients", 1000);
+    private static final int TRANSFERS_PER_CLIENT = 4;
+
+    private static final AtomicInteger inFlight = new AtomicInteger();
+    private static final AtomicInteger peakInFlight = new AtomicInteger();
+
+    @Container
+    static MySQLContainer<?> mysql = new MySQLContainer<>("mysql:8.0");
+
+    @DynamicPropertySource
+    static void properties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", mysql::getJdbcUrl);
+        registry.add("spring.datasource.username", mysql::getUsername);
+        registry.add("spring.datasource.password", mysql::getPassword);
+        registry.add("spring.jpa.show-sql", () -> "false");
+        registry.add("spring.kafka.admin.auto-create", () -> "false");
+        registry.add("app.outbox.enabled", () -> "false");
+        registry.add("app.transfer.locking-mode", () -> "ORDERED");
+        registry.add("spring.threads.virtual.enabled", () -> System.getProperty("harness.virtual-threads", "false"));
+        registry.add("logging.level.org.hibernate.SQL", () -> "WARN");
+        registry.add("logging.level.org.hibernate.type.descriptor.sql.BasicBinder", () -> "WARN");
+    }
+
+    @TestConfiguration
+    static class InFlightConfig {
+        @Bean
+        FilterRegistrationBean<Filter> inFlightFilter() {
+            FilterRegistrationBean<Filter> registration = new FilterRegistrationBean<>((request, response, chain) -> {
+                peakInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+                try {
+                    chain.doFilter(request, response);
+                } finally {
+                    inFlight.decrementAndGet();
+                }
+            });
+            registration.addUrlPatterns("/transactions/transfer");
+            return registration;
+        }
+    }
+
+    @MockBean
+    private KafkaTemplate<String, TransactionEvent> kafkaTemplate;
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private JwtService jwtService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Test
+    public void concurrentTransfers() throws Exception {
+        transactionRepository.deleteAll();
+        userRepository.deleteAll();
+
+        List<String> tokens = new ArrayList<>();
+        List<Long> receivers = new ArrayList<>();
+        for (int i = 0; i < CLIENTS; i++) {
+            tokens.add(jwtService.generateToken(UserDetailsImpl.build(createUser("sender" + i))));
+            receivers.add(createUser("receiver" + i).getId());
+        }
+
+        HttpClient http = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .build();
+        URI uri = URI.create("http://localhost:" + port + "/api/transactions/transfer");
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        AtomicInteger failures = new AtomicInteger();
+        AtomicInteger completed = new AtomicInteger();
+        long[] latencies = new long[CLIENTS * TRANSFERS_PER_CLIENT];
+
+        System.gc();
+        long heapBefore = usedHeap();
+        AtomicLong peakHeap = new AtomicLong(heapBefore);
+        AtomicInteger peakThreads = new AtomicInteger(threads.getThreadCount());
+        Thread sampler = Thread.ofPlatform().daemon().start(() -> {
+            while (!Thread.currentThread().isInterrupted()) {
+                peakHeap.accumulateAndGet(usedHeap(), Math::max);
+                peakThreads.accumulateAndGet(threads.getThreadCount(), Math::max);
+                try {
+                    Thread.sleep(5);
+                } catch (InterruptedException e) {
+                    return;
+                }
+            }
+        });
+
+        long allocatedBefore = threads.getTotalThreadAllocatedBytes();
+        long start = System.nanoTime();
+        try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < CLIENTS; i++) {
+                HttpRequest request = HttpRequest.newBuilder(uri)
+                        .timeout(Duration.ofMinutes(2))
+                        .header("Authorization", "Bearer " + tokens.get(i))
+                        .header("Content-Type", "application/json")
+                        .POST(HttpRequest.BodyPublishers.ofString(
+                                "{\"receiverId\":" + receivers.get(i) + ",\"amount\":1}"))
+                        .build();
+                futures.add(clients.submit(() -> {
+                    for (int t = 0; t < TRANSFERS_PER_CLIENT; t++) {
+                        long sent = System.nanoTime();
+                        HttpResponse<Void> response = http.send(request, HttpResponse.BodyHandlers.discarding());
+                        if (response.statusCode() != 200) {
+                            failures.incrementAndGet();
+                            continue;
+                        }
+                        latencies[completed.getAndIncrement()] = System.nanoTime() - sent;
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        }
+        long elapsedNanos = System.nanoTime() - start;
+        long allocated = threads.getTotalThreadAllocatedBytes() - allocatedBefore;
+        sampler.interrupt();
+        sampler.join();
+
+        int requests = CLIENTS * TRANSFERS_PER_CLIENT;
+        long[] sorted = Arrays.copyOf(latencies, completed.get());
+        Arrays.sort(sorted);
+        System.out.printf(
+                "threads=%s clients=%d transfers=%d failures=%d peakInFlight=%d peakLiveThreads=%d "
+                        + "throughput=%.1f/s p50=%.2fms p99=%.2fms%n",
+                Boolean.getBoolean("harness.virtual-threads") ? "virtual" : "platform", CLIENTS, requests,
+                failures.get(), peakInFlight.get(), peakThreads.get(), requests / (elapsedNanos / 1e9),
+                percentile(sorted, 0.50) / 1e6, percentile(sorted, 0.99) / 1e6);
+        System.out.printf("allocatedPerRequest=%.1fKB peakHeapGrowth=%.1fMB heapPerInFlight=%.1fKB%n",
+                allocated / 1024.0 / requests, (peakHeap.get() - heapBefore) / 1024.0 / 1024.0,
+                (peakHeap.get() - heapBefore) / 1024.0 / Math.max(1, peakInFlight.get()));
+
+        assertThat(failures.get()).isZero();
+    }
+
+    private User createUser(String name) {
+        return userRepository.save(User.builder()
+                .name(name)
+                .email(name + "@harness.test")
+                .password("n/a")
+                .role(UserRole.USER)
+                .balance(new BigDecimal("1000.0000"))
+                .accountNonLocked(true)
+                .build());
+    }
+
+    private static long usedHeap() {
+        return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+    }
+
+    private static long percentile(long[] sorted, double percentile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        return sorted[Math.min(sorted.length - 1, (int) Math.ceil(percentile * sorted.length) - 1)];
+    }
+}